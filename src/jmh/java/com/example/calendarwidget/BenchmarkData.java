@@ -0,0 +1,94 @@
+package com.example.calendarwidget;
+
+import com.example.calendarwidget.model.Holiday;
+import com.example.calendarwidget.model.HolidayIndex;
+import com.example.calendarwidget.model.HolidayType;
+import com.example.calendarwidget.service.HolidayRules;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Synthetic data sets for the benchmarks, derived from the Nager.Date fixture payload by shifting
+ * it to other years and relabelling it for other countries.
+ */
+public final class BenchmarkData {
+    public static final int BASE_YEAR = 2025;
+    private static final String FIXTURE = "/fixtures/PublicHolidays-" + BASE_YEAR + "-US.json";
+
+    // Held strongly so the level set in quietLogging() is not lost to garbage collection
+    private static final Logger appLogger = Logger.getLogger("com.example.calendarwidget");
+
+    private BenchmarkData() {}
+
+    /** Keeps per-operation INFO logging out of the measurements. */
+    public static void quietLogging() {
+        appLogger.setLevel(Level.WARNING);
+    }
+
+    public static String fixture() {
+        try (InputStream in = BenchmarkData.class.getResourceAsStream(FIXTURE)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing benchmark fixture " + FIXTURE);
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static String countryCode(int country) {
+        return country == 0 ? "US" : String.format("C%02d", country);
+    }
+
+    /** One response body per country and year, as the service would receive them. */
+    public static List<byte[]> bodies(int years, int countries) {
+        String fixture = fixture();
+        List<byte[]> bodies = new ArrayList<>(years * countries);
+        for (int c = 0; c < countries; c++) {
+            String countryBody = fixture.replace("\"US\"", "\"" + countryCode(c) + "\"")
+                    .replace("\"localName\":\"", "\"localName\":\"" + countryCode(c) + " ");
+            for (int y = 0; y < years; y++) {
+                int year = firstYear(years) + y;
+                bodies.add(countryBody.replace(BASE_YEAR + "-", year + "-").getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        return bodies;
+    }
+
+    /** An index with the fixture's holidays for every country and year, categorised as the service does. */
+    public static HolidayIndex index(int years, int countries) {
+        HolidayIndex.Builder builder = HolidayIndex.builder();
+        String[][] fixture = {
+                {"01-01", "New Year's Day"}, {"01-20", "Martin Luther King, Jr. Day"}, {"02-17", "Washington's Birthday"},
+                {"05-26", "Memorial Day"}, {"06-19", "Juneteenth National Independence Day"}, {"07-04", "Independence Day"},
+                {"09-01", "Labour Day"}, {"10-13", "Columbus Day"}, {"11-11", "Veterans Day"},
+                {"11-27", "Thanksgiving Day"}, {"12-24", "Christmas Eve"}, {"12-25", "Christmas Day"},
+        };
+        for (int c = 0; c < countries; c++) {
+            for (int y = 0; y < years; y++) {
+                int year = firstYear(years) + y;
+                for (String[] entry : fixture) {
+                    String date = year + "-" + entry[0];
+                    String name = entry[1];
+                    LocalDate day = LocalDate.parse(date);
+                    HolidayType type = HolidayRules.DEFAULT.classify(countryCode(c), (int) day.toEpochDay(), name);
+                    builder.add(new Holiday(day, name, type));
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    /** First year of a range of {@code years} years centred on the base year. */
+    public static int firstYear(int years) {
+        return BASE_YEAR - years / 2;
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.calendarwidget;
+
+import com.example.calendarwidget.controller.CalendarController;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rebuilding and painting a released {@link CalendarWindow} from the retained controller and
+ * render models, against {@link CalendarWindow#REBUILD_BUDGET}. Frames cannot be created
+ * headless, so this measures the content only; run with {@code -prof gc} for the allocation per
+ * rebuild.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class CalendarWindowBenchmark {
+
+    @Param({"3", "12"})
+    public int months;
+
+    private CalendarController controller;
+    private CalendarWindow window;
+    private BufferedImage image;
+    private Graphics2D graphics;
+
+    @Setup
+    public void setup() {
+        BenchmarkData.quietLogging();
+        controller = new CalendarController(BenchmarkData.index(3, 10));
+        window = new CalendarWindow(controller, months, Duration.ofMinutes(5));
+        JComponent content = window.buildContent();
+        content.setSize(content.getPreferredSize().width, 400);
+        image = new BufferedImage(content.getWidth(), content.getHeight(), BufferedImage.TYPE_INT_RGB);
+        graphics = image.createGraphics();
+        window.releaseContent();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        graphics.dispose();
+        controller.shutdown();
+    }
+
+    @Benchmark
+    public BufferedImage rebuildAndPaint() {
+        JComponent content = window.buildContent();
+        content.setSize(image.getWidth(), image.getHeight());
+        layout(content);
+        content.paint(graphics);
+        window.releaseContent();
+        return image;
+    }
+
+    private static void layout(Component component) {
+        if (component instanceof Container container) {
+            container.doLayout();
+            for (Component child : container.getComponents()) {
+                layout(child);
+            }
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.calendarwidget.controller;
+
+import com.example.calendarwidget.BenchmarkData;
+import com.example.calendarwidget.model.HolidayIndex;
+import com.example.calendarwidget.view.MonthRenderCache;
+import com.example.calendarwidget.view.MonthRenderModel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The detail text of a selected date, swept over the busiest fortnight: formatted from the index
+ * on every selection, as the {@link CalendarController} listener did, against read from the
+ * render models the view caches anyway, as it does now.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DateSelectionBenchmark {
+
+    @Param({"3", "10", "50"})
+    public int years;
+
+    @Param({"1", "10", "100"})
+    public int countries;
+
+    private HolidayIndex holidays;
+    private MonthRenderCache renderCache;
+    private final LocalDate start = LocalDate.of(BenchmarkData.BASE_YEAR, 12, 18);
+
+    @Setup
+    public void setup() {
+        BenchmarkData.quietLogging();
+        holidays = BenchmarkData.index(years, countries);
+        renderCache = new MonthRenderCache(holidays, MonthRenderCache.DEFAULT_CAPACITY);
+        // The months around the selection are on screen, so their models are cached
+        renderCache.get(YearMonth.from(start));
+        renderCache.get(YearMonth.from(start.plusDays(13)));
+    }
+
+    @Benchmark
+    public void formatPerSelection(Blackhole bh) {
+        for (int i = 0; i < 14; i++) {
+            bh.consume(MonthRenderModel.describe(holidays.getHolidays(start.plusDays(i))));
+        }
+    }
+
+    @Benchmark
+    public void cachedDetails(Blackhole bh) {
+        for (int i = 0; i < 14; i++) {
+            bh.consume(renderCache.getDetails(start.plusDays(i)));
+        }
+    }
+}
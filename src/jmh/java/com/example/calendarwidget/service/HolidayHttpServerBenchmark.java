@@ -0,0 +1,88 @@
+package com.example.calendarwidget.service;
+
+import com.example.calendarwidget.BenchmarkData;
+import com.example.calendarwidget.model.HolidayIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Load test of the embedded HTTP server over localhost, from 16 concurrent clients. Reports
+ * throughput and, in sample mode, the latency distribution including p99. Run with:
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.args="HolidayHttpServer"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(16)
+@Fork(value = 1, jvmArgsAppend = "-Dsun.net.httpserver.nodelay=true")
+public class HolidayHttpServerBenchmark {
+
+    private HolidayHttpServer server;
+    private HttpClient client;
+    private HttpRequest cachedDay;
+    private HttpRequest conditionalDay;
+    private String base;
+    private final AtomicInteger rangeCounter = new AtomicInteger();
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        BenchmarkData.quietLogging();
+        // The supplier must hand out one stable snapshot, as the controller does
+        HolidayIndex holidays = BenchmarkData.index(50, 1);
+        server = new HolidayHttpServer(() -> holidays, 0);
+        server.start();
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        base = "http://127.0.0.1:" + server.getPort();
+        cachedDay = HttpRequest.newBuilder(URI.create(base + "/day?date=" + BenchmarkData.BASE_YEAR + "-12-25")).build();
+        String etag = client.send(cachedDay, HttpResponse.BodyHandlers.discarding()).headers().firstValue("ETag").orElseThrow();
+        conditionalDay = HttpRequest.newBuilder(cachedDay.uri()).header("If-None-Match", etag).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        server.stop();
+    }
+
+    @Benchmark
+    public int cachedDay() throws IOException, InterruptedException {
+        return client.send(cachedDay, HttpResponse.BodyHandlers.ofByteArray()).statusCode();
+    }
+
+    @Benchmark
+    public int notModified() throws IOException, InterruptedException {
+        return client.send(conditionalDay, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    /** Distinct month ranges over 50 years, so most requests serialize a fresh response. */
+    @Benchmark
+    public int variedRange() throws IOException, InterruptedException {
+        int i = rangeCounter.getAndIncrement();
+        LocalDate from = LocalDate.of(BenchmarkData.firstYear(50), 1, 1).plusDays(i % (50 * 365));
+        URI uri = URI.create(base + "/range?from=" + from + "&to=" + from.plusDays(30) + "&i=" + i);
+        return client.send(HttpRequest.newBuilder(uri).build(), HttpResponse.BodyHandlers.ofByteArray()).statusCode();
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.calendarwidget.service;
+
+import com.example.calendarwidget.BenchmarkData;
+import com.example.calendarwidget.model.HolidayIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON parsing and categorisation as done by {@link HolidayService} for every response body,
+ * followed by the merge into a single index.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HolidayIngestBenchmark {
+
+    @Param({"3", "10", "50"})
+    public int years;
+
+    @Param({"1", "10", "100"})
+    public int countries;
+
+    private List<byte[]> bodies;
+    private HolidayService service;
+
+    @Setup
+    public void setup() {
+        BenchmarkData.quietLogging();
+        bodies = BenchmarkData.bodies(years, countries);
+        service = new HolidayService(HolidayService.DEFAULT_BASE_URL, "US", Duration.ofSeconds(1), 1);
+    }
+
+    @Benchmark
+    public HolidayIndex parseAndMerge() throws IOException {
+        HolidayIndex.Builder merged = HolidayIndex.builder();
+        int year = 0;
+        for (byte[] body : bodies) {
+            merged.addAll(service.parseHolidays(new ByteArrayInputStream(body), year++));
+        }
+        return merged.build();
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.calendarwidget.service;
+
+import com.example.calendarwidget.BenchmarkData;
+import com.example.calendarwidget.model.HolidayIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Headless week and month report over many country-years, with shards already resident (warm)
+ * and loaded from pre-built indexes on every run (cold), written to a discarding writer.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HolidayReportBenchmark {
+
+    @Param({"3", "10"})
+    public int years;
+
+    @Param({"10", "100"})
+    public int countries;
+
+    @Param({"CSV", "JSON"})
+    public HolidayReport.Format format;
+
+    private final Map<Integer, HolidayIndex> shardsByYear = new HashMap<>();
+    private final List<String> codes = new ArrayList<>();
+    private ForkJoinPool pool;
+    private HolidayStore warmStore;
+    private int fromYear;
+
+    @Setup
+    public void setup() throws IOException {
+        BenchmarkData.quietLogging();
+        fromYear = BenchmarkData.firstYear(years);
+        // Neighbouring years are loaded too, for the ISO weeks that span New Year
+        HolidayIndex all = BenchmarkData.index(years + 2, 1);
+        for (int year = fromYear - 1; year <= fromYear + years; year++) {
+            shardsByYear.put(year, HolidayIndex.EMPTY.replaceYear(year, all));
+        }
+        for (int c = 0; c < countries; c++) {
+            codes.add(BenchmarkData.countryCode(c));
+        }
+        pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        warmStore = newStore();
+        run(warmStore);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Benchmark
+    public long reportWarm() throws IOException {
+        return run(warmStore);
+    }
+
+    @Benchmark
+    public long reportCold() throws IOException {
+        return run(newStore());
+    }
+
+    private HolidayStore newStore() {
+        return new HolidayStore((country, year) -> shardsByYear.getOrDefault(year, HolidayIndex.EMPTY),
+                HolidayStore.DEFAULT_MAX_BYTES);
+    }
+
+    private long run(HolidayStore store) throws IOException {
+        return new HolidayReport(store, format, EnumSet.allOf(HolidayReport.Aggregate.class), pool)
+                .write(codes, fromYear, fromYear + years - 1, Writer.nullWriter());
+    }
+}
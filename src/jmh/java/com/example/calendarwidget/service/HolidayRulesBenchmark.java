@@ -0,0 +1,125 @@
+package com.example.calendarwidget.service;
+
+import com.example.calendarwidget.BenchmarkData;
+import com.example.calendarwidget.model.Holiday;
+import com.example.calendarwidget.model.HolidayType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Classifying 100 countries x 10 years of holidays by compiled {@link HolidayRules} against
+ * checking each rule in turn with a substring scan, as the hard-coded checks did, for growing
+ * numbers of company-specific rules. Also measures compiling the rules, as on a hot reload.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HolidayRulesBenchmark {
+    private static final int COUNTRIES = 100;
+    private static final int YEARS = 10;
+
+    @Param({"2", "100", "1000"})
+    public int rules;
+
+    private String text;
+    private HolidayRules compiled;
+    private List<LinearRule> linear;
+    private String[] countries;
+    private int[] days;
+    private String[] names;
+
+    /** One rule as a plain substring and country check. */
+    private record LinearRule(HolidayType type, String pattern, String country) {}
+
+    @Setup
+    public void setup() throws IOException {
+        BenchmarkData.quietLogging();
+        // Company-specific rules first, one country each, then the two general ones
+        StringBuilder file = new StringBuilder();
+        linear = new ArrayList<>();
+        for (int i = 0; i < rules - 2; i++) {
+            String pattern = "site " + i + " closure";
+            String country = BenchmarkData.countryCode(i % COUNTRIES);
+            file.append("work name=\"").append(pattern).append("\" country=").append(country).append('\n');
+            linear.add(new LinearRule(HolidayType.WORK, pattern, country));
+        }
+        file.append("work name=Christmas\nwork name=Thanksgiving\n");
+        linear.add(new LinearRule(HolidayType.WORK, "christmas", null));
+        linear.add(new LinearRule(HolidayType.WORK, "thanksgiving", null));
+        text = file.toString();
+        compiled = HolidayRules.parse(new StringReader(text), "benchmark");
+
+        List<Holiday> holidays = BenchmarkData.index(YEARS, 1).getAllHolidays();
+        int n = COUNTRIES * holidays.size();
+        countries = new String[n];
+        days = new int[n];
+        names = new String[n];
+        int i = 0;
+        for (int c = 0; c < COUNTRIES; c++) {
+            String country = BenchmarkData.countryCode(c);
+            for (Holiday h : holidays) {
+                countries[i] = country;
+                days[i] = h.getEpochDay();
+                // Local names as the service receives them, prefixed like the benchmark bodies
+                names[i] = country + " " + h.getName();
+                i++;
+            }
+        }
+        if (classifyCompiled() != classifyLinear()) {
+            throw new IllegalStateException("Compiled and linear rules disagree");
+        }
+    }
+
+    /** Returns the number of work holidays, so the work cannot be optimised away. */
+    @Benchmark
+    public int classifyCompiled() {
+        int work = 0;
+        for (int i = 0; i < names.length; i++) {
+            if (compiled.classify(countries[i], days[i], names[i]) == HolidayType.WORK) {
+                work++;
+            }
+        }
+        return work;
+    }
+
+    @Benchmark
+    public int classifyLinear() {
+        int work = 0;
+        for (int i = 0; i < names.length; i++) {
+            String name = names[i].toLowerCase(Locale.ROOT);
+            for (LinearRule rule : linear) {
+                if ((rule.country() == null || rule.country().equals(countries[i])) && name.contains(rule.pattern())) {
+                    if (rule.type() == HolidayType.WORK) {
+                        work++;
+                    }
+                    break;
+                }
+            }
+        }
+        return work;
+    }
+
+    @Benchmark
+    public HolidayRules compile() throws IOException {
+        return HolidayRules.parse(new StringReader(text), "benchmark");
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.calendarwidget.service;
+
+import com.example.calendarwidget.BenchmarkData;
+import com.example.calendarwidget.model.HolidayIndex;
+import com.example.calendarwidget.util.AsyncFileHandler;
+import com.example.calendarwidget.view.CalendarView;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.FileHandler;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.logging.SimpleFormatter;
+
+/**
+ * Navigation and ingestion with the application's FINE logging on or off, written through
+ * {@link AsyncFileHandler} or the JDK's synchronous {@link FileHandler}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class HotPathLoggingBenchmark {
+
+    @Param({"false", "true"})
+    public boolean fine;
+
+    @Param({"async", "sync"})
+    public String handler;
+
+    // Held strongly so the level and handler set here are not lost to garbage collection
+    private final Logger appLogger = Logger.getLogger("com.example.calendarwidget");
+    private Path dir;
+    private Handler installed;
+    private List<byte[]> bodies;
+    private HolidayService service;
+    private CalendarView view;
+    private final LocalDate base = LocalDate.of(BenchmarkData.BASE_YEAR, 1, 1);
+    private int step;
+
+    @Setup
+    public void setup() throws IOException {
+        dir = Files.createTempDirectory("logging-benchmark");
+        installed = handler.equals("async")
+                ? new AsyncFileHandler(dir.resolve("app.log"), AsyncFileHandler.DEFAULT_LIMIT, AsyncFileHandler.DEFAULT_COUNT,
+                        AsyncFileHandler.DEFAULT_CAPACITY, AsyncFileHandler.OverflowPolicy.BLOCK,
+                        AsyncFileHandler.DEFAULT_BATCH_SIZE)
+                : new FileHandler(dir.resolve("app%g.log").toString(), (int) AsyncFileHandler.DEFAULT_LIMIT,
+                        AsyncFileHandler.DEFAULT_COUNT);
+        installed.setFormatter(new SimpleFormatter());
+        appLogger.setUseParentHandlers(false);
+        appLogger.addHandler(installed);
+        appLogger.setLevel(fine ? Level.FINE : Level.INFO);
+        // INFO stays on in both cases, as in production; only the FINE detail is switched
+        bodies = BenchmarkData.bodies(10, 1);
+        service = new HolidayService(HolidayService.DEFAULT_BASE_URL, "US", Duration.ofSeconds(1), 1);
+        view = new CalendarView(BenchmarkData.index(10, 1));
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        appLogger.removeHandler(installed);
+        installed.close();
+        try (var files = Files.list(dir)) {
+            for (Path file : files.toList()) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(dir);
+    }
+
+    /** One navigation step; every tenth month misses the render cache, as after a long jump. */
+    @Benchmark
+    public CalendarView navigate() {
+        view.updateCalendars(base.plusMonths(step++ % 120));
+        return view;
+    }
+
+    /** Parses and categorises ten years of public holidays. */
+    @Benchmark
+    public HolidayIndex ingest() throws IOException {
+        HolidayIndex.Builder merged = HolidayIndex.builder();
+        int year = 0;
+        for (byte[] body : bodies) {
+            merged.addAll(service.parseHolidays(new ByteArrayInputStream(body), year++));
+        }
+        return merged.build();
+    }
+}
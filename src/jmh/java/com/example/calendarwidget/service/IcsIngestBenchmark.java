@@ -0,0 +1,112 @@
+package com.example.calendarwidget.service;
+
+import com.example.calendarwidget.BenchmarkData;
+import com.example.calendarwidget.model.HolidayIndex;
+import com.example.calendarwidget.model.HolidayType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Streaming ingestion of a large company calendar export, alone and merged with public holidays
+ * through {@link CompositeHolidaySource}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx256m")
+public class IcsIngestBenchmark {
+    private static final int YEARS = 10;
+
+    @Param({"5000", "50000"})
+    public int events;
+
+    private Path file;
+    private int fromYear;
+    private int toYear;
+    private IcsHolidaySource ics;
+    private CompositeHolidaySource composite;
+
+    @Setup
+    public void setup() throws IOException {
+        BenchmarkData.quietLogging();
+        fromYear = BenchmarkData.firstYear(YEARS);
+        toYear = fromYear + YEARS - 1;
+        file = Files.createTempFile("company-calendar", ".ics");
+        writeCalendar(file, events, fromYear);
+        ics = new IcsHolidaySource(file, HolidayType.WORK);
+        HolidayIndex publicHolidays = BenchmarkData.index(YEARS, 1);
+        composite = new CompositeHolidaySource(List.of(ics, new HolidaySource() {
+            @Override
+            public String getName() {
+                return "fixture";
+            }
+
+            @Override
+            public HolidayIndex load(int from, int to) {
+                return publicHolidays;
+            }
+        }));
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public HolidayIndex ingestIcs() throws IOException {
+        return ics.load(fromYear, toYear);
+    }
+
+    @Benchmark
+    public HolidayIndex ingestAndMerge() throws IOException {
+        return composite.load(fromYear, toYear);
+    }
+
+    /** Writes a calendar in the shape exporters produce, with folded lines and alarms. */
+    private static void writeCalendar(Path file, int events, int fromYear) throws IOException {
+        DateTimeFormatter basic = DateTimeFormatter.BASIC_ISO_DATE;
+        LocalDate first = LocalDate.of(fromYear, 1, 1);
+        try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            out.write("BEGIN:VCALENDAR\r\nVERSION:2.0\r\nPRODID:-//Example//Company Calendar//EN\r\n");
+            for (int i = 0; i < events; i++) {
+                LocalDate day = first.plusDays((i * 7L) % (YEARS * 365L));
+                int length = i % 20 == 0 ? 3 : 1;
+                out.write("BEGIN:VEVENT\r\n");
+                out.write("UID:event-" + i + "@example.com\r\n");
+                out.write("DTSTAMP:20250101T000000Z\r\n");
+                out.write("DTSTART;VALUE=DATE:" + day.format(basic) + "\r\n");
+                out.write("DTEND;VALUE=DATE:" + day.plusDays(length).format(basic) + "\r\n");
+                out.write("SUMMARY:Team " + (i % 150) + " offsite\\, planning and retrospective sess\r\n ion\r\n");
+                out.write("DESCRIPTION:Agenda to follow. Bring laptops\\; dial-in details in the invite.\r\n");
+                if (i % 5 == 0) {
+                    out.write("BEGIN:VALARM\r\nACTION:DISPLAY\r\nTRIGGER:-P1D\r\nEND:VALARM\r\n");
+                }
+                out.write("END:VEVENT\r\n");
+            }
+            out.write("END:VCALENDAR\r\n");
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.calendarwidget.service;
+
+import com.example.calendarwidget.BenchmarkData;
+import com.example.calendarwidget.model.HolidayIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Top-K leave-window search over the whole loaded horizon, for one merged index and for every
+ * country planned separately.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VacationPlannerBenchmark {
+
+    @Param({"3", "10", "50"})
+    public int years;
+
+    @Param({"1", "10", "100"})
+    public int countries;
+
+    @Param({"5", "25"})
+    public int leaveBudget;
+
+    private final VacationPlanner planner = new VacationPlanner();
+    private HolidayIndex merged;
+    private Map<String, HolidayIndex> byCountry;
+    private LocalDate from;
+    private LocalDate to;
+
+    @Setup
+    public void setup() {
+        BenchmarkData.quietLogging();
+        merged = BenchmarkData.index(years, countries);
+        byCountry = new LinkedHashMap<>();
+        HolidayIndex single = BenchmarkData.index(years, 1);
+        for (int c = 0; c < countries; c++) {
+            byCountry.put(BenchmarkData.countryCode(c), single);
+        }
+        from = LocalDate.of(BenchmarkData.firstYear(years), 1, 1);
+        to = LocalDate.of(BenchmarkData.firstYear(years) + years - 1, 12, 31);
+    }
+
+    @Benchmark
+    public void planMerged(Blackhole bh) {
+        bh.consume(planner.plan(merged, from, to, leaveBudget, VacationPlanner.DEFAULT_TOP_K));
+    }
+
+    @Benchmark
+    public void planPerCountry(Blackhole bh) {
+        bh.consume(planner.planAll(byCountry, from, to, leaveBudget, VacationPlanner.DEFAULT_TOP_K));
+    }
+}
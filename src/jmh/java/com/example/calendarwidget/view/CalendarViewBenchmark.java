@@ -0,0 +1,57 @@
+package com.example.calendarwidget.view;
+
+import com.example.calendarwidget.BenchmarkData;
+import com.example.calendarwidget.model.HolidayIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Headless construction and first render of {@link CalendarView}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class CalendarViewBenchmark {
+
+    @Param({"3", "50"})
+    public int years;
+
+    @Param({"1", "100"})
+    public int countries;
+
+    private HolidayIndex holidays;
+    private final LocalDate month = LocalDate.of(BenchmarkData.BASE_YEAR, 12, 1);
+
+    @Setup
+    public void setup() {
+        BenchmarkData.quietLogging();
+        holidays = BenchmarkData.index(years, countries);
+    }
+
+    @Benchmark
+    public CalendarView construct() {
+        return new CalendarView(holidays);
+    }
+
+    @Benchmark
+    public CalendarView constructAndRender() {
+        CalendarView view = new CalendarView(holidays);
+        view.updateCalendars(month);
+        return view;
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.calendarwidget.view;
+
+import com.example.calendarwidget.BenchmarkData;
+import com.example.calendarwidget.model.HolidayIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.YearMonth;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Holiday lookups and per-week work-holiday aggregation for the three visible months, as done
+ * when {@link CalendarView} highlights a navigation step.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HighlightWeeksBenchmark {
+
+    @Param({"3", "10", "50"})
+    public int years;
+
+    @Param({"1", "10", "100"})
+    public int countries;
+
+    private HolidayIndex holidays;
+    private MonthRenderCache cache;
+    private final YearMonth december = YearMonth.of(BenchmarkData.BASE_YEAR, 12);
+
+    @Setup
+    public void setup() {
+        BenchmarkData.quietLogging();
+        holidays = BenchmarkData.index(years, countries);
+        cache = new MonthRenderCache(holidays, MonthRenderCache.DEFAULT_CAPACITY);
+    }
+
+    @Benchmark
+    public void dayLookups(Blackhole bh) {
+        int first = (int) december.minusMonths(1).atDay(1).toEpochDay();
+        int last = (int) december.plusMonths(1).atEndOfMonth().toEpochDay();
+        for (int day = first; day <= last; day++) {
+            bh.consume(holidays.getHolidays(day));
+            bh.consume(holidays.getWorkHolidayCountForWeek(day));
+        }
+    }
+
+    @Benchmark
+    public void computeRenderModels(Blackhole bh) {
+        bh.consume(MonthRenderModel.compute(december.minusMonths(1), holidays));
+        bh.consume(MonthRenderModel.compute(december, holidays));
+        bh.consume(MonthRenderModel.compute(december.plusMonths(1), holidays));
+    }
+
+    @Benchmark
+    public void cachedRenderModels(Blackhole bh) {
+        bh.consume(cache.get(december.minusMonths(1)));
+        bh.consume(cache.get(december));
+        bh.consume(cache.get(december.plusMonths(1)));
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.calendarwidget.view;
+
+import com.example.calendarwidget.BenchmarkData;
+import com.example.calendarwidget.model.HolidayIndex;
+import com.toedter.calendar.JCalendar;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Showing and painting {@code months} months with {@link MonthGrid} against the layout it
+ * replaced: one JCalendar per month whose day buttons are restyled one by one. Render models
+ * are precomputed, so only the component work is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class MonthGridBenchmark {
+
+    @Param({"3", "12"})
+    public int months;
+
+    private MonthRenderModel[][] models;
+    private MonthGrid grid;
+    private JCalendar[] calendars;
+    private JPanel calendarPanel;
+    private BufferedImage gridImage;
+    private BufferedImage calendarImage;
+    private Graphics2D gridGraphics;
+    private Graphics2D calendarGraphics;
+    private int step;
+
+    @Setup
+    public void setup() {
+        BenchmarkData.quietLogging();
+        HolidayIndex holidays = BenchmarkData.index(3, 10);
+        YearMonth first = YearMonth.of(BenchmarkData.BASE_YEAR, 1);
+        // Two alternating pages of months, as when navigating back and forth
+        models = new MonthRenderModel[2][months];
+        for (int page = 0; page < 2; page++) {
+            for (int i = 0; i < months; i++) {
+                models[page][i] = MonthRenderModel.compute(first.plusMonths(page + i), holidays);
+            }
+        }
+
+        grid = new MonthGrid(months);
+        show(grid, models[0]);
+        grid.setSize(grid.getPreferredSize());
+        gridImage = new BufferedImage(grid.getWidth(), grid.getHeight(), BufferedImage.TYPE_INT_RGB);
+        gridGraphics = gridImage.createGraphics();
+
+        calendars = new JCalendar[months];
+        calendarPanel = new JPanel(new GridLayout(0, Math.min(months, 4)));
+        for (int i = 0; i < months; i++) {
+            calendars[i] = new JCalendar();
+            calendarPanel.add(calendars[i]);
+        }
+        show(calendars, models[0]);
+        calendarPanel.setSize(calendarPanel.getPreferredSize());
+        layout(calendarPanel);
+        calendarImage = new BufferedImage(calendarPanel.getWidth(), calendarPanel.getHeight(), BufferedImage.TYPE_INT_RGB);
+        calendarGraphics = calendarImage.createGraphics();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        gridGraphics.dispose();
+        calendarGraphics.dispose();
+    }
+
+    @Benchmark
+    public BufferedImage gridPaint() {
+        grid.paint(gridGraphics);
+        return gridImage;
+    }
+
+    @Benchmark
+    public BufferedImage gridUpdateAndPaint() {
+        show(grid, models[step++ & 1]);
+        grid.paint(gridGraphics);
+        return gridImage;
+    }
+
+    @Benchmark
+    public BufferedImage jcalendarPaint() {
+        calendarPanel.paint(calendarGraphics);
+        return calendarImage;
+    }
+
+    @Benchmark
+    public BufferedImage jcalendarUpdateAndPaint() {
+        show(calendars, models[step++ & 1]);
+        layout(calendarPanel);
+        calendarPanel.paint(calendarGraphics);
+        return calendarImage;
+    }
+
+    private static void show(MonthGrid grid, MonthRenderModel[] page) {
+        for (int i = 0; i < page.length; i++) {
+            grid.setModel(i, page[i]);
+        }
+    }
+
+    /** What CalendarView did per JCalendar before the grid: set the month, then style each day button. */
+    private static void show(JCalendar[] calendars, MonthRenderModel[] page) {
+        for (int i = 0; i < page.length; i++) {
+            JCalendar cal = calendars[i];
+            MonthRenderModel model = page[i];
+            cal.setDate(Date.from(model.getMonth().atDay(1).atStartOfDay(ZoneId.systemDefault()).toInstant()));
+            Component[] cells = cal.getDayChooser().getDayPanel().getComponents();
+            // Calendar numbers the days from Sunday = 1, DayOfWeek from Monday = 1
+            int firstDay = model.getMonth().atDay(1).getDayOfWeek().getValue() % 7 + 1;
+            int offset = Math.floorMod(firstDay - cal.getCalendar().getFirstDayOfWeek(), 7);
+            for (int day = 1; day <= model.getLengthOfMonth(); day++) {
+                JButton button = (JButton) cells[7 + offset + day - 1];
+                button.setForeground(model.getForeground(day));
+                button.setToolTipText(model.getTooltip(day));
+                button.setFont(button.getFont().deriveFont(model.isBold(day) ? Font.BOLD : Font.PLAIN));
+                button.setBackground(model.isVacation(day) ? MonthRenderModel.VACATION_BACKGROUND : Color.WHITE);
+            }
+        }
+    }
+
+    private static void layout(Component component) {
+        if (component instanceof Container container) {
+            container.doLayout();
+            for (Component child : container.getComponents()) {
+                layout(child);
+            }
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.calendarwidget;
+
+import com.example.calendarwidget.service.HolidayCache;
+import com.example.calendarwidget.service.HolidayReport;
+import com.example.calendarwidget.service.HolidayRules;
+import com.example.calendarwidget.service.HolidayStore;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Headless entry point that writes work-holiday week and month aggregates for build servers.
+ * Never touches AWT or Swing. Rows go to stdout (or {@code --output}); the log goes to the rolling
+ * log file of {@code logging.properties}, warnings also to stderr.
+ *
+ * <pre>
+ * BatchReport --countries US,DE,FR [--from 2024] [--to 2026] [--format csv|json]
+ *             [--aggregate week|month|both] [--output report.csv] [--threads N] [--max-bytes N]
+ *             [--rules holiday-rules.txt]
+ * </pre>
+ */
+public class BatchReport {
+    private static final Logger logger = Logger.getLogger(BatchReport.class.getName());
+    private static final String USAGE = "Usage: BatchReport --countries US,DE [--from YEAR] [--to YEAR]"
+            + " [--format csv|json] [--aggregate week|month|both] [--output FILE] [--threads N] [--max-bytes N]"
+            + " [--rules FILE]";
+
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        try {
+            java.util.logging.LogManager.getLogManager().readConfiguration(
+                BatchReport.class.getClassLoader().getResourceAsStream("logging.properties")
+            );
+        } catch (Exception e) {
+            System.err.println("Failed to load logging configuration: " + e.getMessage());
+        }
+        System.exit(run(args));
+    }
+
+    /**
+     * Runs the report and returns the process exit code: 0 on success, 1 if holidays could not be
+     * loaded or the output not written, 2 on bad usage, including invalid country codes.
+     */
+    static int run(String[] args) {
+        List<String> countries = new ArrayList<>();
+        int year = LocalDate.now().getYear();
+        int fromYear = year;
+        int toYear = year;
+        HolidayReport.Format format = HolidayReport.Format.CSV;
+        Set<HolidayReport.Aggregate> aggregates = EnumSet.allOf(HolidayReport.Aggregate.class);
+        String output = null;
+        int threads = Runtime.getRuntime().availableProcessors();
+        long maxBytes = HolidayStore.DEFAULT_MAX_BYTES;
+        String rulesFile = null;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                String value = i + 1 < args.length ? args[i + 1] : null;
+                if (value == null) {
+                    throw new IllegalArgumentException("Missing value for " + args[i]);
+                }
+                switch (args[i]) {
+                    case "--countries" -> {
+                        for (String country : value.split(",")) {
+                            if (!country.isBlank()) {
+                                countries.add(country.trim().toUpperCase(Locale.ROOT));
+                            }
+                        }
+                    }
+                    case "--from" -> fromYear = Integer.parseInt(value);
+                    case "--to" -> toYear = Integer.parseInt(value);
+                    case "--format" -> format = HolidayReport.Format.valueOf(value.toUpperCase(Locale.ROOT));
+                    case "--aggregate" -> aggregates = value.equalsIgnoreCase("both")
+                            ? EnumSet.allOf(HolidayReport.Aggregate.class)
+                            : EnumSet.of(HolidayReport.Aggregate.valueOf(value.toUpperCase(Locale.ROOT)));
+                    case "--output" -> output = value;
+                    case "--threads" -> threads = Integer.parseInt(value);
+                    case "--max-bytes" -> maxBytes = Long.parseLong(value);
+                    case "--rules" -> rulesFile = value;
+                    default -> throw new IllegalArgumentException("Unknown option " + args[i]);
+                }
+                i++;
+            }
+            if (countries.isEmpty() || fromYear > toYear || threads < 1) {
+                throw new IllegalArgumentException("Need at least one country, --from <= --to and --threads >= 1");
+            }
+            HolidayReport.checkCountries(countries);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            return 2;
+        }
+
+        HolidayRules rules = HolidayRules.DEFAULT;
+        if (rulesFile != null) {
+            try {
+                rules = HolidayRules.load(Paths.get(rulesFile));
+            } catch (IOException e) {
+                System.err.println(e.getMessage());
+                return 2;
+            }
+        }
+        HolidayRules classification = rules;
+        HolidayStore store = HolidayStore.publicHolidays(HolidayCache.defaultCache(), maxBytes, () -> classification);
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try (Writer out = output == null
+                ? new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8))
+                : Files.newBufferedWriter(Paths.get(output), StandardCharsets.UTF_8)) {
+            new HolidayReport(store, format, aggregates, pool).write(countries, fromYear, toYear, out);
+            return 0;
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "Report failed", e);
+            return 1;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
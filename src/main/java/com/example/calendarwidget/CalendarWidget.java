@@ -1,29 +1,59 @@
 package com.example.calendarwidget;
 
 import com.example.calendarwidget.controller.CalendarController;
-import com.example.calendarwidget.model.Holiday;
+import com.example.calendarwidget.metrics.EdtWatchdog;
+import com.example.calendarwidget.metrics.MetricsRegistry;
+import com.example.calendarwidget.model.HolidayIndex;
+import com.example.calendarwidget.model.HolidayType;
+import com.example.calendarwidget.service.CompositeHolidaySource;
+import com.example.calendarwidget.service.HolidayCache;
+import com.example.calendarwidget.service.HolidayHttpServer;
+import com.example.calendarwidget.service.HolidayRefresher;
+import com.example.calendarwidget.service.HolidayRules;
+import com.example.calendarwidget.service.HolidayRulesFile;
 import com.example.calendarwidget.service.HolidayService;
+import com.example.calendarwidget.service.HolidaySource;
+import com.example.calendarwidget.service.HolidayYearLoader;
+import com.example.calendarwidget.service.HolidayStore;
+import com.example.calendarwidget.service.IcsHolidaySource;
+import com.example.calendarwidget.service.JsonFileHolidaySource;
 import com.example.calendarwidget.util.AutoStartManager;
+import com.example.calendarwidget.util.StartupTimer;
 import com.example.calendarwidget.view.CalendarView;
+import com.example.calendarwidget.view.MonthGrid;
 
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.Duration;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 public class CalendarWidget {
     private static final Logger logger = Logger.getLogger(CalendarWidget.class.getName());
-    private static JFrame calendarFrame;
-    private static CalendarView calendarView;
+    private static CalendarWindow calendarWindow;
     private static CalendarController calendarController;
-    private static Map<LocalDate, List<Holiday>> holidays;
+    // Set on the EDT once startup loading has finished; also read when the rules file changes
+    private static volatile HolidayRefresher holidayRefresher;
+    private static volatile HolidayStore holidayStore;
 
     public static void main(String[] args) {
+        // The JDK HTTP server reads this once, when the first server is created; see HolidayHttpServer
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
         // Configure logging
         try {
             java.util.logging.LogManager.getLogManager().readConfiguration(
@@ -34,11 +64,14 @@ public class CalendarWidget {
         }
 
         logger.info("Starting Calendar Widget application");
+        StartupTimer.mark(StartupTimer.MAIN);
+        startMetrics();
 
         try {
             HolidayService holidayService = new HolidayService();
-            holidays = holidayService.loadHolidays();
-            logger.info("Holiday data loaded successfully");
+            HolidayRulesFile rulesFile = loadRules();
+            Supplier<HolidayRules> rules = rulesFile != null ? rulesFile::getRules : () -> HolidayRules.DEFAULT;
+            holidayService.setRules(rules);
 
             if (!SystemTray.isSupported()) {
                 logger.severe("System tray not supported on this platform");
@@ -66,14 +99,14 @@ public class CalendarWidget {
             MenuItem autoStartItem = new MenuItem("Enable Auto-start");
             autoStartItem.addActionListener(e -> {
                 logger.info("Enable Auto-start menu item clicked");
-                AutoStartManager.enableAutoStart(calendarFrame);
+                AutoStartManager.enableAutoStart(calendarWindow.getFrame());
             });
             menu.add(autoStartItem);
 
             MenuItem disableItem = new MenuItem("Disable Auto-start");
             disableItem.addActionListener(e -> {
                 logger.info("Disable Auto-start menu item clicked");
-                AutoStartManager.disableAutoStart(calendarFrame);
+                AutoStartManager.disableAutoStart(calendarWindow.getFrame());
             });
             menu.add(disableItem);
 
@@ -92,54 +125,229 @@ public class CalendarWidget {
             try {
                 tray.add(trayIcon);
                 logger.info("Tray icon added to system tray successfully");
+                StartupTimer.mark(StartupTimer.TRAY);
             } catch (AWTException e) {
                 logger.log(Level.SEVERE, "TrayIcon could not be added to system tray", e);
                 return;
             }
 
-            // Create calendar frame
-            logger.fine("Creating calendar frame");
-            calendarFrame = new JFrame("Calendar Widget");
-            calendarFrame.setDefaultCloseOperation(JFrame.HIDE_ON_CLOSE);
-            calendarFrame.setSize(800, 400);
+            // Start with no holidays; they are published into the window as they load
+            int months = Math.max(1, Math.min(MonthGrid.MAX_MONTHS,
+                    Integer.getInteger("calendarwidget.months", CalendarView.DEFAULT_MONTH_COUNT)));
+            long idleSeconds = Long.getLong("calendarwidget.idle.seconds", CalendarWindow.DEFAULT_IDLE_DELAY.toSeconds());
+            calendarController = new CalendarController(HolidayIndex.EMPTY);
+            SwingUtilities.invokeAndWait(() -> {
+                calendarWindow = new CalendarWindow(calendarController, months, Duration.ofSeconds(idleSeconds));
+                calendarWindow.setFirstPaintListener(() -> StartupTimer.mark(StartupTimer.FIRST_PAINT));
+            });
 
-            JPanel mainPanel = new JPanel(new BorderLayout());
+            startHttpServer();
 
-            JPanel buttonPanel = new JPanel();
-            JButton prevButton = new JButton("< Previous");
-            JButton nextButton = new JButton("Next >");
-            buttonPanel.add(prevButton);
-            buttonPanel.add(nextButton);
+            logger.info("Calendar Widget application initialized successfully");
+            SwingUtilities.invokeLater(CalendarWidget::showCalendar);
 
-            mainPanel.add(buttonPanel, BorderLayout.NORTH);
+            int currentYear = LocalDate.now().getYear();
+            List<HolidaySource> sources = configuredSources(holidayService, rules);
+            HolidaySource source = sources.size() > 1 ? new CompositeHolidaySource(sources) : holidayService;
+            HolidayYearLoader yearLoader = new HolidayYearLoader(source, Executors.newVirtualThreadPerTaskExecutor(),
+                    (year, yearHolidays) -> SwingUtilities.invokeLater(() -> publishLoadedYear(year, yearHolidays)));
+            startHolidayLoading(holidayService, source, yearLoader, currentYear - 1, currentYear + 1);
+            if (rulesFile != null) {
+                rulesFile.start(HolidayRulesFile.DEFAULT_POLL_INTERVAL);
+            }
 
-            calendarView = new CalendarView(holidays);
-            mainPanel.add(calendarView, BorderLayout.CENTER);
+        } catch (Exception e) {
+            logger.log(Level.SEVERE, "Unexpected error during application startup", e);
+        }
+    }
 
-            calendarFrame.add(mainPanel);
+    /**
+     * Loads holiday data off the EDT while the window is already up. Cached years are shown first
+     * and revalidated; every other year of {@code fromYear..toYear} is then loaded through
+     * {@code yearLoader} like a year navigated to, so a year that fails to load is fetched again on
+     * the next request rather than left empty. Each year is merged into the shown holidays on its
+     * own, never replacing years the loader published in the meantime. Once everything is loaded,
+     * a {@link HolidayRefresher} takes over and keeps the data current.
+     */
+    private static void startHolidayLoading(HolidayService holidayService, HolidaySource source,
+                                            HolidayYearLoader yearLoader, int fromYear, int toYear) {
+        Thread loader = new Thread(() -> {
+            try {
+                List<Integer> cachedYears = new ArrayList<>();
+                for (int year = fromYear; year <= toYear; year++) {
+                    HolidayIndex yearHolidays = holidayService.loadCachedHolidays(year, year);
+                    if (!yearHolidays.isEmpty()) {
+                        int y = year;
+                        cachedYears.add(year);
+                        yearLoader.markLoaded(year, year);
+                        SwingUtilities.invokeLater(() -> publishLoadedYear(y, yearHolidays));
+                    }
+                }
+                SwingUtilities.invokeLater(() -> calendarController.setYearLoader(yearLoader));
+                if (!cachedYears.isEmpty()) {
+                    Set<Integer> changed = holidayService.revalidate(cachedYears.get(0), cachedYears.get(cachedYears.size() - 1));
+                    for (int year : changed) {
+                        if (cachedYears.contains(year)) {
+                            HolidayIndex yearHolidays = holidayService.loadCachedHolidays(year, year);
+                            SwingUtilities.invokeLater(() -> publishLoadedYear(year, yearHolidays));
+                        }
+                    }
+                    logger.info(changed.isEmpty() ? "Cached holiday data is up to date"
+                            : "Holiday data refreshed for years: " + changed);
+                }
+                if (source != holidayService) {
+                    // Public holidays of the cached years are on screen already; merge in the local calendars
+                    for (int year : cachedYears) {
+                        try {
+                            HolidayIndex merged = source.load(year, year);
+                            SwingUtilities.invokeLater(() -> publishLoadedYear(year, merged));
+                        } catch (IOException e) {
+                            logger.log(Level.WARNING, "Could not merge local calendars for " + year
+                                    + ", showing public holidays only", e);
+                        }
+                    }
+                }
+                // Years without a cache entry; failures are logged by the loader and retried later
+                List<CompletableFuture<Void>> pending = new ArrayList<>();
+                for (int year = fromYear; year <= toYear; year++) {
+                    pending.add(yearLoader.load(year));
+                }
+                CompletableFuture.allOf(pending.toArray(new CompletableFuture<?>[0])).handle((v, e) -> null).join();
+                // Apply the latest snapshot, not the notified one: a year loaded on demand may
+                // have been merged in since
+                HolidayRefresher refresher = new HolidayRefresher(holidayService::revalidate, source,
+                        HolidayIndex.EMPTY, (snapshot, months) -> SwingUtilities.invokeLater(
+                                () -> calendarController.applySnapshot(holidayRefresher.getSnapshot(), months)));
+                long refreshSeconds = Long.getLong("calendarwidget.refresh.interval",
+                        HolidayRefresher.DEFAULT_INTERVAL.toSeconds());
+                SwingUtilities.invokeLater(() -> {
+                    logger.info("Holiday data loaded successfully");
+                    StartupTimer.mark(StartupTimer.DATA_COMPLETE);
+                    // Every startup update has been applied by now, so refreshes build on the final
+                    // data; years loaded on demand from here on are merged by publishLoadedYear
+                    refresher.reset(calendarController.getHolidays());
+                    holidayRefresher = refresher;
+                    refresher.start(Duration.ofSeconds(Math.max(1, refreshSeconds)));
+                });
+            } catch (Exception e) {
+                logger.log(Level.SEVERE, "Background holiday loading failed", e);
+            }
+        }, "holiday-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
 
-            calendarController = new CalendarController(calendarView, holidays);
+    /**
+     * Shows a year loaded on demand, and hands it to the background refresh so its later
+     * snapshots keep it. Runs on the EDT.
+     */
+    private static void publishLoadedYear(int year, HolidayIndex yearHolidays) {
+        calendarController.publishYear(year, yearHolidays);
+        if (holidayRefresher != null) {
+            holidayRefresher.mergeYear(year, yearHolidays);
+        }
+    }
 
-            prevButton.addActionListener(e -> {
-                logger.fine("Previous button clicked");
-                calendarController.navigatePrevious();
-            });
-            nextButton.addActionListener(e -> {
-                logger.fine("Next button clicked");
-                calendarController.navigateNext();
-            });
+    /**
+     * Reads the work-holiday rules from {@code -Dcalendarwidget.rules}, if set. When the file
+     * changes later, the held holidays of other countries are classified again in memory, and every
+     * loaded year is reloaded from its sources and shown again; public holidays that are still fresh
+     * in the response cache are parsed from disk rather than fetched.
+     */
+    private static HolidayRulesFile loadRules() {
+        String path = System.getProperty("calendarwidget.rules");
+        if (path == null || path.isBlank()) {
+            return null;
+        }
+        HolidayRulesFile rulesFile = new HolidayRulesFile(Paths.get(path.trim()), rules -> {
+            HolidayStore store = holidayStore;
+            if (store != null) {
+                store.reclassify(rules);
+            }
+            HolidayRefresher refresher = holidayRefresher;
+            if (refresher != null) {
+                refresher.reloadAll();
+            }
+        });
+        rulesFile.checkForChanges();
+        return rulesFile;
+    }
 
-            logger.info("Calendar Widget application initialized successfully");
-            showCalendar();
+    /**
+     * Holiday sources in priority order: JSON files from {@code -Dcalendarwidget.holidays.json},
+     * then ICS exports from {@code -Dcalendarwidget.holidays.ics} (their events count as work
+     * holidays), then the public holiday API. Both properties take path lists. Further countries
+     * listed in {@code -Dcalendarwidget.countries} are overlaid last, from a {@link HolidayStore}.
+     */
+    private static List<HolidaySource> configuredSources(HolidayService holidayService, Supplier<HolidayRules> rules) {
+        List<HolidaySource> sources = new ArrayList<>();
+        for (String path : pathList("calendarwidget.holidays.json")) {
+            sources.add(new JsonFileHolidaySource(Paths.get(path)));
+        }
+        for (String path : pathList("calendarwidget.holidays.ics")) {
+            sources.add(new IcsHolidaySource(Paths.get(path), HolidayType.WORK));
+        }
+        sources.add(holidayService);
+        List<String> countries = new ArrayList<>();
+        for (String country : System.getProperty("calendarwidget.countries", "").split(",")) {
+            if (!country.isBlank()) {
+                countries.add(country.trim().toUpperCase(Locale.ROOT));
+            }
+        }
+        if (!countries.isEmpty()) {
+            long maxBytes = Long.getLong("calendarwidget.store.maxBytes", HolidayStore.DEFAULT_MAX_BYTES);
+            holidayStore = HolidayStore.publicHolidays(HolidayCache.defaultCache(), maxBytes, rules);
+            sources.add(holidayStore.asSource(countries));
+        }
+        return sources;
+    }
 
-        } catch (Exception e) {
-            logger.log(Level.SEVERE, "Unexpected error during application startup", e);
+    private static List<String> pathList(String property) {
+        List<String> paths = new ArrayList<>();
+        String value = System.getProperty(property);
+        if (value != null) {
+            for (String path : value.split(File.pathSeparator)) {
+                if (!path.isBlank()) {
+                    paths.add(path.trim());
+                }
+            }
+        }
+        return paths;
+    }
+
+    /**
+     * Serves the controller's current holidays to local tools on loopback when
+     * {@code -Dcalendarwidget.http.port} is set. The controller swaps whole snapshots, so reading
+     * them per request never locks.
+     */
+    private static void startHttpServer() {
+        Integer port = Integer.getInteger("calendarwidget.http.port");
+        if (port == null) {
+            return;
+        }
+        try {
+            new HolidayHttpServer(calendarController::getHolidays, port).start();
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Could not start holiday HTTP server on port " + port, e);
+        }
+    }
+
+    /**
+     * Starts the EDT watchdog and, when {@code -Dcalendarwidget.metrics.file} is set, a periodic
+     * dump of all metrics to that file. Metrics are always available over JMX.
+     */
+    private static void startMetrics() {
+        MetricsRegistry metrics = MetricsRegistry.getDefault();
+        new EdtWatchdog(metrics, EdtWatchdog.DEFAULT_INTERVAL, EdtWatchdog.DEFAULT_STALL_THRESHOLD).start();
+
+        String file = System.getProperty("calendarwidget.metrics.file");
+        if (file != null && !file.isBlank()) {
+            long seconds = Long.getLong("calendarwidget.metrics.interval", 60);
+            metrics.startFileDump(Paths.get(file), Duration.ofSeconds(Math.max(1, seconds)));
         }
     }
 
     private static void showCalendar() {
-        logger.fine("Showing calendar window");
-        calendarFrame.setVisible(true);
-        calendarFrame.toFront();
+        calendarWindow.show();
     }
 }
\ No newline at end of file
@@ -0,0 +1,215 @@
+package com.example.calendarwidget;
+
+import com.example.calendarwidget.controller.CalendarController;
+import com.example.calendarwidget.metrics.Counter;
+import com.example.calendarwidget.metrics.Histogram;
+import com.example.calendarwidget.metrics.MetricsRegistry;
+import com.example.calendarwidget.view.CalendarView;
+import com.example.calendarwidget.view.MonthGrid;
+import com.example.calendarwidget.view.MonthRenderCache;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.ComponentAdapter;
+import java.awt.event.ComponentEvent;
+import java.time.Duration;
+import java.util.logging.Logger;
+
+/**
+ * The calendar window, which only exists while it is needed. Once hidden for the idle delay it
+ * is released: the frame is disposed, freeing its native window and back buffer, and the view and
+ * its components are dropped. The controller keeps the holiday snapshot and navigation state, and
+ * the render cache keeps the models of the months last shown, so {@link #show} rebuilds the same
+ * window without recomputing them. Must be used on the EDT.
+ */
+public class CalendarWindow {
+    private static final Logger logger = Logger.getLogger(CalendarWindow.class.getName());
+    private static final Histogram rebuildLatency = MetricsRegistry.getDefault().histogram("window.rebuild.latency");
+    private static final Counter releases = MetricsRegistry.getDefault().counter("window.releases");
+    public static final Duration DEFAULT_IDLE_DELAY = Duration.ofMinutes(5);
+    /** Rebuilding the released window up to its first paint should take no longer than this. */
+    public static final Duration REBUILD_BUDGET = Duration.ofMillis(150);
+
+    private final CalendarController controller;
+    private final MonthRenderCache renderCache;
+    private final Timer idleTimer;
+    private final boolean idleReleaseEnabled;
+    // State of the controls, kept across rebuilds
+    private int monthCount;
+    private int leaveDays = 5;
+    private boolean planShown;
+    private JFrame frame;
+    private CalendarView view;
+    private Runnable firstPaintListener;
+    private boolean released;
+
+    /**
+     * A window for {@code controller} showing {@code monthCount} months, released after being
+     * hidden for {@code idleDelay}; a negative delay keeps it for good.
+     */
+    public CalendarWindow(CalendarController controller, int monthCount, Duration idleDelay) {
+        this.controller = controller;
+        this.monthCount = monthCount;
+        this.renderCache = new MonthRenderCache(controller.getHolidays(), MonthRenderCache.DEFAULT_CAPACITY);
+        this.idleReleaseEnabled = !idleDelay.isNegative();
+        this.idleTimer = new Timer((int) Math.min(Integer.MAX_VALUE, Math.max(0, idleDelay.toMillis())), e -> release());
+        idleTimer.setRepeats(false);
+    }
+
+    /** Called once, when the first window built is first painted. */
+    public void setFirstPaintListener(Runnable listener) {
+        this.firstPaintListener = listener;
+    }
+
+    /** The frame, or null while the window is released; a parent for dialogs. */
+    public JFrame getFrame() {
+        return frame;
+    }
+
+    public boolean isReleased() {
+        return frame == null;
+    }
+
+    /** Shows the window, rebuilding it first if it has been released. */
+    public void show() {
+        logger.fine("Showing calendar window");
+        if (frame == null) {
+            long start = System.nanoTime();
+            boolean rebuild = released;
+            frame = createFrame();
+            if (rebuild) {
+                view.setFirstPaintListener(() -> recordRebuild(start));
+            }
+        }
+        idleTimer.stop();
+        frame.setVisible(true);
+        frame.toFront();
+    }
+
+    /** Disposes the frame and drops the view, unless the window is showing. */
+    public void release() {
+        if (frame == null || frame.isShowing()) {
+            return;
+        }
+        releaseContent();
+        frame.dispose();
+        frame = null;
+        logger.info("Calendar window released after being hidden");
+    }
+
+    private JFrame createFrame() {
+        logger.fine("Creating calendar frame");
+        JFrame newFrame = new JFrame("Calendar Widget");
+        newFrame.setDefaultCloseOperation(JFrame.HIDE_ON_CLOSE);
+        newFrame.setSize(800, 400);
+        newFrame.add(buildContent());
+        if (monthCount != CalendarView.DEFAULT_MONTH_COUNT) {
+            newFrame.pack();
+        }
+        newFrame.addComponentListener(new ComponentAdapter() {
+            @Override
+            public void componentHidden(ComponentEvent e) {
+                if (idleReleaseEnabled) {
+                    idleTimer.restart();
+                }
+            }
+
+            @Override
+            public void componentShown(ComponentEvent e) {
+                idleTimer.stop();
+            }
+        });
+        return newFrame;
+    }
+
+    /** Builds the controls and a view attached to the controller. */
+    JComponent buildContent() {
+        JPanel mainPanel = new JPanel(new BorderLayout());
+
+        JPanel buttonPanel = new JPanel();
+        JButton prevButton = new JButton("< Previous");
+        JButton nextButton = new JButton("Next >");
+        buttonPanel.add(prevButton);
+        buttonPanel.add(nextButton);
+        JSpinner leaveDaysSpinner = new JSpinner(new SpinnerNumberModel(leaveDays, 1, 30, 1));
+        JToggleButton planButton = new JToggleButton("Suggest breaks", planShown);
+        buttonPanel.add(new JLabel("Leave days:"));
+        buttonPanel.add(leaveDaysSpinner);
+        buttonPanel.add(planButton);
+        JSpinner monthCountSpinner = new JSpinner(new SpinnerNumberModel(monthCount, 1, MonthGrid.MAX_MONTHS, 1));
+        buttonPanel.add(new JLabel("Months:"));
+        buttonPanel.add(monthCountSpinner);
+
+        mainPanel.add(buttonPanel, BorderLayout.NORTH);
+
+        view = new CalendarView(renderCache, monthCount);
+        if (firstPaintListener != null) {
+            view.setFirstPaintListener(firstPaintListener);
+            firstPaintListener = null;
+        }
+        mainPanel.add(view, BorderLayout.CENTER);
+        controller.attachView(view);
+
+        prevButton.addActionListener(e -> {
+            logger.fine("Previous button clicked");
+            controller.navigatePrevious();
+        });
+        nextButton.addActionListener(e -> {
+            logger.fine("Next button clicked");
+            controller.navigateNext();
+        });
+        Runnable updatePlan = () -> {
+            planShown = planButton.isSelected();
+            leaveDays = (Integer) leaveDaysSpinner.getValue();
+            if (planShown) {
+                controller.planVacations(leaveDays);
+            } else {
+                controller.clearVacationPlan();
+            }
+        };
+        planButton.addActionListener(e -> {
+            logger.fine("Suggest breaks toggled: " + planButton.isSelected());
+            updatePlan.run();
+        });
+        leaveDaysSpinner.addChangeListener(e -> {
+            if (planButton.isSelected()) {
+                updatePlan.run();
+            } else {
+                leaveDays = (Integer) leaveDaysSpinner.getValue();
+            }
+        });
+
+        monthCountSpinner.addChangeListener(e -> {
+            logger.fine("Month count changed to " + monthCountSpinner.getValue());
+            monthCount = (Integer) monthCountSpinner.getValue();
+            controller.setMonthCount(monthCount);
+            if (frame != null) {
+                frame.pack();
+            }
+        });
+        return mainPanel;
+    }
+
+    /**
+     * Detaches the view from the controller and drops it, keeping the render models of the months
+     * it showed and one on either side.
+     */
+    void releaseContent() {
+        controller.detachView();
+        renderCache.trimTo(monthCount + 2);
+        view = null;
+        released = true;
+        releases.increment();
+    }
+
+    private static void recordRebuild(long start) {
+        rebuildLatency.recordSince(start);
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        if (millis > REBUILD_BUDGET.toMillis()) {
+            logger.warning("Rebuilding the calendar window took " + millis + " ms, over the "
+                    + REBUILD_BUDGET.toMillis() + " ms budget");
+        } else {
+            logger.fine(() -> "Calendar window rebuilt in " + millis + " ms");
+        }
+    }
+}
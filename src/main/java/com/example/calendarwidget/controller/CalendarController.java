@@ -1,96 +1,375 @@
 package com.example.calendarwidget.controller;
 
-import com.example.calendarwidget.model.Holiday;
+import com.example.calendarwidget.metrics.Counter;
+import com.example.calendarwidget.metrics.Histogram;
+import com.example.calendarwidget.metrics.MetricsRegistry;
+import com.example.calendarwidget.model.HolidayIndex;
+import com.example.calendarwidget.model.VacationWindow;
+import com.example.calendarwidget.service.HolidayYearLoader;
+import com.example.calendarwidget.service.VacationPlanner;
 import com.example.calendarwidget.view.CalendarView;
-import com.toedter.calendar.JCalendar;
+import com.example.calendarwidget.view.MonthGrid;
 
 import javax.swing.*;
-import java.awt.event.ActionEvent;
-import java.awt.event.ActionListener;
 import java.time.LocalDate;
-import java.time.ZoneId;
+import java.time.YearMonth;
+import java.util.Collections;
 import java.util.List;
-import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 public class CalendarController {
     private static final Logger logger = Logger.getLogger(CalendarController.class.getName());
-    private CalendarView calendarView;
-    private Map<LocalDate, List<Holiday>> holidays;
+    private static final Counter navigations = MetricsRegistry.getDefault().counter("controller.navigations");
+    private static final Counter coalescedRenders = MetricsRegistry.getDefault().counter("controller.renders.coalesced");
+    private static final Histogram renderLatency = MetricsRegistry.getDefault().histogram("controller.render.latency");
+    private static final Counter coalescedSelections = MetricsRegistry.getDefault().counter("controller.selections.coalesced");
+    // Quiet time after the last selection or data change before the detail pane is updated
+    static final int DETAILS_DEBOUNCE_MILLIS = 100;
+    // Null while the window is released; read by the render executor
+    private volatile CalendarView calendarView;
+    // Immutable snapshot, replaced wholesale so background readers never see a partial update
+    private volatile HolidayIndex holidays;
     private LocalDate currentMonth;
+    private final ExecutorService renderExecutor;
+    private final AtomicBoolean renderScheduled = new AtomicBoolean();
+    private volatile YearMonth targetMonth;
+    private volatile long renderRequestedNanos;
+    private final VacationPlanner vacationPlanner = new VacationPlanner();
+    private int leaveBudget;
+    private List<VacationWindow> vacationPlan = Collections.emptyList();
+    private HolidayYearLoader yearLoader;
+    private final Timer detailsTimer;
+    private LocalDate selectedDate;
+    // How far ahead of the visible months the next year is prefetched while navigating
+    static final int PREFETCH_MONTHS = 3;
 
-    public CalendarController(CalendarView calendarView, Map<LocalDate, List<Holiday>> holidays) {
+    public CalendarController(CalendarView calendarView, HolidayIndex holidays) {
+        this(holidays);
+        attachView(calendarView);
+    }
+
+    /**
+     * A controller without a view yet; holidays and navigation are tracked until one is
+     * attached with {@link #attachView}.
+     */
+    public CalendarController(HolidayIndex holidays) {
         logger.info("Initializing CalendarController");
-        this.calendarView = calendarView;
         this.holidays = holidays;
         this.currentMonth = LocalDate.now().withDayOfMonth(1);
-        logger.fine("Current month set to: " + currentMonth);
-        calendarView.updateCalendars(currentMonth);
-        setupListeners();
+        this.targetMonth = YearMonth.from(currentMonth);
+        this.renderExecutor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "calendar-render");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.detailsTimer = new Timer(DETAILS_DEBOUNCE_MILLIS, e -> showDetails());
+        detailsTimer.setRepeats(false);
+        logger.fine(() -> "Current month set to: " + currentMonth);
         logger.info("CalendarController initialized successfully");
     }
 
-    private void setupListeners() {
+    /**
+     * Shows this controller's holidays, month and vacation plan in {@code view} from now on,
+     * e.g. a view rebuilt after the previous one was released. Must be called on the EDT.
+     */
+    public void attachView(CalendarView view) {
+        view.setHolidays(holidays);
+        view.setVacationPlan(vacationPlan);
+        view.updateCalendars(currentMonth);
+        calendarView = view;
+        selectedDate = null;
+        setupListeners(view);
+        prefetchAround(YearMonth.from(currentMonth));
+    }
+
+    /**
+     * Stops updating the current view so that it can be released. Holiday updates are still
+     * tracked and shown once a view is attached again. Must be called on the EDT.
+     */
+    public void detachView() {
+        calendarView = null;
+        detailsTimer.stop();
+    }
+
+    /**
+     * Shows the details of each date the user clicks in the side pane. The grid fires only for
+     * clicks, never for dates set while rendering, and a burst of clicks updates the pane once.
+     */
+    private void setupListeners(CalendarView view) {
         logger.fine("Setting up calendar listeners");
-        ActionListener listener = new ActionListener() {
-            @Override
-            public void actionPerformed(ActionEvent e) {
-                try {
-                    JCalendar cal = (JCalendar) e.getSource();
-                    LocalDate selectedDate = LocalDate.ofInstant(cal.getDate().toInstant(), ZoneId.systemDefault());
-                    logger.fine("Date selected: " + selectedDate);
-
-                    StringBuilder info = new StringBuilder();
-                    List<Holiday> dayHolidays = holidays.get(selectedDate);
-                    if (dayHolidays != null) {
-                        logger.fine("Found " + dayHolidays.size() + " holidays for date: " + selectedDate);
-                        // Sort to prioritize work holidays
-                        dayHolidays.sort((a, b) -> {
-                            if ("work".equals(a.getType()) && !"work".equals(b.getType())) return -1;
-                            if (!"work".equals(a.getType()) && "work".equals(b.getType())) return 1;
-                            return 0;
-                        });
-                        for (Holiday h : dayHolidays) {
-                            info.append(h.getType().equals("work") ? "Work Holiday: " : "Holiday: ").append(h.getName()).append("\n");
-                        }
-                    } else {
-                        logger.fine("No holidays found for date: " + selectedDate);
-                    }
-                    // Add vacation info if needed
-                    if (info.length() == 0) {
-                        info.append("No special events");
-                    }
+        view.getMonthGrid().addPropertyChangeListener(MonthGrid.SELECTED_DATE_PROPERTY, evt -> {
+            selectedDate = (LocalDate) evt.getNewValue();
+            logger.fine(() -> "Date selected: " + selectedDate);
+            updateDetailsLater();
+        });
+        logger.fine("Calendar listeners set up successfully");
+    }
 
-                    JOptionPane.showMessageDialog(calendarView, info.toString().trim());
-                } catch (Exception ex) {
-                    logger.log(Level.SEVERE, "Error handling date selection", ex);
-                    JOptionPane.showMessageDialog(calendarView, "Error displaying holiday information: " + ex.getMessage());
-                }
-            }
-        };
+    /** Updates the detail pane once selections and data changes have been quiet for a moment. */
+    private void updateDetailsLater() {
+        if (selectedDate == null) {
+            return;
+        }
+        if (detailsTimer.isRunning()) {
+            coalescedSelections.increment();
+        }
+        detailsTimer.restart();
+    }
 
+    private void showDetails() {
+        CalendarView view = calendarView;
+        LocalDate date = selectedDate;
+        if (view == null || date == null) {
+            return;
+        }
         try {
-            calendarView.getPrevCal().addPropertyChangeListener("calendar", evt -> listener.actionPerformed(new ActionEvent(calendarView.getPrevCal(), ActionEvent.ACTION_PERFORMED, null)));
-            calendarView.getCurrCal().addPropertyChangeListener("calendar", evt -> listener.actionPerformed(new ActionEvent(calendarView.getCurrCal(), ActionEvent.ACTION_PERFORMED, null)));
-            calendarView.getNextCal().addPropertyChangeListener("calendar", evt -> listener.actionPerformed(new ActionEvent(calendarView.getNextCal(), ActionEvent.ACTION_PERFORMED, null)));
-            logger.fine("Calendar listeners set up successfully");
-        } catch (Exception ex) {
-            logger.log(Level.SEVERE, "Error setting up calendar listeners", ex);
+            view.showDayDetails(date);
+        } catch (Exception e) {
+            logger.log(Level.SEVERE, "Error showing details for date: " + date, e);
         }
     }
 
+    /**
+     * Replaces the holiday data shown by this controller and its view, then re-renders.
+     */
+    public void setHolidays(HolidayIndex holidays) {
+        this.holidays = holidays;
+        CalendarView view = calendarView;
+        if (view != null) {
+            view.setHolidays(holidays);
+        }
+        refresh();
+        replanVacations();
+        updateDetailsLater();
+    }
+
+    /**
+     * Merges one freshly loaded year into the holiday data and re-highlights only the visible
+     * months it affects. Must be called on the EDT.
+     */
+    public void publishYear(int year, HolidayIndex yearHolidays) {
+        this.holidays = holidays.replaceYear(year, yearHolidays);
+        CalendarView view = calendarView;
+        if (view != null) {
+            view.setHolidays(holidays, year);
+        }
+        replanVacations();
+        updateDetailsLater();
+    }
+
+    /**
+     * Switches to a snapshot published by a background refresh, re-highlighting only the
+     * visible months among {@code changedMonths}. Must be called on the EDT.
+     */
+    public void applySnapshot(HolidayIndex snapshot, Set<YearMonth> changedMonths) {
+        this.holidays = snapshot;
+        CalendarView view = calendarView;
+        if (view != null) {
+            view.setHolidays(snapshot, changedMonths);
+        }
+        replanVacations();
+        updateDetailsLater();
+    }
+
+    /**
+     * Suggests the best breaks for a budget of {@code leaveDays} from today to the end of next
+     * year and overlays them on the calendars. The plan follows later holiday updates until
+     * {@link #clearVacationPlan()} is called. Must be called on the EDT.
+     */
+    public void planVacations(int leaveDays) {
+        logger.fine(() -> "Planning vacations with a budget of " + leaveDays + " leave days");
+        leaveBudget = leaveDays;
+        replanVacations();
+    }
+
+    public void clearVacationPlan() {
+        leaveBudget = 0;
+        showVacationPlan(Collections.emptyList());
+    }
+
+    /**
+     * Loads the years the visible months need through {@code yearLoader} from now on, as they
+     * are navigated to. Its listener is expected to hand each loaded year to
+     * {@link #publishYear}. Must be called on the EDT.
+     */
+    public void setYearLoader(HolidayYearLoader yearLoader) {
+        this.yearLoader = yearLoader;
+        loadVisibleYears(0);
+    }
+
+    public HolidayIndex getHolidays() {
+        return holidays;
+    }
+
+    public void refresh() {
+        logger.fine(() -> "Refreshing calendars for month: " + currentMonth);
+        requestRender();
+    }
+
     public void navigatePrevious() {
-        logger.fine("Navigating to previous month from: " + currentMonth);
+        logger.fine(() -> "Navigating to previous month from: " + currentMonth);
         currentMonth = currentMonth.minusMonths(1);
-        logger.fine("New current month: " + currentMonth);
-        calendarView.updateCalendars(currentMonth);
+        navigations.increment();
+        logger.fine(() -> "New current month: " + currentMonth);
+        requestRender();
+        loadVisibleYears(-1);
     }
 
     public void navigateNext() {
-        logger.fine("Navigating to next month from: " + currentMonth);
+        logger.fine(() -> "Navigating to next month from: " + currentMonth);
         currentMonth = currentMonth.plusMonths(1);
-        logger.fine("New current month: " + currentMonth);
-        calendarView.updateCalendars(currentMonth);
+        navigations.increment();
+        logger.fine(() -> "New current month: " + currentMonth);
+        requestRender();
+        loadVisibleYears(1);
+    }
+
+    /**
+     * Shows {@code monthCount} months, 1 to 12, around the current one. Must be called on the EDT.
+     */
+    public void setMonthCount(int monthCount) {
+        CalendarView view = calendarView;
+        if (view == null) {
+            return;
+        }
+        view.setMonthCount(monthCount);
+        prefetchAround(YearMonth.from(currentMonth));
+        loadVisibleYears(0);
+    }
+
+    /**
+     * Stops the background render thread. The controller must not be used afterwards.
+     */
+    public void shutdown() {
+        logger.fine("Shutting down calendar render executor");
+        renderExecutor.shutdownNow();
+        detailsTimer.stop();
+    }
+
+    /**
+     * Schedules a render of the current month. Render models are computed on the background
+     * executor and only the final component update is posted to the EDT. While a render is in
+     * flight further navigation just moves the target, so a burst of clicks collapses into a
+     * single render of the last month instead of queueing every intermediate one.
+     */
+    private void requestRender() {
+        targetMonth = YearMonth.from(currentMonth);
+        if (renderScheduled.compareAndSet(false, true)) {
+            renderRequestedNanos = System.nanoTime();
+            try {
+                renderExecutor.execute(this::prepareLatest);
+            } catch (RejectedExecutionException e) {
+                renderScheduled.set(false);
+                logger.fine("Render executor shut down, skipping render");
+            }
+        } else {
+            coalescedRenders.increment();
+            logger.fine(() -> "Render already in flight, coalescing navigation to: " + targetMonth);
+        }
+    }
+
+    private void prepareLatest() {
+        YearMonth month = targetMonth;
+        try {
+            CalendarView view = calendarView;
+            if (view != null) {
+                view.prepareMonths(month);
+            }
+        } catch (Exception e) {
+            logger.log(Level.SEVERE, "Error preparing render models for month: " + month, e);
+        }
+        SwingUtilities.invokeLater(() -> {
+            renderScheduled.set(false);
+            if (!month.equals(targetMonth)) {
+                // Navigation moved on while this month was being prepared
+                requestRender();
+                return;
+            }
+            CalendarView view = calendarView;
+            if (view == null) {
+                // Released meanwhile; the next view starts at the current month anyway
+                return;
+            }
+            view.updateCalendars(month.atDay(1));
+            renderLatency.recordSince(renderRequestedNanos);
+            prefetchAround(month);
+        });
+    }
+
+    private void replanVacations() {
+        if (leaveBudget <= 0) {
+            return;
+        }
+        HolidayIndex snapshot = holidays;
+        int budget = leaveBudget;
+        LocalDate from = LocalDate.now();
+        LocalDate to = LocalDate.of(from.getYear() + 1, 12, 31);
+        try {
+            renderExecutor.execute(() -> {
+                List<VacationWindow> plan = vacationPlanner.plan(snapshot, from, to, budget, VacationPlanner.DEFAULT_TOP_K);
+                SwingUtilities.invokeLater(() -> {
+                    // Drop plans overtaken by newer holidays or a different budget
+                    if (snapshot == holidays && budget == leaveBudget) {
+                        showVacationPlan(plan);
+                    }
+                });
+            });
+        } catch (RejectedExecutionException e) {
+            logger.fine("Render executor shut down, skipping vacation planning");
+        }
+    }
+
+    private void showVacationPlan(List<VacationWindow> plan) {
+        vacationPlan = plan;
+        CalendarView view = calendarView;
+        if (view != null) {
+            view.setVacationPlan(plan);
+        }
+        updateDetailsLater();
+    }
+
+    /**
+     * Requests the holidays of every year the visible months depend on, including the
+     * neighbouring months whose weeks they share, and prefetches the year that comes within
+     * {@link #PREFETCH_MONTHS} of them in the direction of travel ({@code -1}, {@code 0} or
+     * {@code 1}). Loaded and in-flight years are skipped by the loader.
+     */
+    private void loadVisibleYears(int direction) {
+        HolidayYearLoader loader = yearLoader;
+        CalendarView view = calendarView;
+        if (loader == null || view == null) {
+            return;
+        }
+        YearMonth first = view.firstShownMonth(YearMonth.from(currentMonth));
+        YearMonth last = first.plusMonths(view.getMonthCount() - 1);
+        loader.ensureLoaded(first.minusMonths(1).getYear(), last.plusMonths(1).getYear());
+        if (direction > 0) {
+            loader.load(last.plusMonths(PREFETCH_MONTHS).getYear());
+        } else if (direction < 0) {
+            loader.load(first.minusMonths(PREFETCH_MONTHS).getYear());
+        }
+    }
+
+    /**
+     * Speculatively prepares the months that become visible after one more step in either
+     * direction, so the next navigation finds its render model cached.
+     */
+    private void prefetchAround(YearMonth month) {
+        try {
+            renderExecutor.execute(() -> {
+                CalendarView view = calendarView;
+                if (view != null) {
+                    view.prefetchNeighbours(month);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            logger.fine("Render executor shut down, skipping prefetch");
+        }
     }
-}
\ No newline at end of file
+}
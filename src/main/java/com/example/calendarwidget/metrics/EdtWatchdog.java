@@ -0,0 +1,71 @@
+package com.example.calendarwidget.metrics;
+
+import javax.swing.*;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Logger;
+
+/**
+ * Measures Swing event-dispatch lag by periodically posting a probe to the EDT and recording how
+ * long it waited in the queue. A probe that waits longer than the stall threshold is counted and
+ * logged, since that is a UI freeze the user can see.
+ */
+public class EdtWatchdog {
+    private static final Logger logger = Logger.getLogger(EdtWatchdog.class.getName());
+    public static final Duration DEFAULT_INTERVAL = Duration.ofMillis(200);
+    public static final Duration DEFAULT_STALL_THRESHOLD = Duration.ofMillis(250);
+
+    private final Histogram lag;
+    private final Counter stalls;
+    private final long intervalMillis;
+    private final long stallThresholdNanos;
+    private final AtomicBoolean probeInFlight = new AtomicBoolean();
+    private ScheduledExecutorService scheduler;
+
+    public EdtWatchdog(MetricsRegistry registry, Duration interval, Duration stallThreshold) {
+        this.lag = registry.histogram("edt.dispatch.lag");
+        this.stalls = registry.counter("edt.stalls");
+        this.intervalMillis = interval.toMillis();
+        this.stallThresholdNanos = stallThreshold.toNanos();
+    }
+
+    public synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "edt-watchdog");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::probe, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        logger.fine("EDT watchdog started");
+    }
+
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    private void probe() {
+        // Never queue more than one probe, so a stalled EDT is measured once rather than piled on
+        if (!probeInFlight.compareAndSet(false, true)) {
+            return;
+        }
+        long posted = System.nanoTime();
+        SwingUtilities.invokeLater(() -> {
+            long waited = System.nanoTime() - posted;
+            probeInFlight.set(false);
+            lag.record(waited);
+            if (waited > stallThresholdNanos) {
+                stalls.increment();
+                logger.warning("EDT stalled for " + waited / 1_000_000 + " ms");
+            }
+        });
+    }
+}
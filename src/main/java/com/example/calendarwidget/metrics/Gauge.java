@@ -0,0 +1,19 @@
+package com.example.calendarwidget.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Last observed value of something, e.g. the size of the most recent download.
+ */
+public class Gauge implements GaugeMBean {
+    private final AtomicLong value = new AtomicLong();
+
+    public void set(long value) {
+        this.value.set(value);
+    }
+
+    @Override
+    public long getValue() {
+        return value.get();
+    }
+}
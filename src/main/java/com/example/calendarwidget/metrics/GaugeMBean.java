@@ -0,0 +1,5 @@
+package com.example.calendarwidget.metrics;
+
+public interface GaugeMBean {
+    long getValue();
+}
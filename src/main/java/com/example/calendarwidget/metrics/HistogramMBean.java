@@ -0,0 +1,10 @@
+package com.example.calendarwidget.metrics;
+
+public interface HistogramMBean {
+    long getCount();
+    double getMeanMillis();
+    double getMaxMillis();
+    double getP50Millis();
+    double getP90Millis();
+    double getP99Millis();
+}
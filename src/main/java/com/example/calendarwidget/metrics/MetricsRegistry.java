@@ -0,0 +1,157 @@
+package com.example.calendarwidget.metrics;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Named counters, gauges and latency histograms. Metrics are created on first use and, for
+ * registries that publish to JMX, registered as MBeans under
+ * {@code com.example.calendarwidget:type=<Counter|Gauge|Histogram>,name=<name>}.
+ *
+ * <p>Application code uses {@link #getDefault()}, much like {@code Logger.getLogger}.
+ */
+public class MetricsRegistry {
+    private static final Logger logger = Logger.getLogger(MetricsRegistry.class.getName());
+    public static final String JMX_DOMAIN = "com.example.calendarwidget";
+
+    private static final MetricsRegistry DEFAULT = new MetricsRegistry(true);
+
+    private final ConcurrentMap<String, Object> metrics = new ConcurrentHashMap<>();
+    private final boolean publishToJmx;
+    private ScheduledExecutorService dumpExecutor;
+
+    public MetricsRegistry(boolean publishToJmx) {
+        this.publishToJmx = publishToJmx;
+    }
+
+    public static MetricsRegistry getDefault() {
+        return DEFAULT;
+    }
+
+    public Counter counter(String name) {
+        return get(name, Counter.class, Counter::new);
+    }
+
+    public Gauge gauge(String name) {
+        return get(name, Gauge.class, Gauge::new);
+    }
+
+    public Histogram histogram(String name) {
+        return get(name, Histogram.class, Histogram::new);
+    }
+
+    /**
+     * Writes a snapshot of every metric to {@code file} every {@code interval}, replacing the
+     * previous snapshot atomically. Calling this again replaces the previous schedule.
+     */
+    public synchronized void startFileDump(Path file, Duration interval) {
+        stopFileDump();
+        dumpExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "metrics-dump");
+            thread.setDaemon(true);
+            return thread;
+        });
+        dumpExecutor.scheduleAtFixedRate(() -> dumpTo(file), interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+        logger.info("Dumping metrics to " + file.toAbsolutePath() + " every " + interval.toSeconds() + " s");
+    }
+
+    public synchronized void stopFileDump() {
+        if (dumpExecutor != null) {
+            dumpExecutor.shutdownNow();
+            dumpExecutor = null;
+        }
+    }
+
+    public void dumpTo(Path file) {
+        try {
+            Path dir = file.toAbsolutePath().getParent();
+            Files.createDirectories(dir);
+            Path tmp = Files.createTempFile(dir, file.getFileName().toString(), ".tmp");
+            try (Writer writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+                writer.write(snapshot());
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Failed to dump metrics to " + file, e);
+        }
+    }
+
+    /** Human-readable snapshot of all metrics, one per line, sorted by name. */
+    public String snapshot() {
+        StringBuilder out = new StringBuilder("# metrics at ").append(Instant.now()).append('\n');
+        for (Map.Entry<String, Object> entry : new TreeMap<>(metrics).entrySet()) {
+            out.append(entry.getKey()).append(' ');
+            Object metric = entry.getValue();
+            if (metric instanceof Counter) {
+                out.append("count=").append(((Counter) metric).getCount());
+            } else if (metric instanceof Gauge) {
+                out.append("value=").append(((Gauge) metric).getValue());
+            } else if (metric instanceof Histogram) {
+                Histogram h = (Histogram) metric;
+                out.append(String.format("count=%d mean=%.3fms p50=%.3fms p90=%.3fms p99=%.3fms max=%.3fms",
+                        h.getCount(), h.getMeanMillis(), h.getP50Millis(), h.getP90Millis(), h.getP99Millis(), h.getMaxMillis()));
+            }
+            out.append('\n');
+        }
+        return out.toString();
+    }
+
+    private <T> T get(String name, Class<T> type, Supplier<T> factory) {
+        Object metric = metrics.get(name);
+        if (metric == null) {
+            metric = metrics.computeIfAbsent(name, n -> {
+                T created = factory.get();
+                register(n, type.getSimpleName(), created);
+                return created;
+            });
+        }
+        if (!type.isInstance(metric)) {
+            throw new IllegalArgumentException("Metric " + name + " is a " + metric.getClass().getSimpleName()
+                    + ", not a " + type.getSimpleName());
+        }
+        return type.cast(metric);
+    }
+
+    private void register(String name, String type, Object metric) {
+        if (!publishToJmx) {
+            return;
+        }
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = objectName(type, name);
+            try {
+                server.registerMBean(metric, objectName);
+            } catch (InstanceAlreadyExistsException e) {
+                server.unregisterMBean(objectName);
+                server.registerMBean(metric, objectName);
+            }
+        } catch (JMException e) {
+            logger.log(Level.WARNING, "Failed to publish metric " + name + " to JMX", e);
+        }
+    }
+
+    public static ObjectName objectName(String type, String name) throws JMException {
+        return new ObjectName(JMX_DOMAIN + ":type=" + type + ",name=" + ObjectName.quote(name));
+    }
+}
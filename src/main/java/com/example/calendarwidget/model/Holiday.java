@@ -1,24 +1,94 @@
 package com.example.calendarwidget.model;
 
-public class Holiday {
-    private String date;
-    private String name;
-    private String type; // "regular" or "work"
+import com.google.gson.annotations.JsonAdapter;
 
-    public Holiday() {}
+import java.lang.ref.WeakReference;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Objects;
+import java.util.WeakHashMap;
 
-    public Holiday(String date, String name, String type) {
-        this.date = date;
-        this.name = name;
-        this.type = type;
+/**
+ * A single holiday. Instances are immutable and compact: the date is an epoch day, the type an
+ * enum, and names are deduplicated so that the same name seen in many years and countries is
+ * held only once while any holiday uses it. The JSON form stays
+ * {@code {"date": "yyyy-MM-dd", "name": ..., "type": ...}}.
+ */
+@JsonAdapter(HolidayJsonAdapter.class)
+public final class Holiday {
+    // Weakly held on both sides, so names that no live holiday uses (say, those of an ICS feed
+    // since removed) are collected instead of pooled for the life of the process. Split into
+    // stripes, each guarded by its own lock, so parallel parsing rarely contends.
+    private static final int NAME_STRIPES = 16;
+    private static final NameStripe[] NAMES = new NameStripe[NAME_STRIPES];
+
+    static {
+        for (int i = 0; i < NAME_STRIPES; i++) {
+            NAMES[i] = new NameStripe();
+        }
     }
 
-    public String getDate() { return date; }
-    public void setDate(String date) { this.date = date; }
+    private final int epochDay;
+    private final String name;
+    private final HolidayType type;
+
+    public Holiday(int epochDay, String name, HolidayType type) {
+        this.epochDay = epochDay;
+        this.name = canonicalName(Objects.requireNonNull(name, "name"));
+        this.type = Objects.requireNonNull(type, "type");
+    }
+
+    public Holiday(LocalDate date, String name, HolidayType type) {
+        this((int) date.toEpochDay(), name, type);
+    }
+
+    public int getEpochDay() { return epochDay; }
+
+    public LocalDate getDate() { return LocalDate.ofEpochDay(epochDay); }
 
     public String getName() { return name; }
-    public void setName(String name) { this.name = name; }
 
-    public String getType() { return type; }
-    public void setType(String type) { this.type = type; }
-}
\ No newline at end of file
+    public HolidayType getType() { return type; }
+
+    public boolean isWork() { return type == HolidayType.WORK; }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Holiday)) {
+            return false;
+        }
+        Holiday other = (Holiday) o;
+        return epochDay == other.epochDay && type == other.type && name.equals(other.name);
+    }
+
+    @Override
+    public int hashCode() {
+        return (31 * epochDay + name.hashCode()) * 31 + type.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return getDate() + " " + name + " (" + type.getWireName() + ")";
+    }
+
+    private static String canonicalName(String name) {
+        NameStripe stripe = NAMES[name.hashCode() & (NAME_STRIPES - 1)];
+        synchronized (stripe) {
+            WeakReference<String> ref = stripe.names.get(name);
+            String canonical = ref != null ? ref.get() : null;
+            if (canonical == null) {
+                stripe.names.put(name, new WeakReference<>(name));
+                canonical = name;
+            }
+            return canonical;
+        }
+    }
+
+    /** One part of the name pool; guarded by its own monitor. */
+    private static final class NameStripe {
+        final Map<String, WeakReference<String>> names = new WeakHashMap<>();
+    }
+}
@@ -0,0 +1,280 @@
+package com.example.calendarwidget.model;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable, read-only holiday store keyed by epoch day.
+ *
+ * <p>Dates are held in a sorted {@code int[]} of epoch days with an offset table into a flat
+ * holiday array, so lookups are a binary search and range queries are a binary search plus a
+ * contiguous scan. Within a day, work holidays are ordered before regular ones. Work-holiday
+ * counts per ISO week (Monday to Sunday) are precomputed at build time.
+ *
+ * <p>Instances are safe to share between threads; use {@link Builder} to create one.
+ */
+public final class HolidayIndex {
+    public static final HolidayIndex EMPTY = new Builder().build();
+
+    private final int[] days;
+    private final int[] offsets;
+    private final Holiday[] holidays;
+    private final int[] weekStarts;
+    private final int[] weekWorkCounts;
+
+    private HolidayIndex(int[] days, int[] offsets, Holiday[] holidays, int[] weekStarts, int[] weekWorkCounts) {
+        this.days = days;
+        this.offsets = offsets;
+        this.holidays = holidays;
+        this.weekStarts = weekStarts;
+        this.weekWorkCounts = weekWorkCounts;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static HolidayIndex from(Map<LocalDate, List<Holiday>> holidays) {
+        Builder builder = new Builder();
+        for (List<Holiday> dayHolidays : holidays.values()) {
+            for (Holiday h : dayHolidays) {
+                builder.add(h);
+            }
+        }
+        return builder.build();
+    }
+
+    /** Returns the epoch day of the Monday starting the ISO week that contains {@code epochDay}. */
+    public static int weekStart(int epochDay) {
+        // 1970-01-01 was a Thursday, so Monday is the day where (epochDay + 3) % 7 == 0
+        return epochDay - Math.floorMod(epochDay + 3, 7);
+    }
+
+    public List<Holiday> getHolidays(LocalDate date) {
+        return getHolidays((int) date.toEpochDay());
+    }
+
+    /** Holidays on the given day, work holidays first; an empty list if there are none. */
+    public List<Holiday> getHolidays(int epochDay) {
+        int i = Arrays.binarySearch(days, epochDay);
+        if (i < 0) {
+            return Collections.emptyList();
+        }
+        return slice(offsets[i], offsets[i + 1]);
+    }
+
+    public boolean hasHolidays(int epochDay) {
+        return Arrays.binarySearch(days, epochDay) >= 0;
+    }
+
+    /** All holidays in {@code from..to} (both inclusive), ordered by date. */
+    public List<Holiday> getHolidaysInRange(LocalDate from, LocalDate to) {
+        int start = lowerBound(days, (int) from.toEpochDay());
+        int end = lowerBound(days, (int) to.toEpochDay() + 1);
+        if (start >= end) {
+            return Collections.emptyList();
+        }
+        return slice(offsets[start], offsets[end]);
+    }
+
+    /** The first {@code n} holidays on or after {@code from}, ordered by date. */
+    public List<Holiday> getNextHolidays(LocalDate from, int n) {
+        int start = lowerBound(days, (int) from.toEpochDay());
+        if (start >= days.length || n <= 0) {
+            return Collections.emptyList();
+        }
+        int first = offsets[start];
+        return slice(first, Math.min(holidays.length, first + n));
+    }
+
+    /** Every holiday in the index, ordered by date. */
+    public List<Holiday> getAllHolidays() {
+        return slice(0, holidays.length);
+    }
+
+    public int getWorkHolidayCountForWeek(LocalDate date) {
+        return getWorkHolidayCountForWeek((int) date.toEpochDay());
+    }
+
+    /** Number of work holidays in the ISO week (Monday to Sunday) containing {@code epochDay}. */
+    public int getWorkHolidayCountForWeek(int epochDay) {
+        int i = Arrays.binarySearch(weekStarts, weekStart(epochDay));
+        return i < 0 ? 0 : weekWorkCounts[i];
+    }
+
+    /**
+     * Returns a new index holding this index's holidays outside {@code year} plus the holidays of
+     * {@code yearHolidays} that fall inside it.
+     */
+    public HolidayIndex replaceYear(int year, HolidayIndex yearHolidays) {
+        int from = (int) LocalDate.of(year, 1, 1).toEpochDay();
+        int to = (int) LocalDate.of(year + 1, 1, 1).toEpochDay();
+        Builder builder = new Builder();
+        builder.addRange(this, Integer.MIN_VALUE, from);
+        builder.addRange(yearHolidays, from, to);
+        builder.addRange(this, to, Integer.MAX_VALUE);
+        return builder.build();
+    }
+
+    /**
+     * Returns the months in {@code from..to} that render differently under {@code after} than
+     * under {@code before}: a month changes if any holiday in the ISO weeks it touches changed,
+     * since those weeks' work-holiday counts colour its days.
+     */
+    public static Set<YearMonth> changedMonths(HolidayIndex before, HolidayIndex after, YearMonth from, YearMonth to) {
+        Set<YearMonth> changed = new LinkedHashSet<>();
+        for (YearMonth month = from; !month.isAfter(to); month = month.plusMonths(1)) {
+            LocalDate first = LocalDate.ofEpochDay(weekStart((int) month.atDay(1).toEpochDay()));
+            LocalDate last = LocalDate.ofEpochDay(weekStart((int) month.atEndOfMonth().toEpochDay()) + 6);
+            if (!before.getHolidaysInRange(first, last).equals(after.getHolidaysInRange(first, last))) {
+                changed.add(month);
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Approximate heap retained by this index in bytes, assuming compressed references. Each
+     * distinct holiday name is counted once; a name shared with another index is counted in both,
+     * so the sum over several indexes errs high.
+     */
+    public long estimatedBytes() {
+        // Object header plus five array references, then each array's header and elements,
+        // then 24 bytes per Holiday (header, epoch day, name and type references)
+        return 32L + 5 * 16L
+                + 4L * (days.length + offsets.length + holidays.length + weekStarts.length + weekWorkCounts.length)
+                + 24L * holidays.length
+                + nameBytes();
+    }
+
+    /** Names are interned, so holidays sharing a name share the same instance. */
+    private long nameBytes() {
+        Set<String> names = Collections.newSetFromMap(new IdentityHashMap<>());
+        long bytes = 0;
+        for (Holiday holiday : holidays) {
+            String name = holiday.getName();
+            if (names.add(name)) {
+                // String header and fields plus the byte array header, then one byte per
+                // character for Latin-1 names and two otherwise
+                bytes += 24L + 16L + (isLatin1(name) ? name.length() : 2L * name.length());
+            }
+        }
+        return bytes;
+    }
+
+    private static boolean isLatin1(String name) {
+        for (int i = 0; i < name.length(); i++) {
+            if (name.charAt(i) > 0xFF) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Number of distinct dates that have at least one holiday. */
+    public int size() {
+        return days.length;
+    }
+
+    public int getHolidayCount() {
+        return holidays.length;
+    }
+
+    public boolean isEmpty() {
+        return days.length == 0;
+    }
+
+    private List<Holiday> slice(int from, int to) {
+        return Collections.unmodifiableList(Arrays.asList(holidays).subList(from, to));
+    }
+
+    private static int lowerBound(int[] sorted, int key) {
+        int i = Arrays.binarySearch(sorted, key);
+        return i >= 0 ? i : -i - 1;
+    }
+
+    /**
+     * Accumulates holidays in any order and produces a compact {@link HolidayIndex}. Not thread-safe.
+     */
+    public static final class Builder {
+        private final List<Holiday> items = new ArrayList<>();
+        private int[] itemDays = new int[16];
+
+        private Builder() {}
+
+        public Builder add(Holiday holiday) {
+            if (items.size() == itemDays.length) {
+                itemDays = Arrays.copyOf(itemDays, itemDays.length * 2);
+            }
+            itemDays[items.size()] = holiday.getEpochDay();
+            items.add(holiday);
+            return this;
+        }
+
+        public Builder addAll(HolidayIndex index) {
+            return addRange(index, Integer.MIN_VALUE, Integer.MAX_VALUE);
+        }
+
+        /** Adds the holidays of {@code index} with {@code fromDay <= epochDay < toDay}. */
+        private Builder addRange(HolidayIndex index, int fromDay, int toDay) {
+            int end = lowerBound(index.days, toDay);
+            for (int i = lowerBound(index.days, fromDay); i < end; i++) {
+                for (int j = index.offsets[i]; j < index.offsets[i + 1]; j++) {
+                    add(index.holidays[j]);
+                }
+            }
+            return this;
+        }
+
+        public HolidayIndex build() {
+            int n = items.size();
+            // Sort key: epoch day in the high 32 bits, then work-before-regular, then insertion order
+            long[] keys = new long[n];
+            for (int i = 0; i < n; i++) {
+                long rank = items.get(i).isWork() ? 0L : 1L << 31;
+                keys[i] = ((long) itemDays[i] << 32) | rank | i;
+            }
+            Arrays.sort(keys);
+
+            Holiday[] sorted = new Holiday[n];
+            int[] days = new int[n];
+            int[] offsets = new int[n + 1];
+            int[] weekStarts = new int[n];
+            int[] weekCounts = new int[n];
+            int dayCount = 0;
+            int weekCount = 0;
+            for (int i = 0; i < n; i++) {
+                int day = (int) (keys[i] >> 32);
+                Holiday h = items.get((int) (keys[i] & 0x7FFFFFFFL));
+                sorted[i] = h;
+                if (dayCount == 0 || days[dayCount - 1] != day) {
+                    days[dayCount] = day;
+                    offsets[dayCount] = i;
+                    dayCount++;
+                }
+                if (h.isWork()) {
+                    int week = weekStart(day);
+                    if (weekCount == 0 || weekStarts[weekCount - 1] != week) {
+                        weekStarts[weekCount++] = week;
+                    }
+                    weekCounts[weekCount - 1]++;
+                }
+            }
+            offsets[dayCount] = n;
+            return new HolidayIndex(
+                    Arrays.copyOf(days, dayCount),
+                    Arrays.copyOf(offsets, dayCount + 1),
+                    sorted,
+                    Arrays.copyOf(weekStarts, weekCount),
+                    Arrays.copyOf(weekCounts, weekCount));
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.calendarwidget.model;
+
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+
+/**
+ * Reads and writes {@link Holiday} in its original JSON shape, with the date as an ISO string
+ * and the type as {@code "regular"} or {@code "work"}. Unknown fields are ignored and a missing
+ * type reads as regular, so raw Nager.Date entries can be read directly.
+ */
+public class HolidayJsonAdapter extends TypeAdapter<Holiday> {
+
+    @Override
+    public void write(JsonWriter out, Holiday holiday) throws IOException {
+        if (holiday == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("date").value(holiday.getDate().toString());
+        out.name("name").value(holiday.getName());
+        out.name("type").value(holiday.getType().getWireName());
+        out.endObject();
+    }
+
+    @Override
+    public Holiday read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        String date = null;
+        String name = null;
+        String type = null;
+        in.beginObject();
+        while (in.hasNext()) {
+            String field = in.nextName();
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+            } else if ("date".equals(field)) {
+                date = in.nextString();
+            } else if ("name".equals(field)) {
+                name = in.nextString();
+            } else if ("type".equals(field)) {
+                type = in.nextString();
+            } else {
+                in.skipValue();
+            }
+        }
+        in.endObject();
+
+        if (date == null || name == null) {
+            throw new JsonParseException("Holiday requires a date and a name at " + in.getPath());
+        }
+        try {
+            return new Holiday(LocalDate.parse(date), name, HolidayType.fromWireName(type));
+        } catch (DateTimeException e) {
+            throw new JsonParseException("Invalid holiday date: " + date, e);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.calendarwidget.model;
+
+import java.util.Locale;
+
+public enum HolidayType {
+    REGULAR("regular"),
+    WORK("work");
+
+    private final String wireName;
+
+    HolidayType(String wireName) {
+        this.wireName = wireName;
+    }
+
+    /** The lower-case name used in JSON, e.g. {@code "work"}. */
+    public String getWireName() {
+        return wireName;
+    }
+
+    /** Parses a JSON type name; anything other than {@code "work"} is a regular holiday. */
+    public static HolidayType fromWireName(String name) {
+        return name != null && WORK.wireName.equals(name.toLowerCase(Locale.ROOT)) ? WORK : REGULAR;
+    }
+}
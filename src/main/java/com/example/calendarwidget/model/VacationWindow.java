@@ -0,0 +1,64 @@
+package com.example.calendarwidget.model;
+
+import java.time.LocalDate;
+
+/**
+ * A suggested stretch of consecutive days off: the leave days taken plus the weekends and work
+ * holidays they connect. Both ends are inclusive epoch days.
+ */
+public final class VacationWindow {
+    private final int startEpochDay;
+    private final int endEpochDay;
+    private final int leaveDays;
+
+    public VacationWindow(int startEpochDay, int endEpochDay, int leaveDays) {
+        if (endEpochDay < startEpochDay || leaveDays <= 0) {
+            throw new IllegalArgumentException("Invalid vacation window " + startEpochDay + ".." + endEpochDay
+                    + " with " + leaveDays + " leave days");
+        }
+        this.startEpochDay = startEpochDay;
+        this.endEpochDay = endEpochDay;
+        this.leaveDays = leaveDays;
+    }
+
+    public int getStartEpochDay() { return startEpochDay; }
+
+    public int getEndEpochDay() { return endEpochDay; }
+
+    public LocalDate getStart() { return LocalDate.ofEpochDay(startEpochDay); }
+
+    public LocalDate getEnd() { return LocalDate.ofEpochDay(endEpochDay); }
+
+    /** Consecutive days away, including the leave days themselves. */
+    public int getDaysOff() { return endEpochDay - startEpochDay + 1; }
+
+    public int getLeaveDays() { return leaveDays; }
+
+    public double getDaysOffPerLeaveDay() { return (double) getDaysOff() / leaveDays; }
+
+    public boolean contains(int epochDay) {
+        return epochDay >= startEpochDay && epochDay <= endEpochDay;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof VacationWindow)) {
+            return false;
+        }
+        VacationWindow other = (VacationWindow) o;
+        return startEpochDay == other.startEpochDay && endEpochDay == other.endEpochDay && leaveDays == other.leaveDays;
+    }
+
+    @Override
+    public int hashCode() {
+        return (31 * startEpochDay + endEpochDay) * 31 + leaveDays;
+    }
+
+    @Override
+    public String toString() {
+        return getStart() + ".." + getEnd() + ": " + getDaysOff() + " days off for " + leaveDays + " leave days";
+    }
+}
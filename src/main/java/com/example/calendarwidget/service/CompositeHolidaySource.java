@@ -0,0 +1,146 @@
+package com.example.calendarwidget.service;
+
+import com.example.calendarwidget.metrics.MetricsRegistry;
+import com.example.calendarwidget.model.Holiday;
+import com.example.calendarwidget.model.HolidayIndex;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Queries several {@link HolidaySource}s concurrently, one virtual thread each, and merges their
+ * holidays into one index.
+ *
+ * <p>Sources are given in priority order. A holiday with the same date and name (ignoring case
+ * and surrounding whitespace) as one from an earlier source is a duplicate and is dropped, so
+ * the earlier source's entry, including its type, wins. A source that fails is logged and
+ * skipped; the others are still merged. Only when every source fails does the load fail.
+ */
+public class CompositeHolidaySource implements HolidaySource {
+    private static final Logger logger = Logger.getLogger(CompositeHolidaySource.class.getName());
+
+    private final List<HolidaySource> sources;
+
+    public CompositeHolidaySource(List<? extends HolidaySource> sources) {
+        this.sources = List.copyOf(sources);
+    }
+
+    @Override
+    public String getName() {
+        StringBuilder name = new StringBuilder("composite[");
+        for (int i = 0; i < sources.size(); i++) {
+            name.append(i > 0 ? ", " : "").append(sources.get(i).getName());
+        }
+        return name.append(']').toString();
+    }
+
+    public List<HolidaySource> getSources() {
+        return sources;
+    }
+
+    @Override
+    public HolidayIndex load(int fromYear, int toYear) throws IOException {
+        long start = System.nanoTime();
+        List<Future<HolidayIndex>> pending = new ArrayList<>(sources.size());
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (HolidaySource source : sources) {
+                pending.add(executor.submit(() -> {
+                    long sourceStart = System.nanoTime();
+                    HolidayIndex holidays = source.load(fromYear, toYear);
+                    MetricsRegistry.getDefault().histogram("holiday.source." + source.getName() + ".latency")
+                            .recordSince(sourceStart);
+                    return holidays;
+                }));
+            }
+
+            List<HolidayIndex> results = new ArrayList<>(sources.size());
+            IOException failure = null;
+            for (int i = 0; i < sources.size(); i++) {
+                try {
+                    results.add(pending.get(i).get());
+                } catch (ExecutionException e) {
+                    logger.log(Level.SEVERE, "Holiday source " + sources.get(i).getName() + " failed", e.getCause());
+                    IOException sourceFailure = new IOException("Holiday source " + sources.get(i).getName() + " failed",
+                            e.getCause());
+                    if (failure == null) {
+                        failure = sourceFailure;
+                    } else {
+                        failure.addSuppressed(sourceFailure);
+                    }
+                } catch (InterruptedException e) {
+                    logger.log(Level.SEVERE, "Interrupted while waiting for holiday source " + sources.get(i).getName(), e);
+                    Thread.currentThread().interrupt(); // Restore interrupted status
+                    break;
+                }
+            }
+            if (results.isEmpty() && failure != null) {
+                throw failure;
+            }
+            HolidayIndex merged = merge(results);
+            logger.info("Merged " + merged.getHolidayCount() + " holidays from " + results.size() + " of "
+                    + sources.size() + " sources in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+            return merged;
+        }
+    }
+
+    /**
+     * Merges indexes given in priority order, dropping holidays whose date and name already came
+     * from an earlier index or earlier in the same one.
+     */
+    static HolidayIndex merge(List<HolidayIndex> byPriority) {
+        int count = byPriority.size();
+        List<List<Holiday>> lists = new ArrayList<>(count);
+        for (HolidayIndex index : byPriority) {
+            lists.add(index.getAllHolidays());
+        }
+        int[] positions = new int[count];
+        // Names are pooled by Holiday, so the normalised key only has to be computed once per name
+        Map<String, String> keys = new IdentityHashMap<>();
+        List<String> dayKeys = new ArrayList<>();
+        HolidayIndex.Builder builder = HolidayIndex.builder();
+        int duplicates = 0;
+
+        // Every index is sorted by day, so walk them together one day at a time
+        while (true) {
+            int day = Integer.MAX_VALUE;
+            boolean remaining = false;
+            for (int i = 0; i < count; i++) {
+                if (positions[i] < lists.get(i).size()) {
+                    day = Math.min(day, lists.get(i).get(positions[i]).getEpochDay());
+                    remaining = true;
+                }
+            }
+            if (!remaining) {
+                break;
+            }
+            dayKeys.clear();
+            for (int i = 0; i < count; i++) {
+                List<Holiday> list = lists.get(i);
+                while (positions[i] < list.size() && list.get(positions[i]).getEpochDay() == day) {
+                    Holiday h = list.get(positions[i]++);
+                    String key = keys.computeIfAbsent(h.getName(), name -> name.trim().toLowerCase(Locale.ROOT));
+                    if (dayKeys.contains(key)) {
+                        duplicates++;
+                    } else {
+                        dayKeys.add(key);
+                        builder.add(h);
+                    }
+                }
+            }
+        }
+        if (duplicates > 0) {
+            logger.fine("Dropped " + duplicates + " duplicate holidays while merging sources");
+        }
+        return builder.build();
+    }
+}
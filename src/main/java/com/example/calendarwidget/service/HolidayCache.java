@@ -0,0 +1,343 @@
+package com.example.calendarwidget.service;
+
+import com.example.calendarwidget.metrics.Counter;
+import com.example.calendarwidget.metrics.MetricsRegistry;
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * On-disk cache of raw holiday API responses, one entry per country and year. Each entry is a
+ * small metadata file holding the response validators (ETag / Last-Modified), the fetch time and
+ * a SHA-256 of the body, next to the raw body bytes. Stale entries can therefore be revalidated
+ * with a conditional request, and bodies are streamed in and out without being held in memory.
+ *
+ * <p>Bodies are stored under a name derived from their checksum, which the metadata refers to.
+ * A new entry is written body first, so replacing the metadata file is the single atomic step
+ * that switches to it; an interrupted update leaves the previous metadata and body intact. The
+ * replaced body stays for {@link #RETIRED_BODY_GRACE}, so a reader still holding the previous
+ * entry can open it, and is deleted by a later commit of the same country and year.
+ */
+public class HolidayCache {
+    private static final Logger logger = Logger.getLogger(HolidayCache.class.getName());
+    private static final Counter hitCounter = MetricsRegistry.getDefault().counter("holiday.cache.hits");
+    private static final Counter missCounter = MetricsRegistry.getDefault().counter("holiday.cache.misses");
+    public static final int FORMAT_VERSION = 3;
+    public static final Duration DEFAULT_TTL = Duration.ofHours(24);
+    /** How long a replaced body is kept for readers of the entry that referred to it. */
+    static final Duration RETIRED_BODY_GRACE = Duration.ofMinutes(1);
+
+    private final Path directory;
+    private final Duration ttl;
+    private final Gson gson = new Gson();
+    private final AtomicInteger hits = new AtomicInteger();
+    private final AtomicInteger misses = new AtomicInteger();
+
+    public HolidayCache(Path directory, Duration ttl) {
+        this.directory = directory.resolve("v" + FORMAT_VERSION);
+        this.ttl = ttl;
+    }
+
+    public static HolidayCache defaultCache() {
+        return new HolidayCache(Paths.get(System.getProperty("user.home"), ".calendar-widget", "cache"), DEFAULT_TTL);
+    }
+
+    /**
+     * Returns the cached entry for the given country and year, or {@code null} when there is none
+     * or the files cannot be read as the current format version.
+     */
+    public Entry get(String country, int year) {
+        Entry entry = readEntry(country, year);
+        if (entry == null) {
+            recordMiss();
+            logger.fine(() -> "Cache miss for " + country + "/" + year);
+            return null;
+        }
+        hits.incrementAndGet();
+        hitCounter.increment();
+        logger.fine(() -> "Cache hit for " + country + "/" + year);
+        return entry;
+    }
+
+    private Entry readEntry(String country, int year) {
+        Path file = metadataFile(country, year);
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            Entry entry = gson.fromJson(reader, Entry.class);
+            if (entry == null || entry.version != FORMAT_VERSION || entry.sha256 == null || entry.body == null) {
+                logger.fine(() -> "Discarding cache entry with unexpected format: " + file);
+                return null;
+            }
+            if (!Files.isRegularFile(directory.resolve(entry.body))) {
+                logger.warning("Cache entry " + file + " refers to a missing body: " + entry.body);
+                return null;
+            }
+            return entry;
+        } catch (IOException | JsonParseException e) {
+            logger.log(Level.WARNING, "Unreadable cache entry: " + file, e);
+            return null;
+        }
+    }
+
+    public InputStream openBody(Entry entry) throws IOException {
+        return Files.newInputStream(directory.resolve(entry.body));
+    }
+
+    /**
+     * Starts writing a new body for the given country and year. Bytes read through
+     * {@link PendingBody#tee} are copied to a temporary file that only replaces the current entry
+     * on {@link PendingBody#commit}. Returns {@code null} if the cache directory is not writable.
+     */
+    public PendingBody begin(String country, int year) {
+        try {
+            Files.createDirectories(directory);
+            Path tmp = Files.createTempFile(directory, country + "-" + year, ".body.tmp");
+            return new PendingBody(country, year, tmp, Files.newOutputStream(tmp));
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Cannot create cache entry for " + country + "/" + year, e);
+            return null;
+        }
+    }
+
+    /**
+     * Marks an entry as fresh again after the server confirmed it unchanged (HTTP 304).
+     */
+    public synchronized void touch(Entry entry) {
+        Entry current = readEntry(entry.country, entry.year);
+        if (current == null || !current.body.equals(entry.body)) {
+            // Replaced meanwhile by a newer body, which is fresh anyway
+            return;
+        }
+        entry.fetchedAtMillis = System.currentTimeMillis();
+        try {
+            writeMetadata(entry);
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Failed to write cache entry for " + entry.country + "/" + entry.year, e);
+        }
+    }
+
+    public boolean isFresh(Entry entry) {
+        return System.currentTimeMillis() - entry.fetchedAtMillis < ttl.toMillis();
+    }
+
+    public int getHits() { return hits.get(); }
+    public int getMisses() { return misses.get(); }
+
+    private void recordMiss() {
+        misses.incrementAndGet();
+        missCounter.increment();
+    }
+
+    /** Replaces the entry's metadata file atomically, so readers see either version whole. */
+    private void writeMetadata(Entry entry) throws IOException {
+        Path file = metadataFile(entry.country, entry.year);
+        Files.createDirectories(directory);
+        Path tmp = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try {
+            try (Writer writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+                gson.toJson(entry, writer);
+            }
+            moveAtomically(tmp, file);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+        logger.fine(() -> "Cached holidays for " + entry.country + "/" + entry.year);
+    }
+
+    private static void moveAtomically(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.log(Level.FINE, "Failed to remove cache file: " + file, e);
+        }
+    }
+
+    /** Starts the grace period of a body that the metadata no longer refers to. */
+    private static void retire(Path body) {
+        try {
+            Files.setLastModifiedTime(body, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (IOException e) {
+            logger.log(Level.FINE, "Failed to retire cache body: " + body, e);
+        }
+    }
+
+    /**
+     * Deletes the bodies of a country and year other than {@code current} whose grace period has
+     * passed, including any left behind by a process that stopped mid-commit.
+     */
+    private void sweepRetiredBodies(String country, int year, String current) {
+        long cutoff = System.currentTimeMillis() - RETIRED_BODY_GRACE.toMillis();
+        try (DirectoryStream<Path> bodies = Files.newDirectoryStream(directory, country + "-" + year + "-*.body")) {
+            for (Path body : bodies) {
+                if (!body.getFileName().toString().equals(current)
+                        && Files.getLastModifiedTime(body).toMillis() < cutoff) {
+                    deleteQuietly(body);
+                }
+            }
+        } catch (IOException e) {
+            logger.log(Level.FINE, "Failed to sweep replaced cache bodies for " + country + "/" + year, e);
+        }
+    }
+
+    private Path metadataFile(String country, int year) {
+        return directory.resolve(country + "-" + year + ".json");
+    }
+
+    /** Named by checksum, so a new body never overwrites the one the current metadata refers to. */
+    private static String bodyName(String country, int year, String sha256) {
+        return country + "-" + year + "-" + sha256.substring(0, 16) + ".body";
+    }
+
+    public static class Entry {
+        private int version;
+        private String country;
+        private int year;
+        private String etag;
+        private String lastModified;
+        private long fetchedAtMillis;
+        private String sha256;
+        private String body;
+
+        public String getCountry() { return country; }
+        public int getYear() { return year; }
+        public String getEtag() { return etag; }
+        public String getLastModified() { return lastModified; }
+        public long getFetchedAtMillis() { return fetchedAtMillis; }
+        public String getSha256() { return sha256; }
+    }
+
+    /**
+     * A body being written to the cache while it is streamed from the network.
+     */
+    public final class PendingBody {
+        private final String country;
+        private final int year;
+        private final Path tmp;
+        private final OutputStream out;
+        private boolean failed;
+
+        private PendingBody(String country, int year, Path tmp, OutputStream out) {
+            this.country = country;
+            this.year = year;
+            this.tmp = tmp;
+            this.out = out;
+        }
+
+        /** Wraps {@code source} so that every byte read from it is also written to this entry. */
+        public InputStream tee(InputStream source) {
+            return new FilterInputStream(source) {
+                @Override
+                public int read() throws IOException {
+                    int b = super.read();
+                    if (b >= 0) {
+                        copy(new byte[] {(byte) b}, 0, 1);
+                    }
+                    return b;
+                }
+
+                @Override
+                public int read(byte[] buffer, int off, int len) throws IOException {
+                    int n = super.read(buffer, off, len);
+                    if (n > 0) {
+                        copy(buffer, off, n);
+                    }
+                    return n;
+                }
+            };
+        }
+
+        public void commit(String etag, String lastModified, String sha256) {
+            try {
+                out.close();
+                if (failed) {
+                    abort();
+                    return;
+                }
+                commitEntry(etag, lastModified, sha256);
+            } catch (IOException e) {
+                logger.log(Level.WARNING, "Failed to commit cache entry for " + country + "/" + year, e);
+                abort();
+            }
+        }
+
+        private void commitEntry(String etag, String lastModified, String sha256) throws IOException {
+            // One commit at a time, so concurrent refreshes of a year cannot orphan each other's bodies
+            synchronized (HolidayCache.this) {
+                Entry previous = readEntry(country, year);
+                String body = bodyName(country, year, sha256);
+                moveAtomically(tmp, directory.resolve(body));
+                Entry entry = new Entry();
+                entry.version = FORMAT_VERSION;
+                entry.country = country;
+                entry.year = year;
+                entry.etag = etag;
+                entry.lastModified = lastModified;
+                entry.fetchedAtMillis = System.currentTimeMillis();
+                entry.sha256 = sha256;
+                entry.body = body;
+                try {
+                    writeMetadata(entry);
+                } catch (IOException e) {
+                    // The previous metadata still stands and refers to its own body
+                    if (previous == null || !body.equals(previous.body)) {
+                        Files.deleteIfExists(directory.resolve(body));
+                    }
+                    throw e;
+                }
+                if (previous != null && !body.equals(previous.body)) {
+                    retire(directory.resolve(previous.body));
+                }
+                sweepRetiredBodies(country, year, body);
+            }
+        }
+
+        public void abort() {
+            try {
+                out.close();
+            } catch (IOException e) {
+                logger.log(Level.FINE, "Failed to close temporary cache file: " + tmp, e);
+            }
+            deleteQuietly(tmp);
+        }
+
+        private void copy(byte[] buffer, int off, int len) {
+            if (failed) {
+                return;
+            }
+            try {
+                out.write(buffer, off, len);
+            } catch (IOException e) {
+                failed = true;
+                logger.log(Level.WARNING, "Failed to write cache body for " + country + "/" + year, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,283 @@
+package com.example.calendarwidget.service;
+
+import com.example.calendarwidget.metrics.Counter;
+import com.example.calendarwidget.metrics.Histogram;
+import com.example.calendarwidget.metrics.MetricsRegistry;
+import com.example.calendarwidget.model.Holiday;
+import com.example.calendarwidget.model.HolidayIndex;
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Answers holiday queries over HTTP on the loopback interface, so local tools can share the
+ * widget's data instead of each calling the public API. Requests are handled on virtual threads.
+ * Run the JVM with {@code -Dsun.net.httpserver.nodelay=true}: headers and body go out as separate
+ * writes, so without TCP_NODELAY, Nagle's algorithm and delayed ACKs hold every keep-alive
+ * response back by about 40 ms.
+ *
+ * <p>Endpoints, all {@code GET} (or {@code HEAD}) with ISO dates, returning JSON:
+ * <ul>
+ *   <li>{@code /day?date=2025-12-25}: the holidays on a day, work holidays first</li>
+ *   <li>{@code /range?from=2025-12-01&to=2025-12-31}: the holidays in a range, by date</li>
+ *   <li>{@code /week?date=2025-12-25}: the work-holiday count of the ISO week holding a date</li>
+ *   <li>{@code /next?from=2025-07-05&n=3}: the next {@code n} holidays on or after a date</li>
+ * </ul>
+ *
+ * <p>Responses are serialized once per data snapshot and cached by request URI. Every
+ * response carries an ETag naming the snapshot it was computed from; a request whose
+ * {@code If-None-Match} names the current snapshot gets {@code 304 Not Modified}. When the
+ * supplier hands out a different {@link HolidayIndex}, the version advances and the cache is
+ * dropped.
+ */
+public class HolidayHttpServer {
+    private static final Logger logger = Logger.getLogger(HolidayHttpServer.class.getName());
+    private static final Histogram requestLatency = MetricsRegistry.getDefault().histogram("http.request.latency");
+    private static final Counter cacheHits = MetricsRegistry.getDefault().counter("http.cache.hits");
+    private static final Counter cacheMisses = MetricsRegistry.getDefault().counter("http.cache.misses");
+    private static final Counter notModified = MetricsRegistry.getDefault().counter("http.responses.notModified");
+    private static final Counter clientErrors = MetricsRegistry.getDefault().counter("http.responses.clientErrors");
+    public static final int DEFAULT_PORT = 8765;
+    // Bounds the memory of one snapshot's cache when clients query many distinct URIs
+    static final int MAX_CACHED_RESPONSES = 10_000;
+    static final int MAX_RANGE_DAYS = 3 * 366;
+    static final int MAX_NEXT = 1000;
+
+    private final Supplier<HolidayIndex> holidays;
+    private final int requestedPort;
+    private final Gson gson = new Gson();
+    // Distinguishes versions across restarts, so a client never revalidates against an old process
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong versions = new AtomicLong();
+    private final AtomicReference<Snapshot> current;
+    private HttpServer server;
+    private ExecutorService executor;
+
+    /** A data snapshot with its version tag and the responses already computed from it. */
+    private record Snapshot(HolidayIndex holidays, String etag, Map<String, Response> responses) {}
+
+    private record Response(int status, byte[] body) {}
+
+    /**
+     * @param holidays supplies the current snapshot; called on every request, so it must be cheap
+     *                 and must not lock, e.g. a volatile read
+     * @param port     the loopback port, or 0 for any free port
+     */
+    public HolidayHttpServer(Supplier<HolidayIndex> holidays, int port) {
+        this.holidays = holidays;
+        this.requestedPort = port;
+        this.current = new AtomicReference<>(newSnapshot(holidays.get()));
+    }
+
+    public synchronized void start() throws IOException {
+        if (server != null) {
+            return;
+        }
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), requestedPort), 0);
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        server.start();
+        logger.info("Holiday HTTP server listening on " + server.getAddress());
+    }
+
+    public synchronized void stop() {
+        if (server != null) {
+            server.stop(0);
+            executor.close();
+            server = null;
+            logger.info("Holiday HTTP server stopped");
+        }
+    }
+
+    /** The port actually bound; only valid once started. */
+    public synchronized int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        long start = System.nanoTime();
+        try (exchange) {
+            String method = exchange.getRequestMethod();
+            boolean head = method.equals("HEAD");
+            if (!head && !method.equals("GET")) {
+                exchange.getResponseHeaders().set("Allow", "GET, HEAD");
+                send(exchange, error(405, "Method not allowed"), null, false);
+                return;
+            }
+            Snapshot snapshot = snapshot();
+            String query = exchange.getRequestURI().getRawQuery();
+            String key = exchange.getRequestURI().getRawPath() + (query != null ? "?" + query : "");
+            Response response = snapshot.responses().get(key);
+            if (response != null) {
+                cacheHits.increment();
+            } else {
+                cacheMisses.increment();
+                response = compute(exchange.getRequestURI().getRawPath(), query, snapshot.holidays());
+                if (response.status() == 200 && snapshot.responses().size() < MAX_CACHED_RESPONSES) {
+                    snapshot.responses().putIfAbsent(key, response);
+                }
+            }
+            if (response.status() == 200 && matches(exchange.getRequestHeaders().getFirst("If-None-Match"), snapshot.etag())) {
+                notModified.increment();
+                exchange.getResponseHeaders().set("ETag", snapshot.etag());
+                exchange.sendResponseHeaders(304, -1);
+                return;
+            }
+            send(exchange, response, response.status() == 200 ? snapshot.etag() : null, head);
+        } catch (IOException | RuntimeException e) {
+            logger.log(Level.FINE, "Failed to answer " + exchange.getRequestURI(), e);
+            throw e;
+        } finally {
+            requestLatency.recordSince(start);
+        }
+    }
+
+    /** The snapshot for the supplier's current index, advancing the version if the index changed. */
+    private Snapshot snapshot() {
+        HolidayIndex latest = holidays.get();
+        Snapshot snapshot = current.get();
+        while (snapshot.holidays() != latest) {
+            Snapshot next = newSnapshot(latest);
+            if (current.compareAndSet(snapshot, next)) {
+                logger.fine(() -> "Holiday data changed, now serving " + next.etag());
+                return next;
+            }
+            snapshot = current.get();
+        }
+        return snapshot;
+    }
+
+    private Snapshot newSnapshot(HolidayIndex index) {
+        return new Snapshot(index, "\"" + epoch + "-" + versions.incrementAndGet() + "\"", new ConcurrentHashMap<>());
+    }
+
+    private Response compute(String path, String rawQuery, HolidayIndex index) {
+        try {
+            Map<String, String> params = parseQuery(rawQuery);
+            switch (path) {
+                case "/day":
+                    return json(index.getHolidays(date(params, "date")));
+                case "/range": {
+                    LocalDate from = date(params, "from");
+                    LocalDate to = date(params, "to");
+                    if (to.isBefore(from) || to.toEpochDay() - from.toEpochDay() >= MAX_RANGE_DAYS) {
+                        return error(400, "Range must be ascending and at most " + MAX_RANGE_DAYS + " days");
+                    }
+                    return json(index.getHolidaysInRange(from, to));
+                }
+                case "/week": {
+                    int day = (int) date(params, "date").toEpochDay();
+                    int monday = HolidayIndex.weekStart(day);
+                    int count = index.getWorkHolidayCountForWeek(day);
+                    JsonObject week = new JsonObject();
+                    week.addProperty("weekStart", LocalDate.ofEpochDay(monday).toString());
+                    week.addProperty("weekEnd", LocalDate.ofEpochDay(monday + 6).toString());
+                    week.addProperty("workHolidays", count);
+                    week.addProperty("level", count == 0 ? "none" : count == 1 ? "single" : "multiple");
+                    return new Response(200, gson.toJson(week).getBytes(StandardCharsets.UTF_8));
+                }
+                case "/next": {
+                    int n = Integer.parseInt(params.getOrDefault("n", "10"));
+                    if (n < 1 || n > MAX_NEXT) {
+                        return error(400, "n must be between 1 and " + MAX_NEXT);
+                    }
+                    return json(index.getNextHolidays(date(params, "from"), n));
+                }
+                default:
+                    return error(404, "Unknown endpoint " + path);
+            }
+        } catch (DateTimeParseException | NumberFormatException e) {
+            return error(400, "Invalid parameter: " + e.getMessage());
+        } catch (IllegalArgumentException e) {
+            return error(400, e.getMessage());
+        }
+    }
+
+    private Response json(List<Holiday> holidays) {
+        return new Response(200, gson.toJson(holidays).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Response error(int status, String message) {
+        clientErrors.increment();
+        JsonObject body = new JsonObject();
+        body.addProperty("error", message);
+        return new Response(status, gson.toJson(body).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void send(HttpExchange exchange, Response response, String etag, boolean head) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        if (etag != null) {
+            exchange.getResponseHeaders().set("ETag", etag);
+            exchange.getResponseHeaders().set("Cache-Control", "no-cache");
+        }
+        if (head) {
+            exchange.sendResponseHeaders(response.status(), -1);
+            return;
+        }
+        exchange.sendResponseHeaders(response.status(), response.body().length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(response.body());
+        }
+    }
+
+    private static LocalDate date(Map<String, String> params, String name) {
+        String value = params.get(name);
+        if (value == null) {
+            throw new IllegalArgumentException("Missing parameter: " + name);
+        }
+        return LocalDate.parse(value);
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> params = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return params;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            String name = URLDecoder.decode(eq < 0 ? pair : pair.substring(0, eq), StandardCharsets.UTF_8);
+            String value = eq < 0 ? "" : URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+            params.putIfAbsent(name, value);
+        }
+        return params;
+    }
+
+    /** Whether an {@code If-None-Match} header names {@code etag}, or any entity with {@code *}. */
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(etag) || tag.equals("*")) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
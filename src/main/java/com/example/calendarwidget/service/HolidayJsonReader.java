@@ -0,0 +1,98 @@
+package com.example.calendarwidget.service;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.logging.Logger;
+
+/**
+ * Streaming reader for the Nager.Date holiday array. Objects are decoded field by field with
+ * Gson's {@link JsonReader} and handed to a {@link Sink} as soon as they are complete, so the
+ * response is never buffered as a whole and no reflective binding is involved.
+ */
+public final class HolidayJsonReader {
+    private static final Logger logger = Logger.getLogger(HolidayJsonReader.class.getName());
+
+    private HolidayJsonReader() {}
+
+    @FunctionalInterface
+    public interface Sink {
+        void accept(int epochDay, String date, String name);
+    }
+
+    /**
+     * Reads a JSON array of holiday objects from {@code in}, which is drained to the end but not
+     * closed. Entries without a valid {@code date} or {@code name} are skipped.
+     *
+     * @return the number of holidays passed to {@code sink}
+     * @throws IOException if the stream cannot be read or is not a JSON array of objects
+     */
+    public static int read(InputStream in, Sink sink) throws IOException {
+        try {
+            return readArray(new JsonReader(new InputStreamReader(in, StandardCharsets.UTF_8)), in, sink);
+        } catch (IllegalStateException e) {
+            // JsonReader reports unexpected tokens this way; surface them like malformed JSON
+            throw new IOException("Unexpected holiday JSON structure: " + e.getMessage(), e);
+        }
+    }
+
+    private static int readArray(JsonReader reader, InputStream in, Sink sink) throws IOException {
+        int count = 0;
+        reader.beginArray();
+        while (reader.hasNext()) {
+            String date = null;
+            String name = null;
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String field = reader.nextName();
+                if ("date".equals(field) && reader.peek() == JsonToken.STRING) {
+                    date = reader.nextString();
+                } else if ("name".equals(field) && reader.peek() == JsonToken.STRING) {
+                    name = reader.nextString();
+                } else {
+                    reader.skipValue();
+                }
+            }
+            reader.endObject();
+
+            if (date == null || name == null) {
+                logger.warning("Skipping holiday without date or name");
+                continue;
+            }
+            int epochDay;
+            try {
+                epochDay = parseEpochDay(date);
+            } catch (DateTimeException | NumberFormatException e) {
+                logger.warning("Skipping holiday with invalid date: " + date);
+                continue;
+            }
+            sink.accept(epochDay, date, name);
+            count++;
+        }
+        reader.endArray();
+        // Consume trailing bytes so that digests and cache tees see the complete body
+        in.transferTo(OutputStream.nullOutputStream());
+        return count;
+    }
+
+    /**
+     * Parses an ISO {@code yyyy-MM-dd} date to its epoch day without going through a
+     * {@code DateTimeFormatter}.
+     */
+    static int parseEpochDay(String date) {
+        if (date.length() == 10 && date.charAt(4) == '-' && date.charAt(7) == '-') {
+            int year = Integer.parseInt(date, 0, 4, 10);
+            int month = Integer.parseInt(date, 5, 7, 10);
+            int day = Integer.parseInt(date, 8, 10, 10);
+            return (int) LocalDate.of(year, month, day).toEpochDay();
+        }
+        return (int) LocalDate.parse(date).toEpochDay();
+    }
+}
@@ -0,0 +1,204 @@
+package com.example.calendarwidget.service;
+
+import com.example.calendarwidget.metrics.Counter;
+import com.example.calendarwidget.metrics.Histogram;
+import com.example.calendarwidget.metrics.MetricsRegistry;
+import com.example.calendarwidget.model.Holiday;
+import com.example.calendarwidget.model.HolidayIndex;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Periodically refreshes a holiday snapshot in the background, so a long-running process does
+ * not keep showing the data it loaded at startup.
+ *
+ * <p>Each run asks a {@link ChangeDetector} which years changed upstream, typically
+ * {@link HolidayService#revalidate}, which compares content hashes. Only those years are reloaded
+ * from the {@link HolidaySource} and spliced into a new immutable {@link HolidayIndex}, all on the
+ * refresher thread. The result is published through a single atomic reference, so readers of
+ * {@link #getSnapshot()} never lock and never see a partially built index. The {@link Listener}
+ * is then told which months render differently.
+ */
+public class HolidayRefresher {
+    private static final Logger logger = Logger.getLogger(HolidayRefresher.class.getName());
+    private static final Histogram refreshLatency = MetricsRegistry.getDefault().histogram("holiday.refresh.latency");
+    private static final Counter publishes = MetricsRegistry.getDefault().counter("holiday.refresh.publishes");
+    private static final Counter failures = MetricsRegistry.getDefault().counter("holiday.refresh.errors");
+    public static final Duration DEFAULT_INTERVAL = Duration.ofHours(1);
+
+    /** Reports the years within {@code fromYear..toYear} whose holidays changed since last loaded. */
+    @FunctionalInterface
+    public interface ChangeDetector {
+        Set<Integer> changedYears(int fromYear, int toYear);
+    }
+
+    /** Called on the refresher thread after a new snapshot has been published. */
+    @FunctionalInterface
+    public interface Listener {
+        void snapshotPublished(HolidayIndex snapshot, Set<YearMonth> changedMonths);
+    }
+
+    private final ChangeDetector changes;
+    private final HolidaySource source;
+    private final Listener listener;
+    private final AtomicReference<HolidayIndex> snapshot;
+    private ScheduledExecutorService scheduler;
+
+    public HolidayRefresher(ChangeDetector changes, HolidaySource source, HolidayIndex initial, Listener listener) {
+        this.changes = changes;
+        this.source = source;
+        this.listener = listener;
+        this.snapshot = new AtomicReference<>(initial);
+    }
+
+    /** The current snapshot. Never blocks. */
+    public HolidayIndex getSnapshot() {
+        return snapshot.get();
+    }
+
+    /** Replaces the snapshot wholesale, e.g. once startup loading has finished, without notifying. */
+    public void reset(HolidayIndex holidays) {
+        snapshot.set(holidays);
+    }
+
+    /**
+     * Splices in {@code holidays} as the holidays of {@code year}, e.g. a year loaded on demand,
+     * without notifying. Later refreshes build on the result.
+     */
+    public HolidayIndex mergeYear(int year, HolidayIndex holidays) {
+        return snapshot.updateAndGet(current -> current.replaceYear(year, holidays));
+    }
+
+    /**
+     * Starts refreshing the years from last year to next year every {@code interval}, on a daemon
+     * thread. The window follows the calendar, so a process running across New Year picks up the
+     * new next year on its first run after it.
+     */
+    public synchronized void start(Duration interval) {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "holiday-refresher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long millis = interval.toMillis();
+        scheduler.scheduleWithFixedDelay(() -> {
+            int year = LocalDate.now().getYear();
+            refresh(year - 1, year + 1);
+        }, millis, millis, TimeUnit.MILLISECONDS);
+        logger.info("Refreshing holidays every " + interval);
+    }
+
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    /**
+     * Runs one refresh of {@code fromYear..toYear} on the calling thread and returns the months
+     * that changed; an empty set if nothing did. Failures are logged, never thrown, so a bad run
+     * does not cancel the schedule.
+     */
+    public Set<YearMonth> refresh(int fromYear, int toYear) {
+        long start = System.nanoTime();
+        try {
+            Set<Integer> years = changes.changedYears(fromYear, toYear);
+            if (years.isEmpty()) {
+                logger.fine(() -> "Holidays for " + fromYear + ".." + toYear + " unchanged");
+                return Collections.emptySet();
+            }
+            return reload(years);
+        } catch (RuntimeException e) {
+            failures.increment();
+            logger.log(Level.SEVERE, "Holiday refresh failed", e);
+            return Collections.emptySet();
+        } finally {
+            refreshLatency.recordSince(start);
+        }
+    }
+
+    /**
+     * Reloads every year from the first to the last year the snapshot holds, whether or not it
+     * changed upstream, e.g. because the rules that classify holidays changed. Runs on the calling
+     * thread and returns the months that changed, like {@link #refresh}.
+     */
+    public Set<YearMonth> reloadAll() {
+        List<Holiday> holidays = snapshot.get().getAllHolidays();
+        if (holidays.isEmpty()) {
+            return Collections.emptySet();
+        }
+        long start = System.nanoTime();
+        try {
+            Set<Integer> years = new TreeSet<>();
+            int last = holidays.get(holidays.size() - 1).getDate().getYear();
+            for (int year = holidays.get(0).getDate().getYear(); year <= last; year++) {
+                years.add(year);
+            }
+            return reload(years);
+        } catch (RuntimeException e) {
+            failures.increment();
+            logger.log(Level.SEVERE, "Holiday reload failed", e);
+            return Collections.emptySet();
+        } finally {
+            refreshLatency.recordSince(start);
+        }
+    }
+
+    /** Reloads {@code years} from the source, publishes the new snapshot and returns the changed months. */
+    private Set<YearMonth> reload(Set<Integer> years) {
+        TreeMap<Integer, HolidayIndex> reloaded = new TreeMap<>();
+        for (int year : years) {
+            try {
+                reloaded.put(year, source.load(year, year));
+            } catch (IOException e) {
+                failures.increment();
+                logger.log(Level.WARNING, "Failed to reload holidays for " + year + " from " + source.getName(), e);
+            }
+        }
+        if (reloaded.isEmpty()) {
+            return Collections.emptySet();
+        }
+
+        HolidayIndex before;
+        HolidayIndex after;
+        do {
+            // Rebuild from the latest snapshot if someone else published in the meantime
+            before = snapshot.get();
+            after = before;
+            for (Map.Entry<Integer, HolidayIndex> entry : reloaded.entrySet()) {
+                after = after.replaceYear(entry.getKey(), entry.getValue());
+            }
+        } while (!snapshot.compareAndSet(before, after));
+
+        int first = reloaded.firstKey();
+        int last = reloaded.lastKey();
+        // Week counts span year boundaries, so the adjacent December and January may change too
+        Set<YearMonth> months = HolidayIndex.changedMonths(before, after,
+                YearMonth.of(first - 1, 12), YearMonth.of(last + 1, 1));
+        publishes.increment();
+        logger.info("Refreshed holidays for years " + reloaded.keySet() + ", changed months: " + months);
+        if (!months.isEmpty()) {
+            listener.snapshotPublished(after, months);
+        }
+        return months;
+    }
+}
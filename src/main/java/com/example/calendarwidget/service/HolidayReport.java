@@ -0,0 +1,297 @@
+package com.example.calendarwidget.service;
+
+import com.example.calendarwidget.metrics.Histogram;
+import com.example.calendarwidget.metrics.MetricsRegistry;
+import com.example.calendarwidget.model.Holiday;
+import com.example.calendarwidget.model.HolidayIndex;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.IsoFields;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+
+/**
+ * Work-holiday aggregates per ISO week and per month, for any countries and years, without any
+ * UI. Weeks are counted exactly as the calendar highlights them: a week with one work holiday is
+ * a single week, one with two or more a multiple week, and every day of such a week is
+ * highlighted.
+ *
+ * <p>Each country-year is computed as its own task on a {@link ForkJoinPool}. Results are written
+ * in input order as soon as they are complete, and only a bounded window of country-years is in
+ * flight at any time, so the report streams regardless of how many are requested. Holidays come
+ * from a {@link HolidayStore}, so the neighbouring years that ISO weeks spill into are loaded once
+ * and shared between tasks. Tasks wait for the store through a {@link ForkJoinPool.ManagedBlocker},
+ * so the pool adds workers while others are blocked on the network instead of stalling.
+ */
+public class HolidayReport {
+    private static final Logger logger = Logger.getLogger(HolidayReport.class.getName());
+    private static final Histogram reportLatency = MetricsRegistry.getDefault().histogram("report.latency");
+    private static final Pattern COUNTRY = Pattern.compile("[A-Za-z0-9_-]+");
+    static final String CSV_HEADER = "country,kind,period,start,end,holidays,work_holidays,single_weeks,"
+            + "multiple_weeks,highlighted_days";
+
+    public enum Format { CSV, JSON }
+
+    public enum Aggregate { WEEK, MONTH }
+
+    private final HolidayStore store;
+    private final Format format;
+    private final Set<Aggregate> aggregates;
+    private final ForkJoinPool pool;
+
+    public HolidayReport(HolidayStore store, Format format, Set<Aggregate> aggregates, ForkJoinPool pool) {
+        this.store = store;
+        this.format = format;
+        this.aggregates = aggregates.isEmpty() ? EnumSet.noneOf(Aggregate.class) : EnumSet.copyOf(aggregates);
+        this.pool = pool;
+    }
+
+    /**
+     * Checks that every entry of {@code countries} is a plausible country code, before any
+     * holidays are requested for it.
+     *
+     * @throws IllegalArgumentException naming the first invalid code
+     */
+    public static void checkCountries(List<String> countries) {
+        for (String country : countries) {
+            if (!COUNTRY.matcher(country).matches()) {
+                throw new IllegalArgumentException("Invalid country code: " + country);
+            }
+        }
+    }
+
+    /**
+     * Writes the aggregates of every country in {@code countries} for {@code fromYear..toYear}
+     * to {@code out}, ordered by country, then year, then period. Returns the number of rows.
+     *
+     * @throws IOException              if writing fails or the holidays of a country-year cannot be
+     *                                  loaded; rows already written stay written
+     * @throws IllegalArgumentException if a country code is invalid, before anything is written
+     */
+    public long write(List<String> countries, int fromYear, int toYear, Writer out) throws IOException {
+        checkCountries(countries);
+        long start = System.nanoTime();
+        if (format == Format.CSV) {
+            out.write(CSV_HEADER);
+            out.write('\n');
+        }
+        int window = Math.max(2, pool.getParallelism() * 4);
+        Deque<ForkJoinTask<Chunk>> inFlight = new ArrayDeque<>(window);
+        long rows = 0;
+        try {
+            for (String country : countries) {
+                for (int year = fromYear; year <= toYear; year++) {
+                    if (inFlight.size() == window) {
+                        rows += writeChunk(inFlight.removeFirst(), out);
+                    }
+                    inFlight.addLast(pool.submit(new CountryYearTask(country, year)));
+                }
+            }
+            while (!inFlight.isEmpty()) {
+                rows += writeChunk(inFlight.removeFirst(), out);
+            }
+        } finally {
+            for (ForkJoinTask<Chunk> task : inFlight) {
+                task.cancel(true);
+            }
+        }
+        out.flush();
+        reportLatency.recordSince(start);
+        logger.info("Wrote " + rows + " report rows for " + countries.size() + " countries, " + fromYear + ".." + toYear
+                + " in " + (System.nanoTime() - start) / 1_000_000 + " ms (store hits: " + store.getHits()
+                + ", misses: " + store.getMisses() + ", evictions: " + store.getEvictions() + ")");
+        return rows;
+    }
+
+    private static long writeChunk(ForkJoinTask<Chunk> task, Writer out) throws IOException {
+        Chunk chunk;
+        try {
+            chunk = task.join();
+        } catch (RuntimeException e) {
+            // join() may rethrow a copy of the task's exception that wraps the original
+            for (Throwable t = e; t != null; t = t.getCause()) {
+                if (t instanceof UncheckedIOException unchecked) {
+                    throw unchecked.getCause();
+                }
+            }
+            throw e;
+        }
+        out.write(chunk.text());
+        return chunk.rows();
+    }
+
+    private record Chunk(String text, int rows) {}
+
+    /** Formats the rows of one country-year. */
+    private final class CountryYearTask extends RecursiveTask<Chunk> {
+        private final String country;
+        private final int year;
+
+        CountryYearTask(String country, int year) {
+            this.country = country;
+            this.year = year;
+        }
+
+        @Override
+        protected Chunk compute() {
+            try {
+                HolidayIndex[] shards = {shard(year - 1), shard(year), shard(year + 1)};
+                StringBuilder text = new StringBuilder(8 * 1024);
+                int rows = 0;
+                if (aggregates.contains(Aggregate.WEEK)) {
+                    rows += appendWeeks(shards, text);
+                }
+                if (aggregates.contains(Aggregate.MONTH)) {
+                    rows += appendMonths(shards, text);
+                }
+                return new Chunk(text.toString(), rows);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to load holidays for " + country + "/" + year, e);
+            }
+        }
+
+        private HolidayIndex shard(int shardYear) throws IOException {
+            ShardBlocker blocker = new ShardBlocker(country, shardYear);
+            try {
+                ForkJoinPool.managedBlock(blocker);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt(); // Restore interrupted status
+                throw new InterruptedIOException("Interrupted while loading holidays for " + country + "/" + shardYear);
+            }
+            if (blocker.failure != null) {
+                throw blocker.failure;
+            }
+            return blocker.shard;
+        }
+
+        /** The ISO weeks of {@link #year}: Monday of the week holding 4 January to that of 28 December. */
+        private int appendWeeks(HolidayIndex[] shards, StringBuilder text) {
+            int first = HolidayIndex.weekStart((int) LocalDate.of(year, 1, 4).toEpochDay());
+            int last = HolidayIndex.weekStart((int) LocalDate.of(year, 12, 28).toEpochDay());
+            int rows = 0;
+            for (int monday = first; monday <= last; monday += 7) {
+                int work = workHolidaysInWeek(shards, monday);
+                LocalDate start = LocalDate.ofEpochDay(monday);
+                String period = year + "-W" + pad(start.get(IsoFields.WEEK_OF_WEEK_BASED_YEAR));
+                appendRow(text, "week", period, start, start.plusDays(6), holidaysBetween(shards, monday, monday + 6),
+                        work, work == 1 ? 1 : 0, work > 1 ? 1 : 0, work > 0 ? 7 : 0);
+                rows++;
+            }
+            return rows;
+        }
+
+        private int appendMonths(HolidayIndex[] shards, StringBuilder text) {
+            for (int m = 1; m <= 12; m++) {
+                YearMonth month = YearMonth.of(year, m);
+                int firstDay = (int) month.atDay(1).toEpochDay();
+                int lastDay = (int) month.atEndOfMonth().toEpochDay();
+                int work = 0;
+                int single = 0;
+                int multiple = 0;
+                int highlighted = 0;
+                // Every ISO week touching the month colours the month's days it covers
+                for (int monday = HolidayIndex.weekStart(firstDay); monday <= lastDay; monday += 7) {
+                    int count = workHolidaysInWeek(shards, monday);
+                    if (count == 0) {
+                        continue;
+                    }
+                    if (count == 1) {
+                        single++;
+                    } else {
+                        multiple++;
+                    }
+                    highlighted += Math.min(lastDay, monday + 6) - Math.max(firstDay, monday) + 1;
+                }
+                for (Holiday h : shards[1].getHolidaysInRange(month.atDay(1), month.atEndOfMonth())) {
+                    if (h.isWork()) {
+                        work++;
+                    }
+                }
+                appendRow(text, "month", month.toString(), month.atDay(1), month.atEndOfMonth(),
+                        holidaysBetween(shards, firstDay, lastDay), work, single, multiple, highlighted);
+            }
+            return 12;
+        }
+
+        private void appendRow(StringBuilder text, String kind, String period, LocalDate start, LocalDate end,
+                               int holidays, int work, int single, int multiple, int highlighted) {
+            if (format == Format.CSV) {
+                text.append(country).append(',').append(kind).append(',').append(period).append(',')
+                        .append(start).append(',').append(end).append(',').append(holidays).append(',')
+                        .append(work).append(',').append(single).append(',').append(multiple).append(',')
+                        .append(highlighted).append('\n');
+            } else {
+                text.append("{\"country\":\"").append(country).append("\",\"kind\":\"").append(kind)
+                        .append("\",\"period\":\"").append(period).append("\",\"start\":\"").append(start)
+                        .append("\",\"end\":\"").append(end).append("\",\"holidays\":").append(holidays)
+                        .append(",\"workHolidays\":").append(work).append(",\"singleWeeks\":").append(single)
+                        .append(",\"multipleWeeks\":").append(multiple).append(",\"highlightedDays\":")
+                        .append(highlighted).append("}\n");
+            }
+        }
+    }
+
+    /** Loads one shard, which may block on the network or on another task's load of it. */
+    private final class ShardBlocker implements ForkJoinPool.ManagedBlocker {
+        private final String country;
+        private final int year;
+        private HolidayIndex shard;
+        private IOException failure;
+
+        ShardBlocker(String country, int year) {
+            this.country = country;
+            this.year = year;
+        }
+
+        @Override
+        public boolean block() {
+            try {
+                shard = store.getShard(country, year);
+            } catch (IOException e) {
+                failure = e;
+            }
+            return true;
+        }
+
+        @Override
+        public boolean isReleasable() {
+            return shard != null || failure != null;
+        }
+    }
+
+    /** Shards hold disjoint years, so a week's count is the sum of each shard's part of it. */
+    private static int workHolidaysInWeek(HolidayIndex[] shards, int monday) {
+        int count = 0;
+        for (HolidayIndex shard : shards) {
+            count += shard.getWorkHolidayCountForWeek(monday);
+        }
+        return count;
+    }
+
+    private static int holidaysBetween(HolidayIndex[] shards, int fromDay, int toDay) {
+        LocalDate from = LocalDate.ofEpochDay(fromDay);
+        LocalDate to = LocalDate.ofEpochDay(toDay);
+        int count = 0;
+        for (HolidayIndex shard : shards) {
+            count += shard.getHolidaysInRange(from, to).size();
+        }
+        return count;
+    }
+
+    private static String pad(int week) {
+        return week < 10 ? "0" + week : Integer.toString(week);
+    }
+}
@@ -0,0 +1,477 @@
+package com.example.calendarwidget.service;
+
+import com.example.calendarwidget.model.Holiday;
+import com.example.calendarwidget.model.HolidayIndex;
+import com.example.calendarwidget.model.HolidayType;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.MonthDay;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Decides whether a holiday is a work holiday, by rules read from a rules file.
+ *
+ * <p>Each line holds one rule: a type followed by any of these conditions, all of which must hold.
+ * <ul>
+ *   <li>{@code name=...}: the holiday name contains this text, ignoring case</li>
+ *   <li>{@code country=US,CA}: the holiday belongs to one of these countries</li>
+ *   <li>{@code date=2025-12-24} or {@code date=2025-12-22..2026-01-02}: a date or date range</li>
+ *   <li>{@code date=12-24} or {@code date=12-24..01-02}: a day or range of days in every year</li>
+ * </ul>
+ * Values containing spaces are written in double quotes, and {@code #} starts a comment. The first
+ * rule that matches decides the type, so exceptions go before the rules they override; holidays
+ * that no rule matches are regular.
+ * <pre>
+ * regular name="Christmas Eve" country=DE
+ * work    name=Christmas
+ * work    name=Thanksgiving country=US,CA
+ * work    date=12-27..12-31
+ * </pre>
+ *
+ * <p>Rules are compiled once, so classifying a holiday does not get slower per rule. All name
+ * patterns go into one Aho-Corasick automaton that finds every pattern in a single pass over the
+ * name. Rules without a name pattern are looked up by date, in a sorted table of epoch days and
+ * a table of the days of the year. Instances are immutable and safe to share between threads.
+ */
+public final class HolidayRules {
+    /** The rules used when no rules file is configured. */
+    public static final HolidayRules DEFAULT = defaults();
+    // Nameless rules over longer absolute ranges are checked one by one instead of tabulated
+    private static final int MAX_TABULATED_DAYS = 366;
+    // Month and day as (month - 1) * 31 + (day - 1), so every MonthDay has a slot, leap day included
+    private static final int ANNUAL_SLOTS = 12 * 31;
+    private static final int NO_MATCH = Integer.MAX_VALUE;
+
+    private final Rule[] rules;
+    private final NameMatcher names;
+    private final int[] dates;
+    private final int[][] dateRules;
+    private final int[][] annualRules;
+    private final int[] otherRules;
+
+    private HolidayRules(List<Rule> rules) {
+        this.rules = rules.toArray(new Rule[0]);
+        List<String> patterns = new ArrayList<>();
+        List<Integer> patternRules = new ArrayList<>();
+        TreeMap<Integer, List<Integer>> byDate = new TreeMap<>();
+        List<List<Integer>> byAnnualSlot = new ArrayList<>(ANNUAL_SLOTS);
+        for (int slot = 0; slot < ANNUAL_SLOTS; slot++) {
+            byAnnualSlot.add(null);
+        }
+        List<Integer> others = new ArrayList<>();
+        for (int id = 0; id < this.rules.length; id++) {
+            Rule rule = this.rules[id];
+            if (rule.pattern() != null) {
+                patterns.add(rule.pattern());
+                patternRules.add(id);
+            } else if (rule.fromDay() != Integer.MIN_VALUE && (long) rule.toDay() - rule.fromDay() < MAX_TABULATED_DAYS) {
+                for (int day = rule.fromDay(); day <= rule.toDay(); day++) {
+                    byDate.computeIfAbsent(day, d -> new ArrayList<>()).add(id);
+                }
+            } else if (rule.fromSlot() >= 0) {
+                for (int slot = rule.fromSlot(); ; slot = (slot + 1) % ANNUAL_SLOTS) {
+                    if (byAnnualSlot.get(slot) == null) {
+                        byAnnualSlot.set(slot, new ArrayList<>());
+                    }
+                    byAnnualSlot.get(slot).add(id);
+                    if (slot == rule.toSlot()) {
+                        break;
+                    }
+                }
+            } else {
+                others.add(id);
+            }
+        }
+        this.names = new NameMatcher(patterns, patternRules);
+        this.dates = byDate.keySet().stream().mapToInt(Integer::intValue).toArray();
+        this.dateRules = byDate.values().stream().map(HolidayRules::toArray).toArray(int[][]::new);
+        // Left empty without annual rules, so classifying never needs the month and day
+        this.annualRules = byAnnualSlot.stream().allMatch(ids -> ids == null) ? new int[0][]
+                : byAnnualSlot.stream().map(ids -> ids == null ? null : toArray(ids)).toArray(int[][]::new);
+        this.otherRules = toArray(others);
+    }
+
+    /** Reads and compiles a rules file. */
+    public static HolidayRules load(Path file) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return parse(reader, file.getFileName().toString());
+        }
+    }
+
+    /**
+     * Parses and compiles rules in the format described above.
+     *
+     * @param sourceName names the rules in error messages, e.g. the file name
+     * @throws IOException if reading fails or a line is not a valid rule; the message names the line
+     */
+    public static HolidayRules parse(Reader in, String sourceName) throws IOException {
+        BufferedReader reader = in instanceof BufferedReader ? (BufferedReader) in : new BufferedReader(in);
+        List<Rule> rules = new ArrayList<>();
+        int lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            try {
+                List<String> tokens = tokenize(line);
+                if (!tokens.isEmpty()) {
+                    rules.add(parseRule(tokens));
+                }
+            } catch (IllegalArgumentException | DateTimeException e) {
+                throw new IOException("Invalid rule at line " + lineNumber + " of " + sourceName + ": " + e.getMessage(), e);
+            }
+        }
+        return new HolidayRules(rules);
+    }
+
+    /** The number of rules. */
+    public int size() {
+        return rules.length;
+    }
+
+    /**
+     * The type of the holiday named {@code name} on {@code epochDay} in {@code country}.
+     *
+     * @param country an ISO country code, or {@code null} if unknown, which matches no country condition
+     */
+    public HolidayType classify(String country, int epochDay, String name) {
+        int best = names.firstMatch(name, this, country, epochDay);
+        int i = Arrays.binarySearch(dates, epochDay);
+        if (i >= 0) {
+            best = firstMatch(dateRules[i], best, country, epochDay);
+        }
+        if (annualRules.length > 0) {
+            int[] annual = annualRules[annualSlot(LocalDate.ofEpochDay(epochDay))];
+            if (annual != null) {
+                best = firstMatch(annual, best, country, epochDay);
+            }
+        }
+        best = firstMatch(otherRules, best, country, epochDay);
+        return best == NO_MATCH ? HolidayType.REGULAR : rules[best].type();
+    }
+
+    /**
+     * Returns {@code holidays} with every holiday classified afresh as a holiday of
+     * {@code country}, or {@code holidays} itself if no type changes.
+     */
+    public HolidayIndex apply(String country, HolidayIndex holidays) {
+        HolidayIndex.Builder builder = HolidayIndex.builder();
+        boolean changed = false;
+        for (Holiday h : holidays.getAllHolidays()) {
+            HolidayType type = classify(country, h.getEpochDay(), h.getName());
+            if (type != h.getType()) {
+                changed = true;
+                builder.add(new Holiday(h.getEpochDay(), h.getName(), type));
+            } else {
+                builder.add(h);
+            }
+        }
+        return changed ? builder.build() : holidays;
+    }
+
+    /** The lowest rule id in {@code ids} below {@code best} whose conditions all hold, else {@code best}. */
+    private int firstMatch(int[] ids, int best, String country, int epochDay) {
+        for (int id : ids) {
+            if (id >= best) {
+                break;
+            }
+            if (rules[id].matches(country, epochDay)) {
+                return id;
+            }
+        }
+        return best;
+    }
+
+    private static int annualSlot(MonthDay day) {
+        return (day.getMonthValue() - 1) * 31 + day.getDayOfMonth() - 1;
+    }
+
+    private static int annualSlot(LocalDate date) {
+        return (date.getMonthValue() - 1) * 31 + date.getDayOfMonth() - 1;
+    }
+
+    private static int[] toArray(List<Integer> ids) {
+        return ids.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private static HolidayRules defaults() {
+        try {
+            return parse(new StringReader("work name=Christmas\nwork name=Thanksgiving\n"), "default rules");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** Splits a line into whitespace-separated tokens, honouring double quotes and {@code #} comments. */
+    private static List<String> tokenize(String line) {
+        List<String> tokens = new ArrayList<>();
+        StringBuilder token = new StringBuilder();
+        boolean inToken = false;
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    quoted = false;
+                } else {
+                    token.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+                inToken = true;
+            } else if (c == '#') {
+                break;
+            } else if (Character.isWhitespace(c)) {
+                if (inToken) {
+                    tokens.add(token.toString());
+                    token.setLength(0);
+                    inToken = false;
+                }
+            } else {
+                token.append(c);
+                inToken = true;
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quote");
+        }
+        if (inToken) {
+            tokens.add(token.toString());
+        }
+        return tokens;
+    }
+
+    private static Rule parseRule(List<String> tokens) {
+        HolidayType type = switch (tokens.get(0).toLowerCase(Locale.ROOT)) {
+            case "work" -> HolidayType.WORK;
+            case "regular" -> HolidayType.REGULAR;
+            default -> throw new IllegalArgumentException("Expected work or regular, found " + tokens.get(0));
+        };
+        String pattern = null;
+        Set<String> countries = null;
+        int fromDay = Integer.MIN_VALUE;
+        int toDay = Integer.MAX_VALUE;
+        int fromSlot = -1;
+        int toSlot = -1;
+        Set<String> seen = new HashSet<>();
+        for (String token : tokens.subList(1, tokens.size())) {
+            int eq = token.indexOf('=');
+            if (eq <= 0) {
+                throw new IllegalArgumentException("Expected key=value, found " + token);
+            }
+            String key = token.substring(0, eq);
+            String value = token.substring(eq + 1);
+            if (!seen.add(key)) {
+                throw new IllegalArgumentException("Duplicate " + key);
+            }
+            switch (key) {
+                case "name" -> {
+                    if (value.isEmpty()) {
+                        throw new IllegalArgumentException("Empty name");
+                    }
+                    pattern = lowerCase(value);
+                }
+                case "country" -> {
+                    countries = new HashSet<>();
+                    for (String country : value.split(",")) {
+                        if (!country.isBlank()) {
+                            countries.add(country.trim().toUpperCase(Locale.ROOT));
+                        }
+                    }
+                    if (countries.isEmpty()) {
+                        throw new IllegalArgumentException("Empty country list");
+                    }
+                }
+                case "date" -> {
+                    int dots = value.indexOf("..");
+                    String from = dots < 0 ? value : value.substring(0, dots);
+                    String to = dots < 0 ? value : value.substring(dots + 2);
+                    if (from.length() == 5 && to.length() == 5) {
+                        // Days of the year; a range may wrap over New Year
+                        fromSlot = annualSlot(MonthDay.parse("--" + from));
+                        toSlot = annualSlot(MonthDay.parse("--" + to));
+                    } else {
+                        fromDay = (int) LocalDate.parse(from).toEpochDay();
+                        toDay = (int) LocalDate.parse(to).toEpochDay();
+                        if (toDay < fromDay) {
+                            throw new IllegalArgumentException("Date range ends before it starts: " + value);
+                        }
+                    }
+                }
+                default -> throw new IllegalArgumentException("Unknown condition " + key);
+            }
+        }
+        return new Rule(type, pattern, countries, fromDay, toDay, fromSlot, toSlot);
+    }
+
+    /** Lower-cases one char at a time, exactly as names are lower-cased while matching. */
+    private static String lowerCase(String text) {
+        char[] chars = text.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = Character.toLowerCase(chars[i]);
+        }
+        return new String(chars);
+    }
+
+    /**
+     * One rule. Absolute date bounds are inclusive epoch days, {@code Integer.MIN_VALUE} and
+     * {@code MAX_VALUE} when absent; day-of-year bounds are inclusive slots, -1 when absent.
+     */
+    private record Rule(HolidayType type, String pattern, Set<String> countries,
+                        int fromDay, int toDay, int fromSlot, int toSlot) {
+
+        /** Whether the country and date conditions hold; the name is matched separately. */
+        boolean matches(String country, int epochDay) {
+            if (countries != null && (country == null || !countries.contains(country))) {
+                return false;
+            }
+            if (epochDay < fromDay || epochDay > toDay) {
+                return false;
+            }
+            if (fromSlot >= 0) {
+                int slot = annualSlot(LocalDate.ofEpochDay(epochDay));
+                return fromSlot <= toSlot ? slot >= fromSlot && slot <= toSlot : slot >= fromSlot || slot <= toSlot;
+            }
+            return true;
+        }
+    }
+
+    /**
+     * An Aho-Corasick automaton over the lower-cased name patterns, compiled into a dense
+     * transition table so each character of a name costs one lookup.
+     */
+    private static final class NameMatcher {
+        // Character classes: 0 for characters in no pattern, then one per distinct character
+        private final int[] asciiClasses = new int[128];
+        private final char[] wideChars;
+        private final int[] wideClasses;
+        private final int classCount;
+        private final int[] next;
+        // Per state, the ids of the rules whose pattern ends there, ascending; null if none
+        private final int[][] outputs;
+
+        NameMatcher(List<String> patterns, List<Integer> patternRules) {
+            TreeSet<Character> alphabet = new TreeSet<>();
+            for (String pattern : patterns) {
+                for (int i = 0; i < pattern.length(); i++) {
+                    alphabet.add(pattern.charAt(i));
+                }
+            }
+            List<Character> wide = new ArrayList<>();
+            int classes = 1;
+            for (char c : alphabet) {
+                if (c < 128) {
+                    asciiClasses[c] = classes++;
+                } else {
+                    wide.add(c);
+                }
+            }
+            wideChars = new char[wide.size()];
+            wideClasses = new int[wide.size()];
+            for (int i = 0; i < wide.size(); i++) {
+                wideChars[i] = wide.get(i);
+                wideClasses[i] = classes++;
+            }
+            classCount = classes;
+
+            // Build the trie, with -1 for missing edges
+            int[] trie = new int[classCount * 16];
+            Arrays.fill(trie, -1);
+            List<Set<Integer>> ends = new ArrayList<>();
+            ends.add(new TreeSet<>());
+            int states = 1;
+            for (int p = 0; p < patterns.size(); p++) {
+                String pattern = patterns.get(p);
+                int state = 0;
+                for (int i = 0; i < pattern.length(); i++) {
+                    int edge = state * classCount + classOf(pattern.charAt(i));
+                    if (trie[edge] < 0) {
+                        if ((states + 1) * classCount > trie.length) {
+                            int old = trie.length;
+                            trie = Arrays.copyOf(trie, old * 2);
+                            Arrays.fill(trie, old, trie.length, -1);
+                        }
+                        trie[edge] = states++;
+                        ends.add(new TreeSet<>());
+                    }
+                    state = trie[edge];
+                }
+                ends.get(state).add(patternRules.get(p));
+            }
+
+            // Breadth-first, fill in failure transitions so the table becomes a complete DFA
+            next = new int[states * classCount];
+            int[] fail = new int[states];
+            ArrayDeque<Integer> queue = new ArrayDeque<>();
+            for (int c = 0; c < classCount; c++) {
+                int child = trie[c];
+                next[c] = child > 0 ? child : 0;
+                if (child > 0) {
+                    fail[child] = 0;
+                    queue.add(child);
+                }
+            }
+            while (!queue.isEmpty()) {
+                int state = queue.poll();
+                ends.get(state).addAll(ends.get(fail[state]));
+                for (int c = 0; c < classCount; c++) {
+                    int child = trie[state * classCount + c];
+                    if (child > 0) {
+                        fail[child] = next[fail[state] * classCount + c];
+                        next[state * classCount + c] = child;
+                        queue.add(child);
+                    } else {
+                        next[state * classCount + c] = next[fail[state] * classCount + c];
+                    }
+                }
+            }
+            outputs = new int[states][];
+            for (int s = 0; s < states; s++) {
+                if (!ends.get(s).isEmpty()) {
+                    outputs[s] = toArray(new ArrayList<>(ends.get(s)));
+                }
+            }
+        }
+
+        /** The lowest id of a rule whose pattern occurs in {@code name} and whose other conditions hold. */
+        int firstMatch(String name, HolidayRules rules, String country, int epochDay) {
+            int best = NO_MATCH;
+            if (outputs.length == 1) {
+                return best;
+            }
+            int state = 0;
+            for (int i = 0; i < name.length(); i++) {
+                state = next[state * classCount + classOf(Character.toLowerCase(name.charAt(i)))];
+                int[] ids = outputs[state];
+                if (ids != null) {
+                    best = rules.firstMatch(ids, best, country, epochDay);
+                }
+            }
+            return best;
+        }
+
+        private int classOf(char c) {
+            if (c < 128) {
+                return asciiClasses[c];
+            }
+            int i = Arrays.binarySearch(wideChars, c);
+            return i >= 0 ? wideClasses[i] : 0;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.calendarwidget.service;
+
+import com.example.calendarwidget.metrics.Counter;
+import com.example.calendarwidget.metrics.Gauge;
+import com.example.calendarwidget.metrics.Histogram;
+import com.example.calendarwidget.metrics.MetricsRegistry;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A rules file that is compiled again whenever it changes, so classification rules can be edited
+ * while the application runs.
+ *
+ * <p>The file's modification time and size are polled on a daemon thread; polling also notices
+ * editors that save by replacing the file. A change is compiled into new {@link HolidayRules},
+ * which are published through a volatile field and handed to the {@link Listener}. A file that
+ * is missing or does not compile is logged, and the rules in use are kept.
+ */
+public class HolidayRulesFile {
+    private static final Logger logger = Logger.getLogger(HolidayRulesFile.class.getName());
+    private static final Histogram compileLatency = MetricsRegistry.getDefault().histogram("rules.compile.latency");
+    private static final Counter reloads = MetricsRegistry.getDefault().counter("rules.reloads");
+    private static final Counter failures = MetricsRegistry.getDefault().counter("rules.errors");
+    private static final Gauge ruleCount = MetricsRegistry.getDefault().gauge("rules.count");
+    public static final Duration DEFAULT_POLL_INTERVAL = Duration.ofSeconds(2);
+
+    /** Called on the polling thread after changed rules have been published. */
+    @FunctionalInterface
+    public interface Listener {
+        void rulesChanged(HolidayRules rules);
+    }
+
+    private final Path file;
+    private final Listener listener;
+    private volatile HolidayRules rules = HolidayRules.DEFAULT;
+    // Guarded by this
+    private FileTime lastModified;
+    private long lastSize = -1;
+    private ScheduledExecutorService scheduler;
+
+    public HolidayRulesFile(Path file, Listener listener) {
+        this.file = file;
+        this.listener = listener;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    /** The rules in use: the last version of the file that compiled, {@link HolidayRules#DEFAULT} before that. */
+    public HolidayRules getRules() {
+        return rules;
+    }
+
+    /**
+     * Compiles the file if it changed since last checked, publishes the result and notifies the
+     * listener on the calling thread. Returns whether new rules were published.
+     */
+    public boolean checkForChanges() {
+        HolidayRules compiled;
+        synchronized (this) {
+            BasicFileAttributes attributes;
+            try {
+                attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            } catch (IOException e) {
+                if (lastSize != -2) {
+                    lastSize = -2;
+                    failures.increment();
+                    logger.warning("Cannot read holiday rules " + file + ", keeping the rules in use: " + e);
+                }
+                return false;
+            }
+            if (attributes.lastModifiedTime().equals(lastModified) && attributes.size() == lastSize) {
+                return false;
+            }
+            lastModified = attributes.lastModifiedTime();
+            lastSize = attributes.size();
+            long start = System.nanoTime();
+            try {
+                compiled = HolidayRules.load(file);
+            } catch (IOException e) {
+                failures.increment();
+                logger.log(Level.WARNING, "Holiday rules " + file + " not applied, keeping the rules in use", e);
+                return false;
+            }
+            compileLatency.recordSince(start);
+            rules = compiled;
+        }
+        reloads.increment();
+        ruleCount.set(compiled.size());
+        logger.info("Loaded " + compiled.size() + " holiday rules from " + file);
+        listener.rulesChanged(compiled);
+        return true;
+    }
+
+    /** Checks the file for changes every {@code interval} on a daemon thread. */
+    public synchronized void start(Duration interval) {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "holiday-rules");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long millis = interval.toMillis();
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                checkForChanges();
+            } catch (RuntimeException e) {
+                logger.log(Level.SEVERE, "Applying holiday rules failed", e);
+            }
+        }, millis, millis, TimeUnit.MILLISECONDS);
+        logger.info("Watching holiday rules " + file + " every " + interval);
+    }
+
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+}
@@ -1,73 +1,526 @@
 package com.example.calendarwidget.service;
 
+import com.example.calendarwidget.metrics.Counter;
+import com.example.calendarwidget.metrics.Gauge;
+import com.example.calendarwidget.metrics.Histogram;
+import com.example.calendarwidget.metrics.MetricsRegistry;
 import com.example.calendarwidget.model.Holiday;
-import com.google.gson.Gson;
-import com.google.gson.reflect.TypeToken;
+import com.example.calendarwidget.model.HolidayIndex;
+import com.example.calendarwidget.model.HolidayType;
 
+import java.io.FilterInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
-public class HolidayService {
+/**
+ * {@link HolidaySource} backed by the Nager.Date public holiday API, with per-year concurrent
+ * fetching and an optional on-disk cache.
+ */
+public class HolidayService implements HolidaySource {
     private static final Logger logger = Logger.getLogger(HolidayService.class.getName());
+    private static final MetricsRegistry metrics = MetricsRegistry.getDefault();
+    private static final Histogram fetchLatency = metrics.histogram("holiday.fetch.latency");
+    private static final Histogram parseLatency = metrics.histogram("holiday.parse.latency");
+    private static final Counter fetchBytes = metrics.counter("holiday.fetch.bytes");
+    // Fixed set of gauges describing the latest fetch; years loaded on demand and overlaid
+    // countries would otherwise register new metrics without bound
+    private static final Gauge lastYear = metrics.gauge("holiday.fetch.last.year");
+    private static final Gauge lastStatus = metrics.gauge("holiday.fetch.last.status");
+    private static final Gauge lastMillis = metrics.gauge("holiday.fetch.last.millis");
+    private static final Gauge lastBytes = metrics.gauge("holiday.fetch.last.bytes");
+    public static final String DEFAULT_BASE_URL = "https://date.nager.at/api/v3/PublicHolidays";
+    public static final String DEFAULT_COUNTRY = "US";
+    public static final Duration DEFAULT_REQUEST_TIMEOUT = Duration.ofSeconds(10);
+    public static final int DEFAULT_MAX_IN_FLIGHT = 4;
+    // Closes response bodies still streaming at their request's deadline; the client's own
+    // timeout only covers the wait for the response headers
+    private static final ScheduledExecutorService bodyDeadlines = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "holiday-fetch-deadline");
+        thread.setDaemon(true);
+        return thread;
+    });
+
     private final HttpClient httpClient;
-    private final Gson gson;
+    private final String baseUrl;
+    private final String countryCode;
+    private final Duration requestTimeout;
+    private final Semaphore inFlight;
+    private final HolidayCache cache;
+    private volatile Supplier<HolidayRules> rules = () -> HolidayRules.DEFAULT;
 
     public HolidayService() {
-        this.httpClient = HttpClient.newHttpClient();
-        this.gson = new Gson();
-        logger.info("HolidayService initialized");
+        this(DEFAULT_BASE_URL, DEFAULT_COUNTRY, DEFAULT_REQUEST_TIMEOUT, DEFAULT_MAX_IN_FLIGHT, HolidayCache.defaultCache());
+    }
+
+    public HolidayService(String baseUrl, String countryCode, Duration requestTimeout, int maxInFlight) {
+        this(baseUrl, countryCode, requestTimeout, maxInFlight, null);
     }
 
-    public Map<LocalDate, List<Holiday>> loadHolidays() {
-        logger.info("Starting holiday data loading");
-        Map<LocalDate, List<Holiday>> holidays = new HashMap<>();
+    /**
+     * @param cache on-disk response cache, or {@code null} to always go to the network
+     */
+    public HolidayService(String baseUrl, String countryCode, Duration requestTimeout, int maxInFlight, HolidayCache cache) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("maxInFlight must be at least 1: " + maxInFlight);
+        }
+        this.httpClient = HttpClient.newBuilder().connectTimeout(requestTimeout).build();
+        this.baseUrl = baseUrl;
+        this.countryCode = countryCode;
+        this.requestTimeout = requestTimeout;
+        this.inFlight = new Semaphore(maxInFlight);
+        this.cache = cache;
+        logger.info("HolidayService initialized (max in-flight requests: " + maxInFlight + ", cache " + (cache != null ? "enabled" : "disabled") + ")");
+    }
+
+    @Override
+    public String getName() {
+        return "nager:" + countryCode;
+    }
+
+    /**
+     * Sets where the rules that classify fetched holidays come from. Asked once per year parsed,
+     * so a supplier backed by a {@link HolidayRulesFile} takes effect from the next parse.
+     */
+    public void setRules(Supplier<HolidayRules> rules) {
+        this.rules = rules;
+    }
+
+    /**
+     * Loads {@code fromYear..toYear} concurrently like {@link #loadHolidays(int, int)}, but fails
+     * instead of leaving out a year that can be neither fetched nor read from the cache. Callers
+     * that remember what they have loaded, such as {@link HolidayYearLoader}, can then try again.
+     */
+    @Override
+    public HolidayIndex load(int fromYear, int toYear) throws IOException {
+        if (fromYear == toYear) {
+            return loadYear(fromYear);
+        }
+        List<Future<HolidayIndex>> pending = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int year = fromYear; year <= toYear; year++) {
+                final int y = year;
+                pending.add(executor.submit(() -> loadYear(y)));
+            }
+            HolidayIndex.Builder builder = HolidayIndex.builder();
+            try {
+                for (Future<HolidayIndex> future : pending) {
+                    builder.addAll(future.get());
+                }
+            } catch (ExecutionException e) {
+                // One failed year fails the load, so stop the others rather than wait for them
+                pending.forEach(future -> future.cancel(true));
+                if (e.getCause() instanceof IOException io) {
+                    throw io;
+                }
+                throw new IOException("Unexpected error while loading holidays", e.getCause());
+            } catch (InterruptedException e) {
+                pending.forEach(future -> future.cancel(true));
+                Thread.currentThread().interrupt(); // Restore interrupted status
+                throw new InterruptedIOException("Interrupted while loading holidays");
+            }
+            return builder.build();
+        }
+    }
+
+    public HolidayIndex loadHolidays() {
         int currentYear = LocalDate.now().getYear();
-        for (int year = currentYear - 1; year <= currentYear + 1; year++) {
+        return loadHolidays(currentYear - 1, currentYear + 1);
+    }
+
+    /**
+     * Receives each year's holidays as soon as that year has been loaded. Called on the loading
+     * thread, in completion order rather than year order.
+     */
+    @FunctionalInterface
+    public interface YearListener {
+        void yearLoaded(int year, HolidayIndex holidays);
+    }
+
+    public HolidayIndex loadHolidays(int fromYear, int toYear) {
+        return loadHolidays(fromYear, toYear, (year, holidays) -> {});
+    }
+
+    /**
+     * Fetches every year in {@code fromYear..toYear} concurrently, one virtual thread per year,
+     * with at most {@code maxInFlight} requests open at a time. Years with a fresh cache entry are
+     * served from disk; stale entries are revalidated and used as a fallback if the network fails.
+     * A year that fails or times out is logged and skipped; the remaining years are still merged.
+     * {@code listener} is notified of each year as it completes, before the merged index is built.
+     */
+    public HolidayIndex loadHolidays(int fromYear, int toYear, YearListener listener) {
+        logger.info("Starting holiday data loading for years " + fromYear + "-" + toYear);
+        long start = System.nanoTime();
+        Map<Integer, Future<HolidayIndex>> pending = new LinkedHashMap<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int year = fromYear; year <= toYear; year++) {
+                final int y = year;
+                pending.put(y, executor.submit(() -> {
+                    HolidayIndex yearHolidays = fetchYear(y);
+                    try {
+                        listener.yearLoaded(y, yearHolidays);
+                    } catch (Exception e) {
+                        logger.log(Level.SEVERE, "Year listener failed for year " + y, e);
+                    }
+                    return yearHolidays;
+                }));
+            }
+
+            HolidayIndex.Builder builder = HolidayIndex.builder();
+            for (Map.Entry<Integer, Future<HolidayIndex>> entry : pending.entrySet()) {
+                int year = entry.getKey();
+                try {
+                    builder.addAll(entry.getValue().get());
+                } catch (ExecutionException e) {
+                    logger.log(Level.SEVERE, "Unexpected error while processing holidays for year " + year, e.getCause());
+                } catch (InterruptedException e) {
+                    logger.log(Level.SEVERE, "Interrupted while waiting for holidays for year " + year, e);
+                    Thread.currentThread().interrupt(); // Restore interrupted status
+                    break;
+                }
+            }
+            HolidayIndex holidays = builder.build();
+            long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+            logger.info("Holiday loading completed in " + elapsedMs + " ms. Total holiday dates loaded: " + holidays.size());
+            return holidays;
+        }
+    }
+
+    /**
+     * Builds the holiday index purely from the on-disk cache, ignoring entry age. Years that are
+     * not cached are simply absent. Intended for instant startup before {@link #revalidate}.
+     */
+    public HolidayIndex loadCachedHolidays(int fromYear, int toYear) {
+        if (cache == null) {
+            return HolidayIndex.EMPTY;
+        }
+        HolidayIndex.Builder builder = HolidayIndex.builder();
+        long start = System.nanoTime();
+        int cachedYears = 0;
+        for (int year = fromYear; year <= toYear; year++) {
+            HolidayCache.Entry cached = cache.get(countryCode, year);
+            if (cached != null) {
+                cachedYears++;
+                builder.addAll(readCached(cached, year));
+            }
+        }
+        HolidayIndex holidays = builder.build();
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        logger.info("Loaded " + cachedYears + " of " + (toYear - fromYear + 1) + " years from cache in " + elapsedMs
+                + " ms (hits: " + cache.getHits() + ", misses: " + cache.getMisses() + ")");
+        return holidays;
+    }
+
+    /**
+     * Revalidates every stale or missing year with a conditional request and returns the years
+     * whose content actually changed. Fresh cache entries are not contacted at all.
+     */
+    public Set<Integer> revalidate(int fromYear, int toYear) {
+        Set<Integer> changed = new TreeSet<>();
+        if (cache == null) {
+            return changed;
+        }
+        long start = System.nanoTime();
+        Map<Integer, Future<YearResult>> pending = new LinkedHashMap<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int year = fromYear; year <= toYear; year++) {
+                final int y = year;
+                HolidayCache.Entry cached = cache.get(countryCode, y);
+                if (cached != null && cache.isFresh(cached)) {
+                    continue;
+                }
+                pending.put(y, executor.submit(() -> {
+                    try {
+                        return fetchAndParse(y, cached);
+                    } catch (IOException e) {
+                        return null; // Logged by fetchAndParse; the cached copy stays in use
+                    }
+                }));
+            }
+            for (Map.Entry<Integer, Future<YearResult>> entry : pending.entrySet()) {
+                try {
+                    YearResult result = entry.getValue().get();
+                    if (result != null && result.changed()) {
+                        changed.add(entry.getKey());
+                    }
+                } catch (ExecutionException e) {
+                    logger.log(Level.SEVERE, "Unexpected error while revalidating year " + entry.getKey(), e.getCause());
+                } catch (InterruptedException e) {
+                    logger.log(Level.SEVERE, "Interrupted while revalidating year " + entry.getKey(), e);
+                    Thread.currentThread().interrupt(); // Restore interrupted status
+                    break;
+                }
+            }
+        }
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        logger.info("Revalidated " + pending.size() + " stale years in " + elapsedMs + " ms, changed: " + changed);
+        return changed;
+    }
+
+    /**
+     * Fetches and categorises a single year into its own index. Network and HTTP failures are
+     * logged and yield the stale cached copy if there is one, otherwise an empty index, so that
+     * one bad year never aborts the whole load.
+     */
+    HolidayIndex fetchYear(int year) {
+        try {
+            return loadYear(year);
+        } catch (IOException e) {
+            return HolidayIndex.EMPTY; // Logged where it failed
+        }
+    }
+
+    /**
+     * Loads a single year: from a fresh cache entry, otherwise from the network, falling back to
+     * a stale cache entry if the fetch fails. Unlike {@link #loadHolidays}, a year that cannot be
+     * obtained at all throws instead of coming back empty, so callers that keep what they load
+     * can tell a failure from a year without holidays.
+     *
+     * @throws IOException if the fetch failed, timed out or returned an error status and there
+     *                     is no readable cached copy
+     */
+    public HolidayIndex loadYear(int year) throws IOException {
+        HolidayCache.Entry cached = cache != null ? cache.get(countryCode, year) : null;
+        if (cached != null && cache.isFresh(cached)) {
+            return readCached(cached, year);
+        }
+        try {
+            return fetchAndParse(year, cached).holidays();
+        } catch (IOException e) {
+            if (cached == null) {
+                throw e;
+            }
+            logger.warning("Using stale cached holidays for year " + year);
             try {
-                String url = "https://date.nager.at/api/v3/PublicHolidays/" + year + "/US";
-                logger.fine("Fetching holidays for year: " + year + " from URL: " + url);
-                HttpRequest request = HttpRequest.newBuilder().uri(URI.create(url)).build();
-                HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+                return parseCached(cached, year);
+            } catch (IOException | RuntimeException cacheFailure) {
+                e.addSuppressed(cacheFailure);
+                throw e;
+            }
+        }
+    }
+
+    /** An HTTP status other than 200, or 304 for a cached year. */
+    private static final class HttpStatusException extends IOException {
+        HttpStatusException(String message) {
+            super(message);
+        }
+    }
 
+    /**
+     * Performs the HTTP request for a year, conditional on {@code cached} when present, and
+     * streams the body straight into an index while copying it to the cache. The cache entry is
+     * only replaced once the body has parsed successfully. The body must arrive within the request
+     * timeout too: a body still streaming then is closed, freeing its in-flight slot. Failures are
+     * logged and counted here, then thrown.
+     */
+    private YearResult fetchAndParse(int year, HolidayCache.Entry cached) throws IOException {
+        String url = baseUrl + "/" + year + "/" + countryCode;
+        try {
+            inFlight.acquire();
+        } catch (InterruptedException e) {
+            logger.log(Level.SEVERE, "Interrupted while waiting to fetch holidays for year " + year, e);
+            Thread.currentThread().interrupt(); // Restore interrupted status
+            throw new InterruptedIOException("Interrupted while waiting to fetch holidays for year " + year);
+        }
+        AtomicBoolean bodyTimedOut = new AtomicBoolean();
+        ScheduledFuture<?> deadline = null;
+        try {
+            logger.fine(() -> "Fetching holidays for year: " + year + " from URL: " + url);
+            long start = System.nanoTime();
+            HttpRequest.Builder builder = HttpRequest.newBuilder().uri(URI.create(url)).timeout(requestTimeout);
+            if (cached != null && cached.getEtag() != null) {
+                builder.header("If-None-Match", cached.getEtag());
+            }
+            if (cached != null && cached.getLastModified() != null) {
+                builder.header("If-Modified-Since", cached.getLastModified());
+            }
+            HttpResponse<InputStream> response = httpClient.send(builder.build(), HttpResponse.BodyHandlers.ofInputStream());
+            metrics.counter("holiday.fetch.status." + response.statusCode()).increment();
+            lastYear.set(year);
+            lastStatus.set(response.statusCode());
+
+            // The deadline closes the stream from its own thread; the resource block closes it here
+            InputStream stream = response.body();
+            try (InputStream body = stream) {
+                long remaining = requestTimeout.toNanos() - (System.nanoTime() - start);
+                deadline = bodyDeadlines.schedule(() -> {
+                    bodyTimedOut.set(true);
+                    try {
+                        stream.close();
+                    } catch (IOException e) {
+                        logger.log(Level.FINE, "Failed to close stalled response body for year " + year, e);
+                    }
+                }, Math.max(0, remaining), TimeUnit.NANOSECONDS);
+                if (response.statusCode() == 304 && cached != null) {
+                    recordFetch(start, 0);
+                    logger.info("Holidays for year " + year + " not modified ("
+                            + (System.nanoTime() - start) / 1_000_000 + " ms)");
+                    cache.touch(cached);
+                    return new YearResult(readCached(cached, year), false);
+                }
                 if (response.statusCode() != 200) {
+                    recordFetch(start, 0);
                     logger.warning("Failed to fetch holidays for year " + year + ". HTTP status: " + response.statusCode());
-                    continue;
+                    throw new HttpStatusException("HTTP status " + response.statusCode() + " fetching holidays for year " + year);
                 }
 
-                List<Holiday> holidayList = gson.fromJson(response.body(), new TypeToken<List<Holiday>>(){}.getType());
-                logger.info("Fetched " + holidayList.size() + " holidays for year " + year);
-
-                for (Holiday h : holidayList) {
-                    h.setType("regular");
-                    logger.fine("Processing holiday: " + h.getName() + " on " + h.getDate());
-                    // Example: mark some as work holidays
-                    if (h.getName().contains("Christmas") || h.getName().contains("Thanksgiving")) {
-                        h.setType("work");
-                        logger.fine("Marked as work holiday: " + h.getName());
+                MessageDigest digest = MessageDigest.getInstance("SHA-256");
+                CountingInputStream counted = new CountingInputStream(body);
+                InputStream in = new DigestInputStream(counted, digest);
+                HolidayCache.PendingBody pending = cache != null ? cache.begin(countryCode, year) : null;
+                if (pending != null) {
+                    in = pending.tee(in);
+                }
+                HolidayIndex holidays;
+                try {
+                    holidays = parseHolidays(in, year);
+                } catch (IOException | RuntimeException e) {
+                    if (pending != null) {
+                        pending.abort();
                     }
-                    LocalDate date = LocalDate.parse(h.getDate());
-                    holidays.computeIfAbsent(date, k -> new ArrayList<>()).add(h);
+                    throw e;
                 }
-            } catch (IOException e) {
-                logger.log(Level.SEVERE, "IO error while fetching holidays for year " + year, e);
-            } catch (InterruptedException e) {
-                logger.log(Level.SEVERE, "Interrupted while fetching holidays for year " + year, e);
-                Thread.currentThread().interrupt(); // Restore interrupted status
-            } catch (Exception e) {
-                logger.log(Level.SEVERE, "Unexpected error while processing holidays for year " + year, e);
+                String sha256 = HexFormat.of().formatHex(digest.digest());
+                boolean changed = cached == null || !sha256.equals(cached.getSha256());
+                if (pending != null) {
+                    pending.commit(response.headers().firstValue("ETag").orElse(null),
+                            response.headers().firstValue("Last-Modified").orElse(null),
+                            sha256);
+                }
+                recordFetch(start, counted.count);
+                logger.info("Downloaded " + counted.count + " bytes of holidays for year " + year
+                        + " (" + (System.nanoTime() - start) / 1_000_000 + " ms)");
+                return new YearResult(holidays, changed);
             }
+        } catch (HttpStatusException e) {
+            throw e;
+        } catch (HttpTimeoutException e) {
+            metrics.counter("holiday.fetch.timeouts").increment();
+            logger.warning("Timed out after " + requestTimeout.toMillis() + " ms fetching holidays for year " + year);
+            throw e;
+        } catch (IOException e) {
+            if (bodyTimedOut.get()) {
+                metrics.counter("holiday.fetch.timeouts").increment();
+                logger.warning("Response body for year " + year + " not received within "
+                        + requestTimeout.toMillis() + " ms, giving up");
+                throw new HttpTimeoutException("Response body for year " + year + " not received within "
+                        + requestTimeout.toMillis() + " ms");
+            }
+            metrics.counter("holiday.fetch.errors").increment();
+            logger.log(Level.SEVERE, "IO error while fetching holidays for year " + year, e);
+            throw e;
+        } catch (InterruptedException e) {
+            logger.log(Level.SEVERE, "Interrupted while fetching holidays for year " + year, e);
+            Thread.currentThread().interrupt(); // Restore interrupted status
+            throw new InterruptedIOException("Interrupted while fetching holidays for year " + year);
+        } catch (Exception e) {
+            logger.log(Level.SEVERE, "Unexpected error while fetching holidays for year " + year, e);
+            throw new IOException("Unexpected error while fetching holidays for year " + year, e);
+        } finally {
+            if (deadline != null) {
+                deadline.cancel(false);
+            }
+            inFlight.release();
+        }
+    }
+
+    private HolidayIndex readCached(HolidayCache.Entry cached, int year) {
+        try {
+            return parseCached(cached, year);
+        } catch (IOException | RuntimeException e) {
+            logger.log(Level.SEVERE, "Failed to read cached holidays for year " + year, e);
+            return HolidayIndex.EMPTY;
+        }
+    }
+
+    private HolidayIndex parseCached(HolidayCache.Entry cached, int year) throws IOException {
+        try (InputStream in = cache.openBody(cached)) {
+            return parseHolidays(in, year);
         }
-        logger.info("Holiday loading completed. Total holiday dates loaded: " + holidays.size());
+    }
+
+    HolidayIndex parseHolidays(InputStream in, int year) throws IOException {
+        long start = System.nanoTime();
+        HolidayIndex.Builder builder = HolidayIndex.builder();
+        // Checked once per body, so the per-holiday trace costs nothing while FINE is off
+        boolean trace = logger.isLoggable(Level.FINE);
+        HolidayRules current = rules.get();
+        int count = HolidayJsonReader.read(in, (epochDay, date, name) -> {
+            HolidayType type = current.classify(countryCode, epochDay, name);
+            if (trace) {
+                logger.fine("Processing holiday: " + name + " on " + date + " as " + type);
+            }
+            builder.add(new Holiday(epochDay, name, type));
+        });
+        HolidayIndex holidays = builder.build();
+        parseLatency.recordSince(start);
+        logger.info("Fetched " + count + " holidays for year " + year);
         return holidays;
     }
-}
\ No newline at end of file
+
+    private void recordFetch(long startNanos, long bytes) {
+        long elapsed = System.nanoTime() - startNanos;
+        fetchLatency.record(elapsed);
+        fetchBytes.add(bytes);
+        lastMillis.set(elapsed / 1_000_000);
+        lastBytes.set(bytes);
+    }
+
+    /** Counts the bytes read through it, so download sizes are known without Content-Length. */
+    private static final class CountingInputStream extends FilterInputStream {
+        private long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int off, int len) throws IOException {
+            int n = super.read(buffer, off, len);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+    }
+
+    private record YearResult(HolidayIndex holidays, boolean changed) {}
+}
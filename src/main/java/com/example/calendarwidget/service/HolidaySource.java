@@ -0,0 +1,24 @@
+package com.example.calendarwidget.service;
+
+import com.example.calendarwidget.model.HolidayIndex;
+
+import java.io.IOException;
+
+/**
+ * A provider of holidays, such as a public holiday API or an exported company calendar.
+ * Implementations must be safe to call from any thread; {@link CompositeHolidaySource} queries
+ * several of them at once.
+ */
+public interface HolidaySource {
+
+    /** Short name used in logs and metrics, e.g. {@code nager:US} or a file name. */
+    String getName();
+
+    /**
+     * Loads the holidays in {@code fromYear..toYear} (both inclusive). Holidays outside that range
+     * may be omitted.
+     *
+     * @throws IOException if the source cannot be read at all
+     */
+    HolidayIndex load(int fromYear, int toYear) throws IOException;
+}
@@ -0,0 +1,241 @@
+package com.example.calendarwidget.service;
+
+import com.example.calendarwidget.metrics.Counter;
+import com.example.calendarwidget.metrics.Gauge;
+import com.example.calendarwidget.metrics.MetricsRegistry;
+import com.example.calendarwidget.model.HolidayIndex;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Holidays of many countries, held as immutable shards of one country and year.
+ *
+ * <p>A shard is loaded the first time it is asked for, and concurrent requests for the same
+ * missing shard share one load. Shards are {@link HolidayIndex}es and therefore read-only, so
+ * every overlay that needs a shard gets the same instance. The total estimated size of the held
+ * shards is kept within a byte budget by evicting the least recently used ones; a single shard
+ * larger than the budget is still held until the next one arrives.
+ */
+public class HolidayStore {
+    private static final Logger logger = Logger.getLogger(HolidayStore.class.getName());
+    private static final Counter hitCounter = MetricsRegistry.getDefault().counter("holiday.store.hits");
+    private static final Counter missCounter = MetricsRegistry.getDefault().counter("holiday.store.misses");
+    private static final Counter evictionCounter = MetricsRegistry.getDefault().counter("holiday.store.evictions");
+    private static final Gauge bytesGauge = MetricsRegistry.getDefault().gauge("holiday.store.bytes");
+    public static final long DEFAULT_MAX_BYTES = 8L * 1024 * 1024;
+
+    /** Loads the holidays of one country and year. */
+    @FunctionalInterface
+    public interface ShardLoader {
+        HolidayIndex load(String country, int year) throws IOException;
+    }
+
+    private record Shard(String country, int year) {}
+
+    private final ShardLoader loader;
+    private final long maxBytes;
+    private final Map<Shard, HolidayIndex> shards = new LinkedHashMap<>(64, 0.75f, true);
+    private final Map<Shard, CompletableFuture<HolidayIndex>> loading = new HashMap<>();
+    private long bytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public HolidayStore(ShardLoader loader, long maxBytes) {
+        this.loader = loader;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * A store of public holidays fetched on demand through one {@link HolidayService} per
+     * country, all sharing {@code cache}.
+     */
+    public static HolidayStore publicHolidays(HolidayCache cache, long maxBytes) {
+        return publicHolidays(cache, maxBytes, () -> HolidayRules.DEFAULT);
+    }
+
+    /**
+     * As {@link #publicHolidays(HolidayCache, long)}, classifying holidays by {@code rules}. A
+     * year that cannot be fetched fails its shard rather than being held as an empty one.
+     */
+    public static HolidayStore publicHolidays(HolidayCache cache, long maxBytes, Supplier<HolidayRules> rules) {
+        return publicHolidays(HolidayService.DEFAULT_BASE_URL, cache, maxBytes, rules);
+    }
+
+    static HolidayStore publicHolidays(String baseUrl, HolidayCache cache, long maxBytes, Supplier<HolidayRules> rules) {
+        Map<String, HolidayService> services = new ConcurrentHashMap<>();
+        return new HolidayStore((country, year) -> services.computeIfAbsent(country, c -> {
+            HolidayService service = new HolidayService(baseUrl, c,
+                    HolidayService.DEFAULT_REQUEST_TIMEOUT, HolidayService.DEFAULT_MAX_IN_FLIGHT, cache);
+            service.setRules(rules);
+            return service;
+        }).loadYear(year), maxBytes);
+    }
+
+    /**
+     * Returns the holidays of {@code country} in {@code year}, loading them on first use. A
+     * failed load is not cached, so the next request tries again.
+     */
+    public HolidayIndex getShard(String country, int year) throws IOException {
+        Shard key = new Shard(country, year);
+        CompletableFuture<HolidayIndex> pending;
+        boolean owner = false;
+        synchronized (this) {
+            HolidayIndex shard = shards.get(key);
+            if (shard != null) {
+                hits++;
+                hitCounter.increment();
+                return shard;
+            }
+            misses++;
+            missCounter.increment();
+            pending = loading.get(key);
+            if (pending == null) {
+                pending = new CompletableFuture<>();
+                loading.put(key, pending);
+                owner = true;
+            }
+        }
+        if (!owner) {
+            return await(pending, key);
+        }
+        try {
+            HolidayIndex shard = loader.load(country, year);
+            store(key, shard);
+            pending.complete(shard);
+            return shard;
+        } catch (IOException | RuntimeException e) {
+            pending.completeExceptionally(e);
+            throw e;
+        } finally {
+            synchronized (this) {
+                loading.remove(key);
+            }
+        }
+    }
+
+    /**
+     * Merges the holidays of {@code countries} over {@code fromYear..toYear}, earlier countries
+     * winning duplicate holidays as in {@link CompositeHolidaySource}. Missing shards are loaded
+     * concurrently, one virtual thread each; shards that fail to load are logged and left out.
+     */
+    public HolidayIndex overlay(List<String> countries, int fromYear, int toYear) {
+        List<Future<HolidayIndex>> pending = new ArrayList<>();
+        List<Shard> keys = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (String country : countries) {
+                for (int year = fromYear; year <= toYear; year++) {
+                    final int y = year;
+                    keys.add(new Shard(country, y));
+                    pending.add(executor.submit(() -> getShard(country, y)));
+                }
+            }
+            List<HolidayIndex> loaded = new ArrayList<>(pending.size());
+            for (int i = 0; i < pending.size(); i++) {
+                try {
+                    loaded.add(pending.get(i).get());
+                } catch (ExecutionException e) {
+                    logger.log(Level.WARNING, "Failed to load holidays for " + keys.get(i), e.getCause());
+                } catch (InterruptedException e) {
+                    logger.log(Level.SEVERE, "Interrupted while loading holidays for " + keys.get(i), e);
+                    Thread.currentThread().interrupt(); // Restore interrupted status
+                    break;
+                }
+            }
+            return CompositeHolidaySource.merge(loaded);
+        }
+    }
+
+    /**
+     * Classifies every held shard afresh by {@code rules}, e.g. after the rules file changed, so
+     * the shards need not be loaded again. Only for stores of public holidays, whose types come
+     * from the rules alone.
+     */
+    public synchronized void reclassify(HolidayRules rules) {
+        long start = System.nanoTime();
+        int changed = 0;
+        for (Map.Entry<Shard, HolidayIndex> entry : shards.entrySet()) {
+            HolidayIndex shard = entry.getValue();
+            HolidayIndex reclassified = rules.apply(entry.getKey().country(), shard);
+            if (reclassified != shard) {
+                // Same holidays, so the estimated size is unchanged
+                entry.setValue(reclassified);
+                changed++;
+            }
+        }
+        logger.info("Reclassified " + changed + " of " + shards.size() + " holiday shards in "
+                + (System.nanoTime() - start) / 1_000_000 + " ms");
+    }
+
+    /** A {@link HolidaySource} that serves the overlay of {@code countries} from this store. */
+    public HolidaySource asSource(List<String> countries) {
+        List<String> copy = List.copyOf(countries);
+        return new HolidaySource() {
+            @Override
+            public String getName() {
+                return "store:" + String.join("+", copy);
+            }
+
+            @Override
+            public HolidayIndex load(int fromYear, int toYear) {
+                return overlay(copy, fromYear, toYear);
+            }
+        };
+    }
+
+    public long getMaxBytes() { return maxBytes; }
+    public synchronized long getEstimatedBytes() { return bytes; }
+    public synchronized int getShardCount() { return shards.size(); }
+    public synchronized long getHits() { return hits; }
+    public synchronized long getMisses() { return misses; }
+    public synchronized long getEvictions() { return evictions; }
+
+    private synchronized void store(Shard key, HolidayIndex shard) {
+        HolidayIndex previous = shards.put(key, shard);
+        if (previous != null) {
+            bytes -= previous.estimatedBytes();
+        }
+        bytes += shard.estimatedBytes();
+        // Access order puts the least recently used shards first; never evict the one just stored
+        Iterator<Map.Entry<Shard, HolidayIndex>> eldest = shards.entrySet().iterator();
+        while (bytes > maxBytes && shards.size() > 1) {
+            Map.Entry<Shard, HolidayIndex> entry = eldest.next();
+            bytes -= entry.getValue().estimatedBytes();
+            eldest.remove();
+            evictions++;
+            evictionCounter.increment();
+            logger.fine(() -> "Evicted holidays for " + entry.getKey().country() + "/" + entry.getKey().year());
+        }
+        bytesGauge.set(bytes);
+    }
+
+    private static HolidayIndex await(CompletableFuture<HolidayIndex> pending, Shard key) throws IOException {
+        try {
+            return pending.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            throw new IOException("Failed to load holidays for " + key.country() + "/" + key.year(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt(); // Restore interrupted status
+            throw new InterruptedIOException("Interrupted while loading holidays for " + key.country() + "/" + key.year());
+        }
+    }
+}
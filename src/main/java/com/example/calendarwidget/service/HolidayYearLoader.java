@@ -0,0 +1,132 @@
+package com.example.calendarwidget.service;
+
+import com.example.calendarwidget.metrics.Counter;
+import com.example.calendarwidget.metrics.Histogram;
+import com.example.calendarwidget.metrics.MetricsRegistry;
+import com.example.calendarwidget.model.HolidayIndex;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Loads holiday years on demand, so the calendar can be navigated arbitrarily far without
+ * loading more than the startup window up front.
+ *
+ * <p>Each year is loaded at most once: a request for a year already loaded is a no-op, and
+ * requests for a year whose load is still in flight share that load. A loaded year is handed to
+ * the {@link Listener} before it counts as loaded. A failed load is logged and forgotten, so the
+ * next request tries again.
+ */
+public class HolidayYearLoader {
+    private static final Logger logger = Logger.getLogger(HolidayYearLoader.class.getName());
+    private static final Histogram loadLatency = MetricsRegistry.getDefault().histogram("holiday.lazy.latency");
+    private static final Counter loads = MetricsRegistry.getDefault().counter("holiday.lazy.loads");
+    private static final Counter merged = MetricsRegistry.getDefault().counter("holiday.lazy.merged");
+    private static final Counter failures = MetricsRegistry.getDefault().counter("holiday.lazy.errors");
+
+    /** Called on the loading thread with the holidays of a newly loaded year. */
+    @FunctionalInterface
+    public interface Listener {
+        void yearLoaded(int year, HolidayIndex holidays);
+    }
+
+    private final HolidaySource source;
+    private final Executor executor;
+    private final Listener listener;
+    private final Set<Integer> loaded = new HashSet<>();
+    private final Map<Integer, CompletableFuture<Void>> loading = new HashMap<>();
+
+    public HolidayYearLoader(HolidaySource source, Executor executor, Listener listener) {
+        this.source = source;
+        this.executor = executor;
+        this.listener = listener;
+    }
+
+    /** Records years loaded by other means, e.g. at startup, so they are never requested here. */
+    public synchronized void markLoaded(int fromYear, int toYear) {
+        for (int year = fromYear; year <= toYear; year++) {
+            loaded.add(year);
+        }
+    }
+
+    public synchronized boolean isLoaded(int year) {
+        return loaded.contains(year);
+    }
+
+    /** The number of years currently being loaded. */
+    public synchronized int getInFlightCount() {
+        return loading.size();
+    }
+
+    /** Requests every year in {@code fromYear..toYear} that is neither loaded nor loading. */
+    public void ensureLoaded(int fromYear, int toYear) {
+        for (int year = fromYear; year <= toYear; year++) {
+            load(year);
+        }
+    }
+
+    /**
+     * Loads {@code year} in the background unless it is loaded already, joining the load in
+     * flight if there is one. The future completes once the listener has received the year; it
+     * completes exceptionally if the load fails.
+     */
+    public CompletableFuture<Void> load(int year) {
+        CompletableFuture<Void> pending;
+        synchronized (this) {
+            if (loaded.contains(year)) {
+                return CompletableFuture.completedFuture(null);
+            }
+            pending = loading.get(year);
+            if (pending != null) {
+                merged.increment();
+                return pending;
+            }
+            pending = new CompletableFuture<>();
+            loading.put(year, pending);
+        }
+        CompletableFuture<Void> result = pending;
+        try {
+            executor.execute(() -> fetch(year, result));
+        } catch (RejectedExecutionException e) {
+            synchronized (this) {
+                loading.remove(year);
+            }
+            result.completeExceptionally(e);
+            logger.fine(() -> "Loader executor shut down, not loading holidays for " + year);
+        }
+        return result;
+    }
+
+    private void fetch(int year, CompletableFuture<Void> pending) {
+        long start = System.nanoTime();
+        try {
+            logger.fine(() -> "Loading holidays for " + year + " on demand from " + source.getName());
+            HolidayIndex holidays = source.load(year, year);
+            listener.yearLoaded(year, holidays);
+            synchronized (this) {
+                loaded.add(year);
+                loading.remove(year);
+            }
+            loads.increment();
+            loadLatency.recordSince(start);
+            logger.info("Loaded " + holidays.size() + " holidays for " + year + " on demand in "
+                    + (System.nanoTime() - start) / 1_000_000 + " ms");
+            pending.complete(null);
+        } catch (IOException | RuntimeException e) {
+            synchronized (this) {
+                loading.remove(year);
+            }
+            failures.increment();
+            logger.log(Level.WARNING, "Failed to load holidays for " + year + " from " + source.getName(), e);
+            pending.completeExceptionally(e);
+        }
+    }
+}
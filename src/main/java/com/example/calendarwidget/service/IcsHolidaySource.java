@@ -0,0 +1,462 @@
+package com.example.calendarwidget.service;
+
+import com.example.calendarwidget.model.Holiday;
+import com.example.calendarwidget.model.HolidayIndex;
+import com.example.calendarwidget.model.HolidayType;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.logging.Logger;
+
+/**
+ * Reads all-day and timed {@code VEVENT}s from an iCalendar (RFC 5545) file, such as a company
+ * calendar export. The file is read one unfolded content line at a time, so even very large
+ * exports are never held in memory; only the events in the requested years are kept.
+ *
+ * <p>Each event becomes one holiday per day it covers, named after its {@code SUMMARY}. Dates
+ * are taken as written, without time-zone conversion. An event lasts until its {@code DTEND} or
+ * for its {@code DURATION}; if neither is given or the one given cannot be read, it covers its
+ * start day only. Cancelled events are skipped. Yearly recurrences ({@code FREQ=YEARLY} with
+ * optional {@code INTERVAL}, {@code COUNT} and {@code UNTIL}) are expanded over the requested
+ * years; other recurrences contribute their first occurrence only, with a warning. Occurrences
+ * starting on an {@code EXDATE} day are left out, though they still count towards {@code COUNT}.
+ *
+ * <p>iCalendar has no notion of a holiday type, and a company export names its closures freely,
+ * so every event gets the type this source was created with rather than one from
+ * {@link HolidayRules}; those rules are written against public holiday names. JSON files keep
+ * the types they carry in the same way.
+ */
+public class IcsHolidaySource implements HolidaySource {
+    private static final Logger logger = Logger.getLogger(IcsHolidaySource.class.getName());
+    // Guards against malformed events spanning decades turning into thousands of holidays
+    private static final int MAX_EVENT_DAYS = 366;
+    private static final int SECONDS_PER_DAY = 86_400;
+
+    private final Path file;
+    private final HolidayType type;
+
+    /**
+     * @param type the type given to every event; company closures are typically
+     *             {@link HolidayType#WORK}
+     */
+    public IcsHolidaySource(Path file, HolidayType type) {
+        this.file = file;
+        this.type = type;
+    }
+
+    @Override
+    public String getName() {
+        return "ics:" + file.getFileName();
+    }
+
+    @Override
+    public HolidayIndex load(int fromYear, int toYear) throws IOException {
+        long start = System.nanoTime();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            HolidayIndex holidays = read(reader, fromYear, toYear);
+            logger.info("Read " + holidays.getHolidayCount() + " holidays from " + file + " in "
+                    + (System.nanoTime() - start) / 1_000_000 + " ms");
+            return holidays;
+        }
+    }
+
+    HolidayIndex read(Reader in, int fromYear, int toYear) throws IOException {
+        BufferedReader reader = in instanceof BufferedReader ? (BufferedReader) in : new BufferedReader(in);
+        int fromDay = (int) LocalDate.of(fromYear, 1, 1).toEpochDay();
+        int toDay = (int) LocalDate.of(toYear, 12, 31).toEpochDay();
+        HolidayIndex.Builder builder = HolidayIndex.builder();
+        EventState event = new EventState();
+        StringBuilder logical = new StringBuilder();
+        int lineNumber = 0;
+        int skipped = 0;
+
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            // Folded lines continue the previous content line after a single space or tab
+            if (!line.isEmpty() && (line.charAt(0) == ' ' || line.charAt(0) == '\t')) {
+                logical.append(line, 1, line.length());
+                continue;
+            }
+            if (logical.length() > 0 && !event.accept(logical, builder, fromDay, toDay, type)) {
+                skipped++;
+            }
+            logical.setLength(0);
+            logical.append(line);
+        }
+        if (logical.length() > 0 && !event.accept(logical, builder, fromDay, toDay, type)) {
+            skipped++;
+        }
+        if (skipped > 0) {
+            logger.warning("Skipped " + skipped + " malformed events in " + lineNumber + " lines of " + getName());
+        }
+        if (event.singleDay > 0) {
+            logger.warning("Read " + event.singleDay + " events with an unreadable end as single days in " + getName());
+        }
+        return builder.build();
+    }
+
+    /** Parses a basic-format date or date-time value ({@code yyyyMMdd[THHmmss[Z]]}) to its epoch day. */
+    static int parseDate(CharSequence value, int from) {
+        int year = Integer.parseInt(value, from, from + 4, 10);
+        int month = Integer.parseInt(value, from + 4, from + 6, 10);
+        int day = Integer.parseInt(value, from + 6, from + 8, 10);
+        return (int) LocalDate.of(year, month, day).toEpochDay();
+    }
+
+    /**
+     * Second of the day of a basic-format date-time value, or 0 for a date; the value starts at
+     * {@code from} and runs to the end of {@code value}.
+     */
+    static int parseSecondOfDay(CharSequence value, int from) {
+        if (value.length() - from < 15 || value.charAt(from + 8) != 'T') {
+            return 0;
+        }
+        int hour = Integer.parseInt(value, from + 9, from + 11, 10);
+        int minute = Integer.parseInt(value, from + 11, from + 13, 10);
+        int second = Integer.parseInt(value, from + 13, from + 15, 10);
+        if (hour > 23 || minute > 59 || second > 60) {
+            throw new NumberFormatException("Invalid time " + value.subSequence(from, value.length()));
+        }
+        return (hour * 60 + minute) * 60 + Math.min(second, 59);
+    }
+
+    /**
+     * Parses a non-negative RFC 5545 duration such as {@code P3D}, {@code P1W} or
+     * {@code PT8H30M} to seconds.
+     */
+    static long parseDuration(CharSequence value, int from) {
+        int i = from;
+        if (i < value.length() && value.charAt(i) == '+') {
+            i++;
+        }
+        if (i >= value.length() || value.charAt(i) != 'P') {
+            throw new NumberFormatException("Not a duration: " + value.subSequence(from, value.length()));
+        }
+        i++;
+        long seconds = 0;
+        boolean time = false;
+        boolean any = false;
+        while (i < value.length()) {
+            if (value.charAt(i) == 'T' && !time) {
+                time = true;
+                i++;
+                continue;
+            }
+            int digits = i;
+            while (i < value.length() && Character.isDigit(value.charAt(i))) {
+                i++;
+            }
+            if (digits == i || i == value.length()) {
+                throw new NumberFormatException("Not a duration: " + value.subSequence(from, value.length()));
+            }
+            long amount = Long.parseLong(value, digits, i, 10);
+            char unit = value.charAt(i++);
+            if (!time && unit == 'W') {
+                seconds += amount * 7 * SECONDS_PER_DAY;
+            } else if (!time && unit == 'D') {
+                seconds += amount * SECONDS_PER_DAY;
+            } else if (time && unit == 'H') {
+                seconds += amount * 3600;
+            } else if (time && unit == 'M') {
+                seconds += amount * 60;
+            } else if (time && unit == 'S') {
+                seconds += amount;
+            } else {
+                throw new NumberFormatException("Not a duration: " + value.subSequence(from, value.length()));
+            }
+            any = true;
+        }
+        if (!any) {
+            throw new NumberFormatException("Not a duration: " + value.subSequence(from, value.length()));
+        }
+        return seconds;
+    }
+
+    /** Reverses RFC 5545 TEXT escaping: {@code \\n}, {@code \\,}, {@code \\;} and {@code \\\\}. */
+    static String unescape(CharSequence text, int from) {
+        StringBuilder out = null;
+        for (int i = from; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '\\' && i + 1 < text.length()) {
+                if (out == null) {
+                    out = new StringBuilder(text.length() - from).append(text, from, i);
+                }
+                char next = text.charAt(++i);
+                out.append(next == 'n' || next == 'N' ? ' ' : next);
+            } else if (out != null) {
+                out.append(c);
+            }
+        }
+        return out != null ? out.toString().trim() : text.subSequence(from, text.length()).toString().trim();
+    }
+
+    /** The properties of the event currently being read, reused across events. */
+    private static final class EventState {
+        private boolean inEvent;
+        private int nestedDepth;
+        private int startDay;
+        private int startSecond;
+        private int endDayExclusive;
+        private long durationSeconds;
+        private boolean hasStart;
+        private boolean hasEnd;
+        private boolean hasDuration;
+        private boolean badEnd;
+        private String summary;
+        private boolean cancelled;
+        private String rule;
+        /** Start days of the occurrences removed by {@code EXDATE}. */
+        private final Set<Integer> excluded = new HashSet<>();
+        /** Events read as a single day because their end could not be parsed. */
+        private int singleDay;
+
+        /** Handles one unfolded content line; returns {@code false} if it ended a malformed event. */
+        boolean accept(CharSequence line, HolidayIndex.Builder builder, int fromDay, int toDay, HolidayType type) {
+            int colon = valueStart(line);
+            if (colon < 0) {
+                return true;
+            }
+            if (startsWith(line, "BEGIN:VEVENT")) {
+                inEvent = true;
+                nestedDepth = 0;
+                hasStart = false;
+                hasEnd = false;
+                hasDuration = false;
+                badEnd = false;
+                summary = null;
+                cancelled = false;
+                rule = null;
+                excluded.clear();
+                return true;
+            }
+            if (!inEvent) {
+                return true;
+            }
+            if (startsWith(line, "END:VEVENT")) {
+                inEvent = false;
+                return emit(builder, fromDay, toDay, type);
+            }
+            // Properties of nested components such as VALARM do not describe the event
+            if (startsWith(line, "BEGIN:")) {
+                nestedDepth++;
+                return true;
+            }
+            if (startsWith(line, "END:")) {
+                nestedDepth = Math.max(0, nestedDepth - 1);
+                return true;
+            }
+            if (nestedDepth > 0) {
+                return true;
+            }
+            if (isProperty(line, "DTSTART")) {
+                try {
+                    startDay = parseDate(line, colon + 1);
+                    startSecond = parseSecondOfDay(line, colon + 1);
+                    hasStart = true;
+                } catch (DateTimeException | IndexOutOfBoundsException | NumberFormatException e) {
+                    hasStart = false;
+                }
+            } else if (isProperty(line, "DTEND")) {
+                // An unreadable end leaves the event on its start day rather than dropping it
+                try {
+                    int day = parseDate(line, colon + 1);
+                    // All-day ends are exclusive; a timed event ending at midnight also excludes that day
+                    boolean exclusive = line.length() - colon - 1 == 8 || endsWith(line, "T000000")
+                            || endsWith(line, "T000000Z");
+                    endDayExclusive = exclusive ? day : day + 1;
+                    hasEnd = true;
+                } catch (DateTimeException | IndexOutOfBoundsException | NumberFormatException e) {
+                    badEnd = true;
+                }
+            } else if (isProperty(line, "DURATION")) {
+                try {
+                    durationSeconds = parseDuration(line, colon + 1);
+                    hasDuration = true;
+                } catch (IndexOutOfBoundsException | NumberFormatException e) {
+                    badEnd = true;
+                }
+            } else if (isProperty(line, "SUMMARY")) {
+                summary = unescape(line, colon + 1);
+            } else if (isProperty(line, "STATUS")) {
+                cancelled = endsWith(line, ":CANCELLED");
+            } else if (isProperty(line, "RRULE")) {
+                rule = line.subSequence(colon + 1, line.length()).toString();
+            } else if (isProperty(line, "EXDATE")) {
+                exclude(line, colon + 1);
+            }
+            return true;
+        }
+
+        /** Adds the days of a comma-separated {@code EXDATE} value list, ignoring values that cannot be read. */
+        private void exclude(CharSequence line, int from) {
+            int start = from;
+            while (start < line.length()) {
+                int end = start;
+                while (end < line.length() && line.charAt(end) != ',') {
+                    end++;
+                }
+                if (end - start >= 8) {
+                    try {
+                        excluded.add(parseDate(line, start));
+                    } catch (DateTimeException | NumberFormatException e) {
+                        // Keeps the occurrence, as an unreadable end keeps the event
+                    }
+                }
+                start = end + 1;
+            }
+        }
+
+        private boolean emit(HolidayIndex.Builder builder, int fromDay, int toDay, HolidayType type) {
+            if (cancelled) {
+                return true;
+            }
+            if (!hasStart || summary == null || summary.isEmpty()) {
+                return false;
+            }
+            int days = Math.min(days(), MAX_EVENT_DAYS);
+            if (rule == null) {
+                addDays(builder, startDay, days, fromDay, toDay, type);
+            } else if (!expandYearly(builder, days, fromDay, toDay, type)) {
+                logger.warning("Only the first occurrence of recurring event '" + summary + "' is read; rule "
+                        + rule + " is not supported");
+                addDays(builder, startDay, days, fromDay, toDay, type);
+            }
+            return true;
+        }
+
+        /** Number of days an occurrence covers, at least one. */
+        private int days() {
+            if (hasEnd) {
+                return Math.max(endDayExclusive - startDay, 1);
+            }
+            if (hasDuration) {
+                long end = (long) startDay * SECONDS_PER_DAY + startSecond + durationSeconds;
+                long endDay = Math.floorDiv(end, SECONDS_PER_DAY);
+                long exclusive = Math.floorMod(end, SECONDS_PER_DAY) == 0 ? endDay : endDay + 1;
+                return (int) Math.max(Math.min(exclusive - startDay, MAX_EVENT_DAYS), 1);
+            }
+            if (badEnd) {
+                singleDay++;
+            }
+            return 1;
+        }
+
+        /**
+         * Adds the occurrences of a {@code FREQ=YEARLY} rule that fall in the requested days;
+         * returns {@code false}, adding nothing, for any other rule.
+         */
+        private boolean expandYearly(HolidayIndex.Builder builder, int days, int fromDay, int toDay, HolidayType type) {
+            boolean yearly = false;
+            int interval = 1;
+            int count = Integer.MAX_VALUE;
+            int untilDay = Integer.MAX_VALUE;
+            try {
+                for (String part : rule.split(";")) {
+                    int equals = part.indexOf('=');
+                    String name = equals < 0 ? part : part.substring(0, equals).toUpperCase();
+                    String value = equals < 0 ? "" : part.substring(equals + 1);
+                    switch (name) {
+                        case "FREQ" -> yearly = value.equalsIgnoreCase("YEARLY");
+                        case "INTERVAL" -> interval = Integer.parseInt(value);
+                        case "COUNT" -> count = Integer.parseInt(value);
+                        case "UNTIL" -> untilDay = parseDate(value, 0);
+                        case "WKST" -> { }
+                        // BYMONTH, BYDAY and the like pick other dates than the start's
+                        default -> {
+                            return false;
+                        }
+                    }
+                }
+            } catch (DateTimeException | IndexOutOfBoundsException | NumberFormatException e) {
+                return false;
+            }
+            if (!yearly || interval < 1) {
+                return false;
+            }
+            LocalDate first = LocalDate.ofEpochDay(startDay);
+            int lastDay = Math.min(untilDay, toDay);
+            int occurrences = 0;
+            for (int years = 0; occurrences < count; years += interval) {
+                LocalDate date = first.plusYears(years);
+                int day = (int) date.toEpochDay();
+                if (day > lastDay) {
+                    break;
+                }
+                // February 29 only recurs in leap years
+                if (date.getDayOfMonth() != first.getDayOfMonth()) {
+                    continue;
+                }
+                occurrences++;
+                addDays(builder, day, days, fromDay, toDay, type);
+            }
+            return true;
+        }
+
+        /** Adds the occurrence starting on {@code start}, unless an {@code EXDATE} removed it. */
+        private void addDays(HolidayIndex.Builder builder, int start, int days, int fromDay, int toDay, HolidayType type) {
+            if (!excluded.isEmpty() && excluded.contains(start)) {
+                return;
+            }
+            for (int day = Math.max(start, fromDay); day < start + days && day <= toDay; day++) {
+                builder.add(new Holiday(day, summary, type));
+            }
+        }
+
+        /** Index of the colon that separates name and parameters from the value, skipping quoted parameters. */
+        private static int valueStart(CharSequence line) {
+            boolean quoted = false;
+            for (int i = 0; i < line.length(); i++) {
+                char c = line.charAt(i);
+                if (c == '"') {
+                    quoted = !quoted;
+                } else if (c == ':' && !quoted) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        /** Whether the line holds property {@code name}, followed by parameters or its value. */
+        private static boolean isProperty(CharSequence line, String name) {
+            if (!startsWith(line, name) || line.length() == name.length()) {
+                return false;
+            }
+            char next = line.charAt(name.length());
+            return next == ':' || next == ';';
+        }
+
+        private static boolean startsWith(CharSequence line, String prefix) {
+            if (line.length() < prefix.length()) {
+                return false;
+            }
+            for (int i = 0; i < prefix.length(); i++) {
+                if (Character.toUpperCase(line.charAt(i)) != prefix.charAt(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static boolean endsWith(CharSequence line, String suffix) {
+            int offset = line.length() - suffix.length();
+            if (offset < 0) {
+                return false;
+            }
+            for (int i = 0; i < suffix.length(); i++) {
+                if (Character.toUpperCase(line.charAt(offset + i)) != suffix.charAt(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.calendarwidget.service;
+
+import com.example.calendarwidget.model.Holiday;
+import com.example.calendarwidget.model.HolidayIndex;
+import com.example.calendarwidget.model.HolidayJsonAdapter;
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.logging.Logger;
+
+/**
+ * Reads holidays from a local JSON file holding an array of {@code {"date", "name", "type"}}
+ * objects, the same shape {@link Holiday} is serialised to. Raw Nager.Date responses work too;
+ * their entries read as regular holidays. The array is streamed entry by entry.
+ */
+public class JsonFileHolidaySource implements HolidaySource {
+    private static final Logger logger = Logger.getLogger(JsonFileHolidaySource.class.getName());
+    private static final HolidayJsonAdapter ADAPTER = new HolidayJsonAdapter();
+
+    private final Path file;
+
+    public JsonFileHolidaySource(Path file) {
+        this.file = file;
+    }
+
+    @Override
+    public String getName() {
+        return "json:" + file.getFileName();
+    }
+
+    @Override
+    public HolidayIndex load(int fromYear, int toYear) throws IOException {
+        int fromDay = (int) LocalDate.of(fromYear, 1, 1).toEpochDay();
+        int toDay = (int) LocalDate.of(toYear, 12, 31).toEpochDay();
+        HolidayIndex.Builder builder = HolidayIndex.builder();
+        try (JsonReader reader = new JsonReader(Files.newBufferedReader(file, StandardCharsets.UTF_8))) {
+            reader.beginArray();
+            while (reader.hasNext()) {
+                Holiday holiday = ADAPTER.read(reader);
+                if (holiday != null && holiday.getEpochDay() >= fromDay && holiday.getEpochDay() <= toDay) {
+                    builder.add(holiday);
+                }
+            }
+            reader.endArray();
+        } catch (JsonParseException | IllegalStateException e) {
+            throw new IOException("Invalid holiday JSON in " + file + ": " + e.getMessage(), e);
+        }
+        HolidayIndex holidays = builder.build();
+        logger.info("Read " + holidays.getHolidayCount() + " holidays from " + file);
+        return holidays;
+    }
+}
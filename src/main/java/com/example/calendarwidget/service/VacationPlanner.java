@@ -0,0 +1,204 @@
+package com.example.calendarwidget.service;
+
+import com.example.calendarwidget.metrics.Histogram;
+import com.example.calendarwidget.metrics.MetricsRegistry;
+import com.example.calendarwidget.model.Holiday;
+import com.example.calendarwidget.model.HolidayIndex;
+import com.example.calendarwidget.model.VacationWindow;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Logger;
+
+/**
+ * Finds the leave windows that yield the most consecutive days off per leave day spent.
+ *
+ * <p>Weekend days and work holidays are days off; every other day in the horizon is a working
+ * day. Taking {@code L} consecutive working days off yields the span from just after the
+ * preceding working day to just before the following one, so with the working days' positions
+ * in one sorted {@code int[]} every candidate window is scored in constant time. Blocks with a
+ * working day directly before or after them are skipped, since dropping that day gives a window
+ * inside them with a ratio at least as good; the remaining candidates are heapified in linear
+ * time and the best non-overlapping ones popped, which keeps a multi-year horizon well within a
+ * frame.
+ */
+public class VacationPlanner {
+    private static final Logger logger = Logger.getLogger(VacationPlanner.class.getName());
+    private static final Histogram planLatency = MetricsRegistry.getDefault().histogram("vacation.plan.latency");
+    public static final Set<DayOfWeek> DEFAULT_WEEKEND = EnumSet.of(DayOfWeek.SATURDAY, DayOfWeek.SUNDAY);
+    public static final int DEFAULT_TOP_K = 5;
+
+    // Bit (dayOfWeek - 1) is set for each weekend day, Monday being bit 0
+    private final int weekendMask;
+
+    public VacationPlanner() {
+        this(DEFAULT_WEEKEND);
+    }
+
+    public VacationPlanner(Set<DayOfWeek> weekend) {
+        int mask = 0;
+        for (DayOfWeek day : weekend) {
+            mask |= 1 << (day.getValue() - 1);
+        }
+        this.weekendMask = mask;
+    }
+
+    /**
+     * Returns up to {@code topK} non-overlapping windows within {@code from..to} (inclusive) that
+     * each use at most {@code leaveBudget} leave days, best days-off-per-leave-day ratio first.
+     * Ties go to the longer window, then the earlier one.
+     */
+    public List<VacationWindow> plan(HolidayIndex holidays, LocalDate from, LocalDate to, int leaveBudget, int topK) {
+        if (leaveBudget <= 0 || topK <= 0 || to.isBefore(from)) {
+            return Collections.emptyList();
+        }
+        long start = System.nanoTime();
+        int first = (int) from.toEpochDay();
+        int[] work = workingDays(holidays, from, to);
+        int workDays = work.length - 2;
+
+        // Candidates pack (first working day index i, leave days L) as i << 32 | L
+        long[] heap = new long[Math.max(16, workDays)];
+        int size = 0;
+        for (int i = 1; i <= workDays; i++) {
+            boolean offBefore = work[i - 1] < work[i] - 1;
+            int maxLeave = Math.min(leaveBudget, workDays - i + 1);
+            for (int leave = 1; leave <= maxLeave; leave++) {
+                boolean offAfter = work[i + leave - 1] + 1 < work[i + leave];
+                // A block with a working day right next to it is beaten by the same block minus
+                // that day, which is contained in it and has a ratio at least as good
+                boolean undominated = leave == 1 ? offBefore || offAfter : offBefore && offAfter;
+                if (undominated) {
+                    if (size == heap.length) {
+                        heap = Arrays.copyOf(heap, size * 2);
+                    }
+                    heap[size++] = (long) i << 32 | leave;
+                }
+                if (!offBefore) {
+                    break;
+                }
+            }
+        }
+        for (int i = size / 2 - 1; i >= 0; i--) {
+            siftDown(heap, i, size, work);
+        }
+
+        List<VacationWindow> windows = new ArrayList<>(Math.min(topK, 16));
+        while (windows.size() < topK && size > 0) {
+            long best = heap[0];
+            heap[0] = heap[--size];
+            siftDown(heap, 0, size, work);
+
+            int i = (int) (best >>> 32);
+            int leave = (int) best;
+            int windowStart = first + work[i - 1] + 1;
+            int windowEnd = first + work[i + leave] - 1;
+            if (!touchesAny(windows, windowStart, windowEnd)) {
+                windows.add(new VacationWindow(windowStart, windowEnd, leave));
+            }
+        }
+        planLatency.recordSince(start);
+        logger.fine(() -> "Planned " + windows.size() + " vacation windows from " + from + " to " + to + " in "
+                + (System.nanoTime() - start) / 1_000 + " us");
+        return windows;
+    }
+
+    /** Plans each country's holidays independently; results keep the map's iteration order. */
+    public Map<String, List<VacationWindow>> planAll(Map<String, HolidayIndex> byCountry, LocalDate from, LocalDate to,
+                                                     int leaveBudget, int topK) {
+        Map<String, List<VacationWindow>> plans = new LinkedHashMap<>();
+        for (Map.Entry<String, HolidayIndex> entry : byCountry.entrySet()) {
+            plans.put(entry.getKey(), plan(entry.getValue(), from, to, leaveBudget, topK));
+        }
+        return plans;
+    }
+
+    /**
+     * Offsets from {@code from} of every working day in the horizon, framed by the sentinels
+     * {@code -1} and the horizon length so that windows may run up to either edge.
+     */
+    private int[] workingDays(HolidayIndex holidays, LocalDate from, LocalDate to) {
+        int first = (int) from.toEpochDay();
+        int n = (int) to.toEpochDay() - first + 1;
+        boolean[] off = new boolean[n];
+        int dow = from.getDayOfWeek().getValue() - 1;
+        for (int d = 0; d < n; d++) {
+            off[d] = (weekendMask & (1 << dow)) != 0;
+            if (++dow == 7) {
+                dow = 0;
+            }
+        }
+        for (Holiday h : holidays.getHolidaysInRange(from, to)) {
+            if (h.isWork()) {
+                off[h.getEpochDay() - first] = true;
+            }
+        }
+
+        int[] work = new int[n + 2];
+        int count = 0;
+        work[count++] = -1;
+        for (int d = 0; d < n; d++) {
+            if (!off[d]) {
+                work[count++] = d;
+            }
+        }
+        work[count++] = n;
+        return count == work.length ? work : Arrays.copyOf(work, count);
+    }
+
+    private static void siftDown(long[] heap, int index, int size, int[] work) {
+        long item = heap[index];
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && better(heap[child + 1], heap[child], work)) {
+                child++;
+            }
+            if (!better(heap[child], item, work)) {
+                break;
+            }
+            heap[index] = heap[child];
+            index = child;
+        }
+        heap[index] = item;
+    }
+
+    /** Whether candidate {@code a} ranks strictly before candidate {@code b}. */
+    private static boolean better(long a, long b, int[] work) {
+        int ia = (int) (a >>> 32);
+        int la = (int) a;
+        int ib = (int) (b >>> 32);
+        int lb = (int) b;
+        long daysA = work[ia + la] - work[ia - 1] - 1;
+        long daysB = work[ib + lb] - work[ib - 1] - 1;
+        // Compare daysA / la with daysB / lb without division
+        long byRatio = daysA * lb - daysB * la;
+        if (byRatio != 0) {
+            return byRatio > 0;
+        }
+        if (daysA != daysB) {
+            return daysA > daysB;
+        }
+        return work[ia - 1] < work[ib - 1];
+    }
+
+    /** Overlapping or adjacent windows would really be one longer break, so only one is kept. */
+    private static boolean touchesAny(List<VacationWindow> windows, int start, int end) {
+        for (VacationWindow w : windows) {
+            if (start <= w.getEndEpochDay() + 1 && w.getStartEpochDay() <= end + 1) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,315 @@
+package com.example.calendarwidget.util;
+
+import com.example.calendarwidget.metrics.Gauge;
+import com.example.calendarwidget.metrics.Histogram;
+import com.example.calendarwidget.metrics.MetricsRegistry;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.ErrorManager;
+import java.util.logging.Formatter;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogManager;
+import java.util.logging.LogRecord;
+import java.util.logging.SimpleFormatter;
+
+/**
+ * A {@link Handler} that writes log records to a size-limited, rolling file from a background
+ * thread, so logging threads such as the EDT never wait for disk I/O.
+ *
+ * <p>Records are handed over through a bounded ring buffer. When it is full, the
+ * {@link OverflowPolicy} decides whether the logging thread waits for space or the record is
+ * dropped and counted. The writer thread drains up to a batch of records at a time, formats them
+ * and writes and flushes them together. When the file exceeds its limit it is renamed to
+ * {@code <file>.1}, older generations move up by one and the oldest is deleted.
+ *
+ * <p>The source method of a record is not known by the time it is formatted, since inferring it
+ * would need a stack walk on the logging thread; formatters fall back to the logger name.
+ *
+ * <p>Configured through the {@link LogManager} like the JDK handlers, with these properties
+ * prefixed by this class name:
+ * <ul>
+ *   <li>{@code .file}: the log file (default {@code ~/.calendar-widget/logs/calendar-widget.log})</li>
+ *   <li>{@code .limit}: bytes before the file rolls over (default 5 MB)</li>
+ *   <li>{@code .count}: rolled-over generations kept (default 3)</li>
+ *   <li>{@code .capacity}: records the ring buffer holds (default 8192)</li>
+ *   <li>{@code .policy}: {@code BLOCK} or {@code DROP} when the buffer is full (default {@code DROP})</li>
+ *   <li>{@code .batchSize}: the most records written per flush (default 256)</li>
+ *   <li>{@code .level}, {@code .formatter}, {@code .encoding}: as for the JDK handlers</li>
+ * </ul>
+ */
+public class AsyncFileHandler extends Handler {
+    public static final long DEFAULT_LIMIT = 5L * 1024 * 1024;
+    public static final int DEFAULT_COUNT = 3;
+    public static final int DEFAULT_CAPACITY = 8192;
+    public static final int DEFAULT_BATCH_SIZE = 256;
+    private static final long CLOSE_TIMEOUT_MILLIS = 5_000;
+    // Tells the writer thread to stop once everything queued before it is written
+    private static final LogRecord CLOSE = new LogRecord(Level.OFF, "close");
+
+    /** What a logging thread does when the ring buffer is full. */
+    public enum OverflowPolicy { BLOCK, DROP }
+
+    private final Path file;
+    private final long limit;
+    private final int count;
+    private final OverflowPolicy policy;
+    private final int batchSize;
+    private final ArrayBlockingQueue<LogRecord> buffer;
+    private final Thread writer;
+    private final AtomicLong enqueued = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final Object progress = new Object();
+    private long written; // Guarded by progress
+    private volatile boolean closed;
+    // Owned by the writer thread
+    private Writer out;
+    private long size; // Characters, which is bytes for the mostly ASCII log text
+
+    /** Creates a handler configured from the {@link LogManager} properties. */
+    public AsyncFileHandler() {
+        this(fileProperty(), longProperty("limit", DEFAULT_LIMIT), (int) longProperty("count", DEFAULT_COUNT),
+                (int) longProperty("capacity", DEFAULT_CAPACITY),
+                OverflowPolicy.valueOf(property("policy", OverflowPolicy.DROP.name()).trim().toUpperCase(Locale.ROOT)),
+                (int) longProperty("batchSize", DEFAULT_BATCH_SIZE));
+        setLevel(Level.parse(property("level", Level.ALL.getName()).trim()));
+        String formatter = property("formatter", null);
+        if (formatter != null) {
+            try {
+                setFormatter((Formatter) ClassLoader.getSystemClassLoader().loadClass(formatter.trim())
+                        .getDeclaredConstructor().newInstance());
+            } catch (ReflectiveOperationException | ClassCastException e) {
+                reportError("Cannot create formatter " + formatter, e, ErrorManager.GENERIC_FAILURE);
+            }
+        }
+        try {
+            setEncoding(property("encoding", null));
+        } catch (IOException e) {
+            reportError("Unsupported encoding", e, ErrorManager.GENERIC_FAILURE);
+        }
+    }
+
+    public AsyncFileHandler(Path file, long limit, int count, int capacity, OverflowPolicy policy, int batchSize) {
+        if (limit <= 0 || count < 1 || capacity < 1 || batchSize < 1) {
+            throw new IllegalArgumentException("Limit, count, capacity and batch size must be positive");
+        }
+        this.file = file;
+        this.limit = limit;
+        this.count = count;
+        this.policy = policy;
+        this.batchSize = batchSize;
+        this.buffer = new ArrayBlockingQueue<>(capacity);
+        setFormatter(new SimpleFormatter());
+        writer = new Thread(this::drain, "log-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @Override
+    public void publish(LogRecord record) {
+        if (closed || !isLoggable(record)) {
+            return;
+        }
+        // The writer thread must never wait for itself
+        if (policy == OverflowPolicy.DROP || Thread.currentThread() == writer) {
+            if (!buffer.offer(record)) {
+                dropped.incrementAndGet();
+                return;
+            }
+        } else {
+            try {
+                buffer.put(record);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt(); // Restore interrupted status
+                dropped.incrementAndGet();
+                return;
+            }
+        }
+        enqueued.incrementAndGet();
+    }
+
+    /** Waits, for up to a few seconds, until every record published so far has been written. */
+    @Override
+    public void flush() {
+        long target = enqueued.get();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(CLOSE_TIMEOUT_MILLIS);
+        synchronized (progress) {
+            while (written < target && writer.isAlive()) {
+                long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (remaining <= 0) {
+                    return;
+                }
+                try {
+                    progress.wait(remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt(); // Restore interrupted status
+                    return;
+                }
+            }
+        }
+    }
+
+    /** Writes everything queued so far, stops the writer thread and closes the file. */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            buffer.put(CLOSE);
+            writer.join(CLOSE_TIMEOUT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt(); // Restore interrupted status
+        }
+    }
+
+    /** Records discarded because the buffer was full. */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    private void drain() {
+        // Created here rather than in the constructor, which may run while logging is configured
+        Histogram flushLatency = MetricsRegistry.getDefault().histogram("log.flush.latency");
+        Gauge droppedGauge = MetricsRegistry.getDefault().gauge("log.dropped");
+        List<LogRecord> batch = new ArrayList<>(batchSize);
+        StringBuilder text = new StringBuilder(batchSize * 128);
+        boolean running = true;
+        while (running) {
+            try {
+                batch.add(buffer.take());
+            } catch (InterruptedException e) {
+                continue; // Only close() stops the writer
+            }
+            buffer.drainTo(batch, batchSize - 1);
+            long start = System.nanoTime();
+            for (LogRecord record : batch) {
+                if (record == CLOSE) {
+                    running = false;
+                } else {
+                    format(record, text);
+                }
+            }
+            write(text);
+            flushLatency.recordSince(start);
+            droppedGauge.set(dropped.get());
+            synchronized (progress) {
+                written += running ? batch.size() : batch.size() - 1;
+                progress.notifyAll();
+            }
+            text.setLength(0);
+            batch.clear();
+        }
+        closeFile();
+    }
+
+    private void format(LogRecord record, StringBuilder text) {
+        try {
+            text.append(getFormatter().format(record));
+        } catch (RuntimeException e) {
+            reportError(null, e, ErrorManager.FORMAT_FAILURE);
+        }
+    }
+
+    private void write(StringBuilder text) {
+        if (text.length() == 0) {
+            return;
+        }
+        try {
+            if (out == null) {
+                open();
+            }
+            out.append(text);
+            out.flush();
+            size += text.length();
+            if (size >= limit) {
+                rotate();
+            }
+        } catch (IOException e) {
+            reportError(null, e, ErrorManager.WRITE_FAILURE);
+            closeFile();
+        }
+    }
+
+    private void open() throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Charset charset = getEncoding() != null ? Charset.forName(getEncoding()) : StandardCharsets.UTF_8;
+        out = Files.newBufferedWriter(file, charset, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        size = Files.size(file);
+    }
+
+    /** Shifts {@code file.1 .. file.(count-1)} up by one and moves the current file to {@code file.1}. */
+    private void rotate() throws IOException {
+        closeFile();
+        for (int generation = count - 1; generation >= 1; generation--) {
+            Path older = generation(generation);
+            if (Files.exists(older)) {
+                Files.move(older, generation(generation + 1), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        if (count > 1) {
+            Files.move(file, generation(1), StandardCopyOption.REPLACE_EXISTING);
+        } else {
+            Files.delete(file);
+        }
+    }
+
+    private Path generation(int generation) {
+        return file.resolveSibling(file.getFileName() + "." + generation);
+    }
+
+    private void closeFile() {
+        if (out != null) {
+            try {
+                out.close();
+            } catch (IOException e) {
+                reportError(null, e, ErrorManager.CLOSE_FAILURE);
+            }
+            out = null;
+        }
+    }
+
+    private static String property(String name, String defaultValue) {
+        String value = LogManager.getLogManager().getProperty(AsyncFileHandler.class.getName() + "." + name);
+        return value != null && !value.isBlank() ? value : defaultValue;
+    }
+
+    private static long longProperty(String name, long defaultValue) {
+        try {
+            return Long.parseLong(property(name, Long.toString(defaultValue)).trim());
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    private static Path fileProperty() {
+        String value = property("file", null);
+        if (value == null) {
+            return Paths.get(System.getProperty("user.home"), ".calendar-widget", "logs", "calendar-widget.log");
+        }
+        return Paths.get(value.replace("%h", System.getProperty("user.home")).replace("%t",
+                System.getProperty("java.io.tmpdir")));
+    }
+}
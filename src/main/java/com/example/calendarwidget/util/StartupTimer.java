@@ -0,0 +1,41 @@
+package com.example.calendarwidget.util;
+
+import com.example.calendarwidget.metrics.MetricsRegistry;
+
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Records how long after JVM start each startup phase was first reached, so that regressions in
+ * time-to-tray, time-to-first-paint and time-to-data show up in the log.
+ */
+public class StartupTimer {
+    private static final Logger logger = Logger.getLogger(StartupTimer.class.getName());
+    public static final String MAIN = "main";
+    public static final String TRAY = "tray";
+    public static final String FIRST_PAINT = "first-paint";
+    public static final String DATA_COMPLETE = "data-complete";
+
+    private static final Map<String, Long> phases = Collections.synchronizedMap(new LinkedHashMap<>());
+
+    /**
+     * Records {@code phase} at the current time. Only the first mark of each phase counts.
+     */
+    public static void mark(String phase) {
+        long sinceJvmStart = System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime();
+        if (phases.putIfAbsent(phase, sinceJvmStart) == null) {
+            MetricsRegistry.getDefault().gauge("startup." + phase + ".millis").set(sinceJvmStart);
+            logger.info("Startup phase '" + phase + "' reached " + sinceJvmStart + " ms after JVM start");
+        }
+    }
+
+    /** Milliseconds after JVM start at which each recorded phase was reached, in order. */
+    public static Map<String, Long> getPhases() {
+        synchronized (phases) {
+            return new LinkedHashMap<>(phases);
+        }
+    }
+}
@@ -1,137 +1,220 @@
 package com.example.calendarwidget.view;
 
-import com.example.calendarwidget.model.Holiday;
-import com.toedter.calendar.JCalendar;
+import com.example.calendarwidget.metrics.Histogram;
+import com.example.calendarwidget.metrics.MetricsRegistry;
+import com.example.calendarwidget.model.HolidayIndex;
+import com.example.calendarwidget.model.VacationWindow;
 
 import javax.swing.*;
 import java.awt.*;
 import java.time.LocalDate;
-import java.time.ZoneId;
-import java.time.temporal.WeekFields;
-import java.util.HashMap;
+import java.time.YearMonth;
 import java.util.List;
-import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 public class CalendarView extends JPanel {
     private static final Logger logger = Logger.getLogger(CalendarView.class.getName());
-    private JCalendar prevCal;
-    private JCalendar currCal;
-    private JCalendar nextCal;
-    private Map<LocalDate, List<Holiday>> holidays;
+    private static final Histogram updateLatency = MetricsRegistry.getDefault().histogram("view.updateCalendars.latency");
+    public static final int DEFAULT_MONTH_COUNT = 3;
+    private MonthGrid grid;
+    private DayDetailsPane detailsPane;
+    private HolidayIndex holidays;
+    private final MonthRenderCache renderCache;
+    // Read by prepareMonths off the EDT
+    private volatile int monthCount;
+    private YearMonth[] shownMonths;
+    private YearMonth centerMonth;
+    private Runnable firstPaintListener;
 
-    public CalendarView(Map<LocalDate, List<Holiday>> holidays) {
+    public CalendarView(HolidayIndex holidays) {
+        this(holidays, DEFAULT_MONTH_COUNT);
+    }
+
+    /** A view of {@code monthCount} consecutive months, 1 to {@value MonthGrid#MAX_MONTHS}. */
+    public CalendarView(HolidayIndex holidays, int monthCount) {
+        this(new MonthRenderCache(holidays, MonthRenderCache.DEFAULT_CAPACITY), monthCount);
+    }
+
+    /**
+     * A view rendering from {@code renderCache}, which may outlive it: a view rebuilt on the same
+     * cache shows the months computed for its predecessor without computing them again.
+     */
+    public CalendarView(MonthRenderCache renderCache, int monthCount) {
         logger.info("Initializing CalendarView");
-        this.holidays = holidays;
-        initializeComponents();
+        this.holidays = renderCache.getHolidays();
+        this.renderCache = renderCache;
+        initializeComponents(monthCount);
         logger.info("CalendarView initialized successfully");
     }
 
-    private void initializeComponents() {
+    private void initializeComponents(int monthCount) {
         logger.fine("Initializing calendar components");
-        setLayout(new BoxLayout(this, BoxLayout.X_AXIS));
+        setLayout(new BorderLayout());
+        grid = new MonthGrid(monthCount);
+        this.monthCount = monthCount;
+        this.shownMonths = new YearMonth[monthCount];
+        add(grid, BorderLayout.CENTER);
+        detailsPane = new DayDetailsPane();
+        add(detailsPane, BorderLayout.EAST);
+        logger.fine("Calendar components initialized");
+    }
 
-        prevCal = new JCalendar();
-        currCal = new JCalendar();
-        nextCal = new JCalendar();
+    /**
+     * Shows {@code monthCount} months around the current one from now on. Must be called on the
+     * EDT; the caller should re-layout the window, as the preferred size changes.
+     */
+    public void setMonthCount(int monthCount) {
+        if (monthCount == this.monthCount) {
+            return;
+        }
+        grid.setMonthCount(monthCount);
+        this.monthCount = monthCount;
+        this.shownMonths = new YearMonth[monthCount];
+        if (centerMonth != null) {
+            updateCalendars(centerMonth.atDay(1));
+        }
+        logger.fine(() -> "Showing " + monthCount + " months");
+    }
 
-        add(prevCal);
-        add(currCal);
-        add(nextCal);
-        logger.fine("Calendar components initialized");
+    public int getMonthCount() {
+        return monthCount;
+    }
+
+    public void setHolidays(HolidayIndex holidays) {
+        this.holidays = holidays;
+        renderCache.setHolidays(holidays);
+    }
+
+    /**
+     * Switches to {@code holidays}, which differs from the current index only in {@code year},
+     * and re-highlights just the visible months whose rendering may have changed. Week counts
+     * span year boundaries, so the adjacent December and January are included.
+     */
+    public void setHolidays(HolidayIndex holidays, int year) {
+        this.holidays = holidays;
+        YearMonth from = YearMonth.of(year - 1, 12);
+        YearMonth to = YearMonth.of(year + 1, 1);
+        renderCache.setHolidays(holidays, from, to);
+        int refreshed = rehighlight(month -> !month.isBefore(from) && !month.isAfter(to));
+        logger.fine(() -> "Holidays for " + year + " updated, refreshed " + refreshed + " visible months");
+    }
+
+    /**
+     * Switches to a refreshed snapshot that renders differently from the current one only in
+     * {@code changedMonths}, and re-highlights just those of them that are visible.
+     */
+    public void setHolidays(HolidayIndex holidays, Set<YearMonth> changedMonths) {
+        this.holidays = holidays;
+        renderCache.setHolidays(holidays, changedMonths);
+        int refreshed = rehighlight(changedMonths::contains);
+        logger.fine(() -> "Holidays changed in " + changedMonths + ", refreshed " + refreshed + " visible months");
+    }
+
+    /**
+     * Overlays the given suggested vacation windows on the calendars, replacing any previous
+     * plan; an empty list removes the overlay. Must be called on the EDT.
+     */
+    public void setVacationPlan(List<VacationWindow> vacationPlan) {
+        renderCache.setVacationPlan(vacationPlan);
+        int refreshed = rehighlight(month -> true);
+        logger.fine(() -> "Vacation plan of " + vacationPlan.size() + " windows shown, refreshed " + refreshed + " months");
     }
 
+    /** Re-applies the render models of the visible months accepted by {@code affected}. */
+    private int rehighlight(Predicate<YearMonth> affected) {
+        int refreshed = 0;
+        for (int slot = 0; slot < shownMonths.length; slot++) {
+            YearMonth shown = shownMonths[slot];
+            if (shown != null && affected.test(shown)) {
+                grid.setModel(slot, renderCache.get(shown));
+                refreshed++;
+            }
+        }
+        return refreshed;
+    }
+
+    /**
+     * Registers a callback run once, on the EDT, the first time this view paints.
+     */
+    public void setFirstPaintListener(Runnable listener) {
+        this.firstPaintListener = listener;
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        super.paintComponent(g);
+        Runnable listener = firstPaintListener;
+        if (listener != null) {
+            firstPaintListener = null;
+            listener.run();
+        }
+    }
+
+    /** Shows the months around {@code currentMonth}, which is in the middle (left of it if even). */
     public void updateCalendars(LocalDate currentMonth) {
-        logger.fine("Updating calendars for month: " + currentMonth);
+        logger.fine(() -> "Updating calendars for month: " + currentMonth);
+        long start = System.nanoTime();
         try {
-            prevCal.setDate(java.util.Date.from(currentMonth.minusMonths(1).atStartOfDay(ZoneId.systemDefault()).toInstant()));
-            highlightWeeks(prevCal, currentMonth.minusMonths(1));
-            currCal.setDate(java.util.Date.from(currentMonth.atStartOfDay(ZoneId.systemDefault()).toInstant()));
-            highlightWeeks(currCal, currentMonth);
-            nextCal.setDate(java.util.Date.from(currentMonth.plusMonths(1).atStartOfDay(ZoneId.systemDefault()).toInstant()));
-            highlightWeeks(nextCal, currentMonth.plusMonths(1));
-            logger.fine("Calendars updated successfully");
+            centerMonth = YearMonth.from(currentMonth);
+            YearMonth first = firstShown(centerMonth, shownMonths.length);
+            for (int slot = 0; slot < shownMonths.length; slot++) {
+                shownMonths[slot] = first.plusMonths(slot);
+                grid.setModel(slot, renderCache.get(shownMonths[slot]));
+            }
+            updateLatency.recordSince(start);
+            logger.fine(() -> "Calendars updated in " + (System.nanoTime() - start) / 1_000 + " us (render cache hits: "
+                    + renderCache.getHits() + ", misses: " + renderCache.getMisses() + ")");
         } catch (Exception e) {
             logger.log(Level.SEVERE, "Error updating calendars for month: " + currentMonth, e);
         }
     }
 
-    private void highlightWeeks(JCalendar cal, LocalDate month) {
-        logger.fine("Highlighting weeks for month: " + month);
-        try {
-            int year = month.getYear();
-            int monthValue = month.getMonthValue();
-            Map<Integer, Integer> weekCounts = new HashMap<>();
-
-            for (int day = 1; day <= month.lengthOfMonth(); day++) {
-                LocalDate date = LocalDate.of(year, monthValue, day);
-                List<Holiday> hs = holidays.get(date);
-                if (hs != null) {
-                    for (Holiday h : hs) {
-                        if ("work".equals(h.getType())) {
-                            int week = date.get(WeekFields.ISO.weekOfYear());
-                            weekCounts.put(week, weekCounts.getOrDefault(week, 0) + 1);
-                        }
-                    }
-                }
-            }
-
-            logger.fine("Found " + weekCounts.size() + " weeks with work holidays for month: " + month);
-
-            com.toedter.calendar.JDayChooser dayChooser = cal.getDayChooser();
-            Component[] components = dayChooser.getComponents();
-            int highlightedDays = 0;
-
-            for (Component comp : components) {
-                if (comp instanceof JButton) {
-                    JButton button = (JButton) comp;
-                    String text = button.getText();
-                    if (!text.isEmpty()) {
-                        try {
-                            int day = Integer.parseInt(text);
-                            if (day >= 1 && day <= month.lengthOfMonth()) {
-                                LocalDate date = LocalDate.of(year, monthValue, day);
-                                int week = date.get(WeekFields.ISO.weekOfYear());
-                                Integer count = weekCounts.get(week);
-                                if (count != null) {
-                                    if (count == 1) {
-                                        button.setForeground(Color.CYAN);
-                                    } else {
-                                        button.setForeground(Color.BLUE);
-                                    }
-                                    highlightedDays++;
-                                } else {
-                                    button.setForeground(Color.BLACK);
-                                }
-                                List<Holiday> dayHolidays = holidays.get(date);
-                                if (dayHolidays != null && !dayHolidays.isEmpty()) {
-                                    StringBuilder tooltip = new StringBuilder();
-                                    for (Holiday h : dayHolidays) {
-                                        tooltip.append(h.getType().equals("work") ? "Work Holiday: " : "Holiday: ").append(h.getName()).append("\n");
-                                    }
-                                    button.setToolTipText(tooltip.toString().trim());
-                                    Font font = button.getFont();
-                                    button.setFont(font.deriveFont(Font.BOLD));
-                                } else {
-                                    button.setToolTipText(null);
-                                    Font font = button.getFont();
-                                    button.setFont(font.deriveFont(Font.PLAIN));
-                                }
-                            }
-                        } catch (NumberFormatException e) {
-                            logger.fine("Ignoring non-numeric button text: " + text);
-                        }
-                    }
-                }
-            }
-            logger.fine("Highlighted " + highlightedDays + " days for month: " + month);
-        } catch (Exception e) {
-            logger.log(Level.SEVERE, "Error highlighting weeks for month: " + month, e);
+    /**
+     * Computes the render models for the months shown around {@code month}. Safe to call off
+     * the EDT; a following {@link #updateCalendars} for the same month then hits the cache.
+     */
+    public void prepareMonths(YearMonth month) {
+        int count = monthCount;
+        YearMonth first = firstShown(month, count);
+        for (int i = 0; i < count; i++) {
+            renderCache.get(first.plusMonths(i));
         }
     }
 
-    public JCalendar getPrevCal() { return prevCal; }
-    public JCalendar getCurrCal() { return currCal; }
-    public JCalendar getNextCal() { return nextCal; }
-}
\ No newline at end of file
+    /** Shows the details of {@code date} in the side pane. Must be called on the EDT. */
+    public void showDayDetails(LocalDate date) {
+        detailsPane.showDetails(date, renderCache.getDetails(date));
+    }
+
+    /** Computes the render model for a single month ahead of time. Safe to call off the EDT. */
+    public void prefetchMonth(YearMonth month) {
+        renderCache.get(month);
+    }
+
+    /**
+     * Computes the render models of the months that become visible after one more step in
+     * either direction from {@code month}. Safe to call off the EDT.
+     */
+    public void prefetchNeighbours(YearMonth month) {
+        int count = monthCount;
+        YearMonth first = firstShown(month, count);
+        prefetchMonth(first.minusMonths(1));
+        prefetchMonth(first.plusMonths(count));
+    }
+
+    /** The first of the months shown while {@code month} is the current one. */
+    public YearMonth firstShownMonth(YearMonth month) {
+        return firstShown(month, monthCount);
+    }
+
+    private static YearMonth firstShown(YearMonth center, int count) {
+        return center.minusMonths((count - 1) / 2);
+    }
+
+    public MonthGrid getMonthGrid() { return grid; }
+    public DayDetailsPane getDetailsPane() { return detailsPane; }
+    public MonthRenderCache getRenderCache() { return renderCache; }
+}
@@ -0,0 +1,54 @@
+package com.example.calendarwidget.view;
+
+import javax.swing.*;
+import java.awt.*;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.FormatStyle;
+
+/**
+ * Side pane showing the holidays and suggested breaks of the selected day. It replaces a modal
+ * dialog per click, so selecting days never blocks navigation; the text comes precomputed from
+ * the day's {@link MonthRenderModel}.
+ */
+public class DayDetailsPane extends JPanel {
+    static final String NO_SELECTION = "Click a day to see its holidays";
+    public static final String NO_EVENTS = "No special events";
+    private static final DateTimeFormatter TITLE_FORMAT = DateTimeFormatter.ofLocalizedDate(FormatStyle.FULL);
+
+    private final JLabel title = new JLabel(" ");
+    private final JTextArea details = new JTextArea(NO_SELECTION);
+    private LocalDate date;
+
+    public DayDetailsPane() {
+        super(new BorderLayout(0, 6));
+        setBorder(BorderFactory.createEmptyBorder(8, 8, 8, 8));
+        title.setFont(title.getFont().deriveFont(Font.BOLD));
+        details.setEditable(false);
+        details.setLineWrap(true);
+        details.setWrapStyleWord(true);
+        details.setOpaque(false);
+        details.setColumns(16);
+        add(title, BorderLayout.NORTH);
+        add(details, BorderLayout.CENTER);
+    }
+
+    /** Shows {@code text} for {@code date}; a null or empty text means nothing happens that day. */
+    public void showDetails(LocalDate date, String text) {
+        String shown = text == null || text.isEmpty() ? NO_EVENTS : text;
+        if (date.equals(this.date) && shown.equals(details.getText())) {
+            return;
+        }
+        this.date = date;
+        title.setText(date.format(TITLE_FORMAT.withLocale(getLocale())));
+        details.setText(shown);
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public String getText() {
+        return details.getText();
+    }
+}
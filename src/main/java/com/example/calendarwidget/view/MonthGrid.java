@@ -0,0 +1,368 @@
+package com.example.calendarwidget.view;
+
+import com.example.calendarwidget.metrics.Histogram;
+import com.example.calendarwidget.metrics.MetricsRegistry;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.TextStyle;
+import java.util.Locale;
+
+/**
+ * Paints one to twelve months as a single lightweight component, replacing a full date-chooser
+ * per month. Each month is a title, a row of weekday headings and six week rows starting on
+ * Monday, so every row is one ISO week and carries a single week highlight.
+ *
+ * <p>All months are drawn in one {@link #paintComponent} pass, straight from their
+ * {@link MonthRenderModel}s, using fonts, label widths and colours derived once per font. Cells
+ * are located arithmetically, which serves tooltips, clicks and partial repaints alike. A click
+ * on a day sets {@link #SELECTED_DATE_PROPERTY}; programmatic changes do not fire it.
+ */
+public class MonthGrid extends JComponent {
+    private static final Histogram paintLatency = MetricsRegistry.getDefault().histogram("view.paint.latency");
+    public static final String SELECTED_DATE_PROPERTY = "selectedDate";
+    public static final int MAX_MONTHS = 12;
+    private static final Color TITLE_BACKGROUND = new Color(230, 236, 245);
+    private static final Color HEADER_FOREGROUND = Color.DARK_GRAY;
+    private static final Color SELECTION_BACKGROUND = new Color(184, 207, 229);
+    private static final Color TODAY_BORDER = Color.RED;
+    private static final int WEEK_ROWS = 6;
+    private static final int MONTH_GAP = 12;
+    private static final String[] DAY_LABELS = new String[32];
+
+    static {
+        for (int day = 1; day < DAY_LABELS.length; day++) {
+            DAY_LABELS[day] = Integer.toString(day);
+        }
+    }
+
+    private MonthRenderModel[] models;
+    private String[] titles;
+    private LocalDate selectedDate;
+
+    // Derived from the component font by updateFonts(); null until first needed
+    private Font plainFont;
+    private Font boldFont;
+    private Font titleFont;
+    private final int[] plainWidths = new int[DAY_LABELS.length];
+    private final int[] boldWidths = new int[DAY_LABELS.length];
+    private final String[] weekdays = new String[7];
+    private final int[] weekdayWidths = new int[7];
+    private int ascent;
+    private int titleAscent;
+    private int minCellWidth;
+    private int minCellHeight;
+    private int minTitleHeight;
+
+    public MonthGrid(int monthCount) {
+        setMonthCount(monthCount);
+        setOpaque(true);
+        setBackground(Color.WHITE);
+        setForeground(MonthRenderModel.DEFAULT_FOREGROUND);
+        ToolTipManager.sharedInstance().registerComponent(this);
+        addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                LocalDate date = dateAt(e.getX(), e.getY());
+                if (date != null && SwingUtilities.isLeftMouseButton(e)) {
+                    LocalDate old = selectedDate;
+                    setSelectedDate(date);
+                    firePropertyChange(SELECTED_DATE_PROPERTY, old, date);
+                }
+            }
+        });
+    }
+
+    /** Shows {@code monthCount} months (1 to {@value #MAX_MONTHS}); their models must be set again. */
+    public void setMonthCount(int monthCount) {
+        if (monthCount < 1 || monthCount > MAX_MONTHS) {
+            throw new IllegalArgumentException("Month count must be between 1 and " + MAX_MONTHS + ": " + monthCount);
+        }
+        models = new MonthRenderModel[monthCount];
+        titles = new String[monthCount];
+        revalidate();
+        repaint();
+    }
+
+    public int getMonthCount() {
+        return models.length;
+    }
+
+    /** Shows {@code model} in {@code slot}, repainting only that month if anything changed. */
+    public void setModel(int slot, MonthRenderModel model) {
+        if (models[slot] == model) {
+            return;
+        }
+        if (models[slot] == null || !models[slot].getMonth().equals(model.getMonth())) {
+            YearMonth month = model.getMonth();
+            titles[slot] = month.getMonth().getDisplayName(TextStyle.FULL, getLocale()) + " " + month.getYear();
+        }
+        models[slot] = model;
+        repaint(getMonthBounds(slot));
+    }
+
+    public MonthRenderModel getModel(int slot) {
+        return models[slot];
+    }
+
+    public LocalDate getSelectedDate() {
+        return selectedDate;
+    }
+
+    /** Marks {@code date} as selected without notifying listeners; {@code null} clears it. */
+    public void setSelectedDate(LocalDate date) {
+        LocalDate old = selectedDate;
+        selectedDate = date;
+        repaintDay(old);
+        repaintDay(date);
+    }
+
+    @Override
+    public void setFont(Font font) {
+        super.setFont(font);
+        plainFont = null;
+        revalidate();
+        repaint();
+    }
+
+    @Override
+    public void updateUI() {
+        super.updateUI();
+        plainFont = null;
+    }
+
+    @Override
+    public Dimension getPreferredSize() {
+        if (isPreferredSizeSet()) {
+            return super.getPreferredSize();
+        }
+        updateFonts();
+        int columns = columns();
+        int rows = (models.length + columns - 1) / columns;
+        Insets insets = getInsets();
+        return new Dimension(
+                insets.left + insets.right + columns * 7 * minCellWidth + (columns - 1) * MONTH_GAP,
+                insets.top + insets.bottom + rows * (minTitleHeight + (WEEK_ROWS + 1) * minCellHeight)
+                        + (rows - 1) * MONTH_GAP);
+    }
+
+    /** The area occupied by the month in {@code slot}, in component coordinates. */
+    public Rectangle getMonthBounds(int slot) {
+        return monthBounds(geometry(), slot);
+    }
+
+    private static Rectangle monthBounds(Geometry g, int slot) {
+        int column = slot % g.columns;
+        int row = slot / g.columns;
+        return new Rectangle(g.x + column * (g.monthWidth + MONTH_GAP), g.y + row * (g.monthHeight + MONTH_GAP),
+                g.monthWidth, g.monthHeight);
+    }
+
+    /** The day under the given point, or {@code null} outside the day cells of a shown month. */
+    public LocalDate dateAt(int x, int y) {
+        Geometry g = geometry();
+        int px = x - g.x;
+        int py = y - g.y;
+        if (px < 0 || py < 0) {
+            return null;
+        }
+        int column = px / (g.monthWidth + MONTH_GAP);
+        int row = py / (g.monthHeight + MONTH_GAP);
+        int inX = px - column * (g.monthWidth + MONTH_GAP);
+        int inY = py - row * (g.monthHeight + MONTH_GAP) - g.titleHeight - g.cellHeight;
+        int slot = row * g.columns + column;
+        if (column >= g.columns || slot >= models.length || models[slot] == null
+                || inX >= g.monthWidth || inY < 0 || inY >= WEEK_ROWS * g.cellHeight) {
+            return null;
+        }
+        MonthRenderModel model = models[slot];
+        int day = (inY / g.cellHeight) * 7 + inX / g.cellWidth - firstOffset(model.getMonth()) + 1;
+        return day >= 1 && day <= model.getLengthOfMonth() ? model.getMonth().atDay(day) : null;
+    }
+
+    @Override
+    public String getToolTipText(MouseEvent event) {
+        LocalDate date = dateAt(event.getX(), event.getY());
+        if (date == null) {
+            return null;
+        }
+        String tooltip = modelFor(date).getTooltip(date.getDayOfMonth());
+        // Multi-line tooltips need HTML to keep their line breaks
+        return tooltip == null || tooltip.indexOf('\n') < 0 ? tooltip
+                : "<html>" + tooltip.replace("&", "&amp;").replace("<", "&lt;").replace("\n", "<br>") + "</html>";
+    }
+
+    @Override
+    protected void paintComponent(Graphics graphics) {
+        long start = System.nanoTime();
+        updateFonts();
+        Graphics2D g2 = (Graphics2D) graphics;
+        Rectangle clip = g2.getClipBounds();
+        if (isOpaque()) {
+            g2.setColor(getBackground());
+            if (clip != null) {
+                g2.fillRect(clip.x, clip.y, clip.width, clip.height);
+            } else {
+                g2.fillRect(0, 0, getWidth(), getHeight());
+            }
+        }
+        Geometry g = geometry();
+        LocalDate today = LocalDate.now();
+        for (int slot = 0; slot < models.length; slot++) {
+            Rectangle bounds = monthBounds(g, slot);
+            if (models[slot] != null && (clip == null || clip.intersects(bounds))) {
+                paintMonth(g2, g, bounds, slot, today);
+            }
+        }
+        paintLatency.recordSince(start);
+    }
+
+    private void paintMonth(Graphics2D g2, Geometry g, Rectangle bounds, int slot, LocalDate today) {
+        MonthRenderModel model = models[slot];
+        g2.setColor(TITLE_BACKGROUND);
+        g2.fillRect(bounds.x, bounds.y, bounds.width, g.titleHeight);
+        g2.setColor(getForeground());
+        g2.setFont(titleFont);
+        int titleWidth = g2.getFontMetrics().stringWidth(titles[slot]);
+        g2.drawString(titles[slot], bounds.x + (bounds.width - titleWidth) / 2,
+                bounds.y + (g.titleHeight - minTitleHeight) / 2 + titleAscent + 3);
+
+        int textOffset = (g.cellHeight - minCellHeight) / 2 + ascent + 3;
+        int headerY = bounds.y + g.titleHeight;
+        g2.setFont(plainFont);
+        g2.setColor(HEADER_FOREGROUND);
+        for (int i = 0; i < 7; i++) {
+            g2.drawString(weekdays[i], bounds.x + i * g.cellWidth + (g.cellWidth - weekdayWidths[i]) / 2,
+                    headerY + textOffset);
+        }
+
+        int offset = firstOffset(model.getMonth());
+        int cellsY = headerY + g.cellHeight;
+        Font current = plainFont;
+        for (int day = 1; day <= model.getLengthOfMonth(); day++) {
+            int cell = offset + day - 1;
+            int x = bounds.x + (cell % 7) * g.cellWidth;
+            int y = cellsY + (cell / 7) * g.cellHeight;
+            if (model.isVacation(day)) {
+                g2.setColor(MonthRenderModel.VACATION_BACKGROUND);
+                g2.fillRect(x, y, g.cellWidth, g.cellHeight);
+            }
+            if (selectedDate != null && selectedDate.getDayOfMonth() == day
+                    && YearMonth.from(selectedDate).equals(model.getMonth())) {
+                g2.setColor(SELECTION_BACKGROUND);
+                g2.fillRect(x + 1, y + 1, g.cellWidth - 2, g.cellHeight - 2);
+            }
+            if (today.getDayOfMonth() == day && today.getMonthValue() == model.getMonth().getMonthValue()
+                    && today.getYear() == model.getMonth().getYear()) {
+                g2.setColor(TODAY_BORDER);
+                g2.drawRect(x + 1, y + 1, g.cellWidth - 3, g.cellHeight - 3);
+            }
+            boolean bold = model.isBold(day);
+            Font font = bold ? boldFont : plainFont;
+            if (font != current) {
+                g2.setFont(font);
+                current = font;
+            }
+            int width = bold ? boldWidths[day] : plainWidths[day];
+            g2.setColor(model.getForeground(day));
+            g2.drawString(DAY_LABELS[day], x + (g.cellWidth - width) / 2, y + textOffset);
+        }
+    }
+
+    /** The cell of {@code date}, or {@code null} if its month is not shown. */
+    public Rectangle getDayBounds(LocalDate date) {
+        YearMonth month = YearMonth.from(date);
+        for (int slot = 0; slot < models.length; slot++) {
+            if (models[slot] != null && models[slot].getMonth().equals(month)) {
+                Geometry g = geometry();
+                Rectangle bounds = monthBounds(g, slot);
+                int cell = firstOffset(month) + date.getDayOfMonth() - 1;
+                return new Rectangle(bounds.x + (cell % 7) * g.cellWidth,
+                        bounds.y + g.titleHeight + (cell / 7 + 1) * g.cellHeight, g.cellWidth, g.cellHeight);
+            }
+        }
+        return null;
+    }
+
+    private void repaintDay(LocalDate date) {
+        Rectangle cell = date != null ? getDayBounds(date) : null;
+        if (cell != null) {
+            repaint(cell);
+        }
+    }
+
+    private MonthRenderModel modelFor(LocalDate date) {
+        YearMonth month = YearMonth.from(date);
+        for (MonthRenderModel model : models) {
+            if (model != null && model.getMonth().equals(month)) {
+                return model;
+            }
+        }
+        throw new IllegalStateException("Month not shown: " + month);
+    }
+
+    /** Cells before the 1st in the first week row, which starts on Monday. */
+    private static int firstOffset(YearMonth month) {
+        return month.atDay(1).getDayOfWeek().getValue() - 1;
+    }
+
+    private int columns() {
+        int n = models.length;
+        return n <= 4 ? n : n <= 6 ? 3 : 4;
+    }
+
+    /** Derives fonts, label widths and minimum cell sizes from the component font, once per font. */
+    private void updateFonts() {
+        if (plainFont != null) {
+            return;
+        }
+        Font base = getFont() != null ? getFont() : UIManager.getFont("Label.font");
+        plainFont = base.deriveFont(Font.PLAIN);
+        boldFont = base.deriveFont(Font.BOLD);
+        titleFont = boldFont.deriveFont(base.getSize2D() + 1f);
+        FontMetrics plain = getFontMetrics(plainFont);
+        FontMetrics bold = getFontMetrics(boldFont);
+        FontMetrics title = getFontMetrics(titleFont);
+        int widest = 0;
+        for (int day = 1; day < DAY_LABELS.length; day++) {
+            plainWidths[day] = plain.stringWidth(DAY_LABELS[day]);
+            boldWidths[day] = bold.stringWidth(DAY_LABELS[day]);
+            widest = Math.max(widest, boldWidths[day]);
+        }
+        Locale locale = getLocale();
+        for (int i = 0; i < 7; i++) {
+            weekdays[i] = DayOfWeek.of(i + 1).getDisplayName(TextStyle.SHORT_STANDALONE, locale);
+            weekdayWidths[i] = plain.stringWidth(weekdays[i]);
+            widest = Math.max(widest, weekdayWidths[i]);
+        }
+        ascent = plain.getAscent();
+        titleAscent = title.getAscent();
+        minCellWidth = widest + 10;
+        minCellHeight = plain.getHeight() + 6;
+        minTitleHeight = title.getHeight() + 6;
+    }
+
+    /** Cell and month sizes for the current component size, stretching cells to fill it. */
+    private Geometry geometry() {
+        updateFonts();
+        Insets insets = getInsets();
+        int columns = columns();
+        int rows = (models.length + columns - 1) / columns;
+        int width = getWidth() - insets.left - insets.right;
+        int height = getHeight() - insets.top - insets.bottom;
+        int cellWidth = Math.max(minCellWidth, (width - (columns - 1) * MONTH_GAP) / (columns * 7));
+        int monthHeight = (height - (rows - 1) * MONTH_GAP) / rows;
+        int cellHeight = Math.max(minCellHeight, (monthHeight - minTitleHeight) / (WEEK_ROWS + 1));
+        int titleHeight = Math.max(minTitleHeight, monthHeight - (WEEK_ROWS + 1) * cellHeight);
+        return new Geometry(insets.left, insets.top, columns, cellWidth, cellHeight, titleHeight,
+                7 * cellWidth, titleHeight + (WEEK_ROWS + 1) * cellHeight);
+    }
+
+    private record Geometry(int x, int y, int columns, int cellWidth, int cellHeight, int titleHeight,
+                            int monthWidth, int monthHeight) {}
+}
@@ -0,0 +1,113 @@
+package com.example.calendarwidget.view;
+
+import com.example.calendarwidget.metrics.Counter;
+import com.example.calendarwidget.metrics.MetricsRegistry;
+import com.example.calendarwidget.model.HolidayIndex;
+import com.example.calendarwidget.model.VacationWindow;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Bounded LRU cache of {@link MonthRenderModel}s keyed by {@link YearMonth}. Models are bound
+ * to the {@link HolidayIndex} and vacation plan they were computed from; switching to a different
+ * index or plan drops them.
+ */
+public class MonthRenderCache {
+    private static final Logger logger = Logger.getLogger(MonthRenderCache.class.getName());
+    private static final Counter hitCounter = MetricsRegistry.getDefault().counter("render.cache.hits");
+    private static final Counter missCounter = MetricsRegistry.getDefault().counter("render.cache.misses");
+    public static final int DEFAULT_CAPACITY = 36;
+
+    private final Map<YearMonth, MonthRenderModel> models;
+    private HolidayIndex holidays;
+    private List<VacationWindow> vacationPlan = Collections.emptyList();
+    private int hits;
+    private int misses;
+
+    public MonthRenderCache(HolidayIndex holidays, int capacity) {
+        this.holidays = holidays;
+        this.models = new LinkedHashMap<>(capacity, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<YearMonth, MonthRenderModel> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    public synchronized MonthRenderModel get(YearMonth month) {
+        MonthRenderModel model = models.get(month);
+        if (model != null) {
+            hits++;
+            hitCounter.increment();
+            return model;
+        }
+        misses++;
+        missCounter.increment();
+        model = MonthRenderModel.compute(month, holidays, vacationPlan);
+        models.put(month, model);
+        logger.fine(() -> "Computed render model for " + month + " (cache hits: " + hits + ", misses: " + misses + ")");
+        return model;
+    }
+
+    public synchronized void setHolidays(HolidayIndex holidays) {
+        if (this.holidays != holidays) {
+            this.holidays = holidays;
+            models.clear();
+        }
+    }
+
+    /**
+     * Switches to {@code holidays}, which differs from the current index only within
+     * {@code from..to}, and drops just the models for those months.
+     */
+    public synchronized void setHolidays(HolidayIndex holidays, YearMonth from, YearMonth to) {
+        this.holidays = holidays;
+        models.keySet().removeIf(month -> !month.isBefore(from) && !month.isAfter(to));
+    }
+
+    /**
+     * Switches to {@code holidays}, which renders differently from the current index only in
+     * {@code changedMonths}, and drops just those models.
+     */
+    public synchronized void setHolidays(HolidayIndex holidays, Collection<YearMonth> changedMonths) {
+        this.holidays = holidays;
+        models.keySet().removeAll(changedMonths);
+    }
+
+    public synchronized void setVacationPlan(List<VacationWindow> vacationPlan) {
+        if (!this.vacationPlan.equals(vacationPlan)) {
+            this.vacationPlan = List.copyOf(vacationPlan);
+            models.clear();
+        }
+    }
+
+    /**
+     * The precomputed detail text of {@code date}: its holidays and suggested breaks, one per
+     * line, or null if there are none. Computes the month's model unless it is cached.
+     */
+    public String getDetails(LocalDate date) {
+        return get(YearMonth.from(date)).getTooltip(date.getDayOfMonth());
+    }
+
+    /** Drops all but the {@code count} most recently used models. */
+    public synchronized void trimTo(int count) {
+        Iterator<YearMonth> eldestFirst = models.keySet().iterator();
+        for (int excess = models.size() - count; excess > 0; excess--) {
+            eldestFirst.next();
+            eldestFirst.remove();
+        }
+    }
+
+    public synchronized int size() { return models.size(); }
+    public synchronized HolidayIndex getHolidays() { return holidays; }
+    public synchronized int getHits() { return hits; }
+    public synchronized int getMisses() { return misses; }
+}
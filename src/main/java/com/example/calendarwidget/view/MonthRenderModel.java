@@ -0,0 +1,112 @@
+package com.example.calendarwidget.view;
+
+import com.example.calendarwidget.model.Holiday;
+import com.example.calendarwidget.model.HolidayIndex;
+import com.example.calendarwidget.model.VacationWindow;
+
+import java.awt.*;
+import java.time.YearMonth;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable per-month rendering decisions: the foreground colour, bold flag, tooltip and vacation
+ * overlay of every day. Computed once from a {@link HolidayIndex} and a vacation plan and then
+ * applied to day cells by position.
+ */
+public final class MonthRenderModel {
+    public static final Color SINGLE_WORK_HOLIDAY_WEEK = Color.CYAN;
+    public static final Color MULTIPLE_WORK_HOLIDAY_WEEK = Color.BLUE;
+    public static final Color DEFAULT_FOREGROUND = Color.BLACK;
+    public static final Color VACATION_BACKGROUND = new Color(255, 224, 130);
+
+    private final YearMonth month;
+    private final Color[] foregrounds;
+    private final boolean[] bold;
+    private final String[] tooltips;
+    private final boolean[] vacation;
+    private final int highlightedDays;
+
+    private MonthRenderModel(YearMonth month, Color[] foregrounds, boolean[] bold, String[] tooltips,
+                             boolean[] vacation, int highlightedDays) {
+        this.month = month;
+        this.foregrounds = foregrounds;
+        this.bold = bold;
+        this.tooltips = tooltips;
+        this.vacation = vacation;
+        this.highlightedDays = highlightedDays;
+    }
+
+    public static MonthRenderModel compute(YearMonth month, HolidayIndex holidays) {
+        return compute(month, holidays, Collections.emptyList());
+    }
+
+    /** As {@link #compute(YearMonth, HolidayIndex)}, with the days of {@code vacationPlan} overlaid. */
+    public static MonthRenderModel compute(YearMonth month, HolidayIndex holidays, List<VacationWindow> vacationPlan) {
+        int length = month.lengthOfMonth();
+        int firstEpochDay = (int) month.atDay(1).toEpochDay();
+        Color[] foregrounds = new Color[length];
+        boolean[] bold = new boolean[length];
+        String[] tooltips = new String[length];
+        boolean[] vacation = new boolean[length];
+        int highlightedDays = 0;
+
+        for (int i = 0; i < length; i++) {
+            int epochDay = firstEpochDay + i;
+            int count = holidays.getWorkHolidayCountForWeek(epochDay);
+            if (count == 0) {
+                foregrounds[i] = DEFAULT_FOREGROUND;
+            } else {
+                foregrounds[i] = count == 1 ? SINGLE_WORK_HOLIDAY_WEEK : MULTIPLE_WORK_HOLIDAY_WEEK;
+                highlightedDays++;
+            }
+            List<Holiday> dayHolidays = holidays.getHolidays(epochDay);
+            if (!dayHolidays.isEmpty()) {
+                bold[i] = true;
+                tooltips[i] = describe(dayHolidays);
+            }
+        }
+        for (VacationWindow window : vacationPlan) {
+            int from = Math.max(window.getStartEpochDay(), firstEpochDay);
+            int to = Math.min(window.getEndEpochDay(), firstEpochDay + length - 1);
+            for (int epochDay = from; epochDay <= to; epochDay++) {
+                int i = epochDay - firstEpochDay;
+                vacation[i] = true;
+                String suggestion = "Suggested break: " + window.getDaysOff() + " days off for "
+                        + window.getLeaveDays() + " leave day" + (window.getLeaveDays() == 1 ? "" : "s")
+                        + " (" + window.getStart() + " to " + window.getEnd() + ")";
+                tooltips[i] = tooltips[i] == null ? suggestion : tooltips[i] + "\n" + suggestion;
+            }
+        }
+        return new MonthRenderModel(month, foregrounds, bold, tooltips, vacation, highlightedDays);
+    }
+
+    /** One line per holiday, in index order (work holidays first). */
+    public static String describe(List<Holiday> dayHolidays) {
+        StringBuilder text = new StringBuilder();
+        for (Holiday h : dayHolidays) {
+            if (text.length() > 0) {
+                text.append('\n');
+            }
+            text.append(h.isWork() ? "Work Holiday: " : "Holiday: ").append(h.getName());
+        }
+        return text.toString();
+    }
+
+    public YearMonth getMonth() { return month; }
+
+    public int getLengthOfMonth() { return foregrounds.length; }
+
+    /** @param day day of month, starting at 1 */
+    public Color getForeground(int day) { return foregrounds[day - 1]; }
+
+    public boolean isBold(int day) { return bold[day - 1]; }
+
+    /** Tooltip for the day, or {@code null} if it has no holidays. */
+    public String getTooltip(int day) { return tooltips[day - 1]; }
+
+    /** Whether the day lies in a suggested vacation window. */
+    public boolean isVacation(int day) { return vacation[day - 1]; }
+
+    public int getHighlightedDays() { return highlightedDays; }
+}
@@ -0,0 +1,16 @@
+package com.example.calendarwidget;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BatchReportTest {
+
+    @Test
+    public void testBadUsageExitsWithTwoBeforeLoadingAnything() {
+        assertEquals(2, BatchReport.run(new String[]{"--countries", "US,U\"S"}));
+        assertEquals(2, BatchReport.run(new String[]{"--countries", "US", "--from", "2026", "--to", "2025"}));
+        assertEquals(2, BatchReport.run(new String[]{"--countries", "US", "--format", "xml"}));
+        assertEquals(2, BatchReport.run(new String[]{"--verbose", "true"}));
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.calendarwidget;
+
+import com.example.calendarwidget.controller.CalendarController;
+import com.example.calendarwidget.model.Holiday;
+import com.example.calendarwidget.model.HolidayIndex;
+import com.example.calendarwidget.model.HolidayType;
+import com.example.calendarwidget.view.CalendarView;
+import com.example.calendarwidget.view.MonthGrid;
+import com.example.calendarwidget.view.MonthRenderModel;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.lang.ref.WeakReference;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CalendarWindowTest {
+    private static final int MONTHS = 12;
+
+    @BeforeAll
+    public static void headless() {
+        System.setProperty("java.awt.headless", "true");
+    }
+
+    /**
+     * Builds, paints and releases the window content a few times, as showing the window and
+     * letting it idle would. Frames cannot be created headless, so this covers the components and
+     * models, not the native window and back buffer that disposing the frame frees as well. Rebuild
+     * time and heap are measured by {@code CalendarWindowBenchmark}.
+     */
+    @Test
+    public void testReleasedWindowIsRebuiltFromRetainedState() throws Exception {
+        LocalDate today = LocalDate.now();
+        CalendarController controller = new CalendarController(holidays(today.getYear() - 1, today.getYear() + 1));
+        CalendarWindow[] window = new CalendarWindow[1];
+        SwingUtilities.invokeAndWait(() -> window[0] = new CalendarWindow(controller, MONTHS, Duration.ofMinutes(5)));
+
+        MonthRenderModel[] shown = new MonthRenderModel[MONTHS];
+        List<WeakReference<JComponent>> built = new ArrayList<>();
+        SwingUtilities.invokeAndWait(() -> {
+            JComponent content = paint(window[0].buildContent());
+            built.add(new WeakReference<>(content));
+            MonthGrid grid = view(content).getMonthGrid();
+            for (int i = 0; i < MONTHS; i++) {
+                shown[i] = grid.getModel(i);
+            }
+            window[0].releaseContent();
+        });
+
+        // Rebuilding reuses the retained render models of the months last shown
+        SwingUtilities.invokeAndWait(() -> {
+            MonthGrid grid = view(window[0].buildContent()).getMonthGrid();
+            for (int i = 0; i < MONTHS; i++) {
+                assertSame(shown[i], grid.getModel(i));
+            }
+            window[0].releaseContent();
+        });
+
+        // Holidays published while released are shown once rebuilt
+        LocalDate holiday = today.withDayOfMonth(15);
+        HolidayIndex year = HolidayIndex.builder()
+                .add(new Holiday(holiday, "Released Day", HolidayType.WORK)).build();
+        SwingUtilities.invokeAndWait(() -> controller.publishYear(today.getYear(), year));
+        for (int i = 0; i < 8; i++) {
+            SwingUtilities.invokeAndWait(() -> {
+                JComponent rebuilt = paint(window[0].buildContent());
+                MonthGrid grid = view(rebuilt).getMonthGrid();
+                assertEquals("Work Holiday: Released Day", grid.getModel((MONTHS - 1) / 2).getTooltip(15));
+                built.add(new WeakReference<>(rebuilt));
+                window[0].releaseContent();
+            });
+        }
+        controller.shutdown();
+
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        // Look and feel painters keep soft references to the last few components painted, so
+        // only the earlier builds must be gone
+        for (int i = 0; i < built.size() - 4; i++) {
+            assertNull(built.get(i).get(), "Build " + i + " is still reachable after release");
+        }
+    }
+
+    private static HolidayIndex holidays(int fromYear, int toYear) {
+        HolidayIndex.Builder builder = HolidayIndex.builder();
+        for (int year = fromYear; year <= toYear; year++) {
+            for (int month = 1; month <= 12; month++) {
+                builder.add(new Holiday(LocalDate.of(year, month, 1), "First " + month, HolidayType.REGULAR));
+                builder.add(new Holiday(LocalDate.of(year, month, 20), "Site " + month, HolidayType.WORK));
+            }
+        }
+        return builder.build();
+    }
+
+    private static CalendarView view(Object content) {
+        for (Component child : ((Container) content).getComponents()) {
+            if (child instanceof CalendarView view) {
+                return view;
+            }
+        }
+        throw new AssertionError("No calendar view in " + content);
+    }
+
+    /** Lays out and paints {@code content} at the window's size, as showing the frame would. */
+    private static JComponent paint(JComponent content) {
+        content.setSize(content.getPreferredSize().width, 400);
+        layout(content);
+        BufferedImage image = new BufferedImage(content.getWidth(), content.getHeight(), BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        content.paint(g);
+        g.dispose();
+        return content;
+    }
+
+    private static void layout(Component component) {
+        if (component instanceof Container container) {
+            container.doLayout();
+            for (Component child : container.getComponents()) {
+                layout(child);
+            }
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.example.calendarwidget.controller;
+
+import com.example.calendarwidget.model.Holiday;
+import com.example.calendarwidget.model.HolidayIndex;
+import com.example.calendarwidget.model.HolidayType;
+import com.example.calendarwidget.service.HolidaySource;
+import com.example.calendarwidget.service.HolidayYearLoader;
+import com.example.calendarwidget.view.CalendarView;
+import com.example.calendarwidget.view.MonthGrid;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.MouseEvent;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CalendarControllerTest {
+
+    @BeforeAll
+    public static void headless() {
+        System.setProperty("java.awt.headless", "true");
+    }
+
+    /** Records every month actually rendered on the EDT. */
+    private static class RecordingView extends CalendarView {
+        final List<LocalDate> rendered = new CopyOnWriteArrayList<>();
+        final List<LocalDate> detailed = new CopyOnWriteArrayList<>();
+
+        RecordingView() {
+            super(HolidayIndex.EMPTY);
+        }
+
+        @Override
+        public void updateCalendars(LocalDate currentMonth) {
+            assertTrue(SwingUtilities.isEventDispatchThread());
+            rendered.add(currentMonth);
+            super.updateCalendars(currentMonth);
+        }
+
+        @Override
+        public void showDayDetails(LocalDate date) {
+            detailed.add(date);
+            super.showDayDetails(date);
+        }
+    }
+
+    @Test
+    public void testBurstOfClicksCollapsesIntoFinalRender() throws Exception {
+        RecordingView[] view = new RecordingView[1];
+        CalendarController[] controller = new CalendarController[1];
+        SwingUtilities.invokeAndWait(() -> {
+            view[0] = new RecordingView();
+            controller[0] = new CalendarController(view[0], HolidayIndex.EMPTY);
+        });
+        LocalDate start = view[0].rendered.get(0);
+
+        SwingUtilities.invokeAndWait(() -> {
+            for (int i = 0; i < 10; i++) {
+                controller[0].navigateNext();
+            }
+            controller[0].navigatePrevious();
+        });
+        LocalDate expected = start.plusMonths(9);
+
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!expected.equals(view[0].rendered.get(view[0].rendered.size() - 1))
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            SwingUtilities.invokeAndWait(() -> {});
+        }
+        controller[0].shutdown();
+
+        List<LocalDate> rendered = view[0].rendered;
+        assertEquals(expected, rendered.get(rendered.size() - 1));
+        assertEquals(2, rendered.size(), "Intermediate months should not be rendered: " + rendered);
+    }
+
+    @Test
+    public void testNavigatingAfterShutdownIsIgnored() throws Exception {
+        SwingUtilities.invokeAndWait(() -> {
+            CalendarController controller = new CalendarController(new RecordingView(), HolidayIndex.EMPTY);
+            controller.shutdown();
+            assertDoesNotThrow(() -> {
+                controller.navigateNext();
+                controller.navigatePrevious();
+            });
+        });
+    }
+
+    @Test
+    public void testNavigationLoadsYearsBeyondStartupWindowOnce() throws Exception {
+        int year = LocalDate.now().getYear();
+        List<Integer> loadedYears = new CopyOnWriteArrayList<>();
+        HolidaySource source = new HolidaySource() {
+            @Override
+            public String getName() { return "test"; }
+
+            @Override
+            public HolidayIndex load(int fromYear, int toYear) {
+                loadedYears.add(fromYear);
+                return HolidayIndex.builder()
+                        .add(new Holiday(LocalDate.of(fromYear, 7, 4), "Independence Day", HolidayType.WORK))
+                        .build();
+            }
+        };
+        CalendarController[] controller = new CalendarController[1];
+        SwingUtilities.invokeAndWait(() -> {
+            controller[0] = new CalendarController(new CalendarView(HolidayIndex.EMPTY), HolidayIndex.EMPTY);
+            // Loads run inline on the EDT here, so publishing needs no hand-off
+            HolidayYearLoader loader = new HolidayYearLoader(source, Runnable::run, controller[0]::publishYear);
+            loader.markLoaded(year - 1, year + 1);
+            controller[0].setYearLoader(loader);
+            assertTrue(loadedYears.isEmpty(), "The startup window is already loaded");
+
+            for (int i = 0; i < 24; i++) {
+                controller[0].navigateNext();
+            }
+        });
+        assertTrue(loadedYears.contains(year + 2), "Navigated into " + (year + 2) + ": " + loadedYears);
+        assertEquals(loadedYears.size(), loadedYears.stream().distinct().count(), "Each year loads once: " + loadedYears);
+        assertFalse(controller[0].getHolidays().getHolidays(LocalDate.of(year + 2, 7, 4)).isEmpty());
+
+        SwingUtilities.invokeAndWait(() -> {
+            for (int i = 0; i < 60; i++) {
+                controller[0].navigatePrevious();
+            }
+        });
+        controller[0].shutdown();
+        assertTrue(loadedYears.contains(year - 2), "Navigated back into " + (year - 2) + ": " + loadedYears);
+        assertFalse(loadedYears.contains(year) || loadedYears.contains(year - 1) || loadedYears.contains(year + 1));
+    }
+
+    @Test
+    public void testBurstOfClicksUpdatesDetailPaneOnceAndNavigationNever() throws Exception {
+        LocalDate month = LocalDate.now().withDayOfMonth(1);
+        LocalDate closure = month.withDayOfMonth(10);
+        HolidayIndex holidays = HolidayIndex.builder()
+                .add(new Holiday(closure, "Office Closure", HolidayType.WORK))
+                .build();
+        RecordingView[] view = new RecordingView[1];
+        CalendarController[] controller = new CalendarController[1];
+        SwingUtilities.invokeAndWait(() -> {
+            view[0] = new RecordingView();
+            controller[0] = new CalendarController(view[0], holidays);
+            MonthGrid grid = view[0].getMonthGrid();
+            grid.setSize(grid.getPreferredSize());
+            for (int day : new int[] {3, 5, 10}) {
+                grid.dispatchEvent(click(grid, month.withDayOfMonth(day)));
+            }
+            controller[0].navigateNext();
+            controller[0].navigatePrevious();
+        });
+        waitForDetails(view[0], 1);
+        assertEquals(List.of(closure), view[0].detailed, "Only the last click of a burst is detailed");
+        assertEquals("Work Holiday: Office Closure", view[0].getDetailsPane().getText());
+
+        // New data for the selected day is shown without another click
+        SwingUtilities.invokeAndWait(() -> controller[0].publishYear(closure.getYear(), HolidayIndex.builder()
+                .add(new Holiday(closure, "Inventory Day", HolidayType.REGULAR)).build()));
+        waitForDetails(view[0], 2);
+        controller[0].shutdown();
+        assertEquals("Holiday: Inventory Day", view[0].getDetailsPane().getText());
+        assertEquals(2, view[0].detailed.size());
+    }
+
+    private static void waitForDetails(RecordingView view, int count) throws Exception {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (view.detailed.size() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        // Let any further, wrongly undebounced update arrive before checking
+        Thread.sleep(3L * CalendarController.DETAILS_DEBOUNCE_MILLIS);
+        SwingUtilities.invokeAndWait(() -> {});
+    }
+
+    private static MouseEvent click(MonthGrid grid, LocalDate date) {
+        Rectangle cell = grid.getDayBounds(date);
+        return new MouseEvent(grid, MouseEvent.MOUSE_CLICKED, 0, MouseEvent.BUTTON1_DOWN_MASK,
+                (int) cell.getCenterX(), (int) cell.getCenterY(), 1, false, MouseEvent.BUTTON1);
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.calendarwidget.metrics;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.management.MBeanServer;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MetricsRegistryTest {
+
+    @Test
+    public void testMetricsAreCreatedOnceByName() {
+        MetricsRegistry registry = new MetricsRegistry(false);
+
+        registry.counter("requests").increment();
+        registry.counter("requests").add(2);
+        registry.gauge("queue").set(7);
+
+        assertSame(registry.counter("requests"), registry.counter("requests"));
+        assertEquals(3, registry.counter("requests").getCount());
+        assertEquals(7, registry.gauge("queue").getValue());
+        assertThrows(IllegalArgumentException.class, () -> registry.histogram("requests"));
+    }
+
+    @Test
+    public void testHistogramPercentilesWithinBucketPrecision() {
+        Histogram histogram = new MetricsRegistry(false).histogram("latency");
+        for (int i = 0; i < 90; i++) {
+            histogram.record(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+        for (int i = 0; i < 10; i++) {
+            histogram.record(TimeUnit.MILLISECONDS.toNanos(100));
+        }
+
+        assertEquals(100, histogram.getCount());
+        assertEquals(10.9, histogram.getMeanMillis(), 0.001);
+        assertEquals(100.0, histogram.getMaxMillis(), 0.001);
+        // Power-of-two buckets: each percentile lies within a factor of two of the true value
+        assertTrue(histogram.getP50Millis() >= 1 && histogram.getP50Millis() <= 2.1, "p50 " + histogram.getP50Millis());
+        assertTrue(histogram.getP90Millis() >= 1 && histogram.getP90Millis() <= 2.1, "p90 " + histogram.getP90Millis());
+        assertTrue(histogram.getP99Millis() >= 50 && histogram.getP99Millis() <= 100, "p99 " + histogram.getP99Millis());
+    }
+
+    @Test
+    public void testDefaultRegistryPublishesToJmx() throws Exception {
+        Counter counter = MetricsRegistry.getDefault().counter("test.jmx.counter");
+        counter.add(5);
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        assertEquals(5L, server.getAttribute(MetricsRegistry.objectName("Counter", "test.jmx.counter"), "Count"));
+
+        MetricsRegistry.getDefault().histogram("test.jmx.latency").record(TimeUnit.MILLISECONDS.toNanos(3));
+        assertEquals(1L, server.getAttribute(MetricsRegistry.objectName("Histogram", "test.jmx.latency"), "Count"));
+    }
+
+    @Test
+    public void testDumpWritesSnapshot(@TempDir Path dir) throws Exception {
+        MetricsRegistry registry = new MetricsRegistry(false);
+        registry.counter("holiday.fetch.status.200").add(3);
+        registry.histogram("holiday.fetch.latency").record(TimeUnit.MILLISECONDS.toNanos(12));
+
+        Path file = dir.resolve("metrics.txt");
+        registry.dumpTo(file);
+
+        String dump = Files.readString(file);
+        assertTrue(dump.contains("holiday.fetch.status.200 count=3"), dump);
+        assertTrue(dump.contains("holiday.fetch.latency count=1"), dump);
+        assertTrue(dump.indexOf("holiday.fetch.latency") < dump.indexOf("holiday.fetch.status.200"), dump);
+    }
+}
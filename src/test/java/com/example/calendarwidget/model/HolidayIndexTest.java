@@ -0,0 +1,132 @@
+package com.example.calendarwidget.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HolidayIndexTest {
+
+    private static HolidayIndex sampleIndex() {
+        return HolidayIndex.builder()
+                .add(new Holiday(LocalDate.of(2025, 12, 25), "Christmas Day", HolidayType.WORK))
+                .add(new Holiday(LocalDate.of(2025, 7, 4), "Independence Day", HolidayType.REGULAR))
+                .add(new Holiday(LocalDate.of(2025, 12, 24), "Christmas Eve", HolidayType.REGULAR))
+                .add(new Holiday(LocalDate.of(2025, 12, 24), "Office Closure", HolidayType.WORK))
+                .add(new Holiday(LocalDate.of(2025, 11, 27), "Thanksgiving Day", HolidayType.WORK))
+                .build();
+    }
+
+    @Test
+    public void testDayLookupOrdersWorkHolidaysFirst() {
+        HolidayIndex index = sampleIndex();
+
+        List<Holiday> christmasEve = index.getHolidays(LocalDate.of(2025, 12, 24));
+        assertEquals(2, christmasEve.size());
+        assertEquals("Office Closure", christmasEve.get(0).getName());
+        assertEquals("Christmas Eve", christmasEve.get(1).getName());
+        assertTrue(index.getHolidays(LocalDate.of(2025, 12, 26)).isEmpty());
+        assertEquals(4, index.size());
+        assertEquals(5, index.getHolidayCount());
+    }
+
+    @Test
+    public void testRangeAndNextQueries() {
+        HolidayIndex index = sampleIndex();
+
+        List<Holiday> range = index.getHolidaysInRange(LocalDate.of(2025, 11, 1), LocalDate.of(2025, 12, 24));
+        assertEquals(List.of("Thanksgiving Day", "Office Closure", "Christmas Eve"),
+                range.stream().map(Holiday::getName).toList());
+        assertTrue(index.getHolidaysInRange(LocalDate.of(2025, 8, 1), LocalDate.of(2025, 8, 31)).isEmpty());
+
+        List<Holiday> next = index.getNextHolidays(LocalDate.of(2025, 7, 5), 2);
+        assertEquals(List.of("Thanksgiving Day", "Office Closure"), next.stream().map(Holiday::getName).toList());
+        assertTrue(index.getNextHolidays(LocalDate.of(2026, 1, 1), 3).isEmpty());
+    }
+
+    @Test
+    public void testWeekCountsCoverWholeIsoWeek() {
+        HolidayIndex index = sampleIndex();
+
+        // 2025-12-22 (Mon) .. 2025-12-28 (Sun) holds Office Closure and Christmas Day
+        assertEquals(2, index.getWorkHolidayCountForWeek(LocalDate.of(2025, 12, 22)));
+        assertEquals(2, index.getWorkHolidayCountForWeek(LocalDate.of(2025, 12, 28)));
+        assertEquals(1, index.getWorkHolidayCountForWeek(LocalDate.of(2025, 11, 24)));
+        assertEquals(0, index.getWorkHolidayCountForWeek(LocalDate.of(2025, 7, 4)));
+        assertEquals(0, index.getWorkHolidayCountForWeek(LocalDate.of(2025, 12, 29)));
+    }
+
+    @Test
+    public void testWeekStartIsMonday() {
+        for (LocalDate d = LocalDate.of(1969, 12, 20); d.isBefore(LocalDate.of(1970, 1, 20)); d = d.plusDays(1)) {
+            LocalDate monday = LocalDate.ofEpochDay(HolidayIndex.weekStart((int) d.toEpochDay()));
+            assertEquals(DayOfWeek.MONDAY, monday.getDayOfWeek());
+            assertTrue(!monday.isAfter(d) && monday.plusDays(7).isAfter(d));
+        }
+    }
+
+    @Test
+    public void testEmptyIndex() {
+        assertTrue(HolidayIndex.EMPTY.isEmpty());
+        assertTrue(HolidayIndex.EMPTY.getHolidays(LocalDate.of(2025, 1, 1)).isEmpty());
+        assertEquals(0, HolidayIndex.EMPTY.getWorkHolidayCountForWeek(LocalDate.of(2025, 1, 1)));
+    }
+
+    @Test
+    public void testReplaceYearKeepsOtherYears() {
+        HolidayIndex index = HolidayIndex.builder()
+                .addAll(sampleIndex())
+                .add(new Holiday(LocalDate.of(2026, 1, 1), "New Year's Day", HolidayType.REGULAR))
+                .build();
+        HolidayIndex replacement = HolidayIndex.builder()
+                .add(new Holiday(LocalDate.of(2025, 12, 26), "Boxing Day", HolidayType.WORK))
+                .add(new Holiday(LocalDate.of(2026, 5, 1), "Outside Year", HolidayType.WORK))
+                .build();
+
+        HolidayIndex replaced = index.replaceYear(2025, replacement);
+
+        assertEquals(2, replaced.size());
+        assertEquals("Boxing Day", replaced.getHolidays(LocalDate.of(2025, 12, 26)).get(0).getName());
+        assertEquals("New Year's Day", replaced.getHolidays(LocalDate.of(2026, 1, 1)).get(0).getName());
+        assertTrue(replaced.getHolidays(LocalDate.of(2025, 12, 25)).isEmpty());
+        assertTrue(replaced.getHolidays(LocalDate.of(2026, 5, 1)).isEmpty());
+        assertEquals(1, replaced.getWorkHolidayCountForWeek(LocalDate.of(2025, 12, 22)));
+    }
+
+    @Test
+    public void testChangedMonthsIncludeSharedWeeks() {
+        HolidayIndex before = sampleIndex();
+        // 2025-12-29 is a Monday whose week runs into January 2026
+        HolidayIndex after = HolidayIndex.builder()
+                .addAll(before)
+                .add(new Holiday(LocalDate.of(2025, 12, 31), "New Year's Eve", HolidayType.WORK))
+                .build();
+
+        assertEquals(Set.of(YearMonth.of(2025, 12), YearMonth.of(2026, 1)),
+                HolidayIndex.changedMonths(before, after, YearMonth.of(2025, 1), YearMonth.of(2026, 12)));
+        assertTrue(HolidayIndex.changedMonths(before, sampleIndex(), YearMonth.of(2025, 1), YearMonth.of(2025, 12)).isEmpty());
+        assertTrue(after.estimatedBytes() > before.estimatedBytes());
+    }
+
+    @Test
+    public void testEstimatedBytesCountEachNameOnce() {
+        LocalDate day = LocalDate.of(2026, 5, 1);
+        HolidayIndex shortName = HolidayIndex.builder().add(new Holiday(day, "May Day", HolidayType.REGULAR)).build();
+        HolidayIndex longName = HolidayIndex.builder()
+                .add(new Holiday(day, "International Workers' Day", HolidayType.REGULAR)).build();
+        HolidayIndex repeated = HolidayIndex.builder()
+                .add(new Holiday(day, "May Day", HolidayType.REGULAR))
+                .add(new Holiday(day.plusYears(1), new String("May Day"), HolidayType.REGULAR))
+                .build();
+
+        assertEquals("International Workers' Day".length() - "May Day".length(),
+                longName.estimatedBytes() - shortName.estimatedBytes());
+        // A second holiday with the same name adds its own fields, not another copy of the name
+        assertTrue(repeated.estimatedBytes() - shortName.estimatedBytes() < 24 + 4 * 6 + "May Day".length());
+    }
+}
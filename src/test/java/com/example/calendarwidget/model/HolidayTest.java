@@ -1,35 +1,105 @@
 package com.example.calendarwidget.model;
 
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
 import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 public class HolidayTest {
 
     @Test
     public void testHolidayCreation() {
-        Holiday holiday = new Holiday("2026-01-01", "New Year's Day", "regular");
-        assertEquals("2026-01-01", holiday.getDate());
+        Holiday holiday = new Holiday(LocalDate.of(2026, 1, 1), "New Year's Day", HolidayType.REGULAR);
+        assertEquals(LocalDate.of(2026, 1, 1), holiday.getDate());
+        assertEquals(LocalDate.of(2026, 1, 1).toEpochDay(), holiday.getEpochDay());
         assertEquals("New Year's Day", holiday.getName());
-        assertEquals("regular", holiday.getType());
+        assertEquals(HolidayType.REGULAR, holiday.getType());
+        assertFalse(holiday.isWork());
+    }
+
+    @Test
+    public void testHolidayEquality() {
+        Holiday a = new Holiday(LocalDate.of(2026, 12, 25), "Christmas Day", HolidayType.WORK);
+        Holiday b = new Holiday((int) LocalDate.of(2026, 12, 25).toEpochDay(), "Christmas Day", HolidayType.WORK);
+
+        assertEquals(a, b);
+        assertEquals(a.hashCode(), b.hashCode());
+        assertNotEquals(a, new Holiday(LocalDate.of(2026, 12, 25), "Christmas Day", HolidayType.REGULAR));
+        assertTrue(a.isWork());
+    }
+
+    @Test
+    public void testNamesAreSharedAcrossInstances() {
+        Holiday first = new Holiday(LocalDate.of(2025, 7, 4), new String("Independence Day"), HolidayType.REGULAR);
+        Holiday second = new Holiday(LocalDate.of(2026, 7, 4), new String("Independence Day"), HolidayType.REGULAR);
+        assertSame(first.getName(), second.getName());
     }
 
     @Test
-    public void testHolidaySetters() {
-        Holiday holiday = new Holiday();
-        holiday.setDate("2026-12-25");
-        holiday.setName("Christmas Day");
-        holiday.setType("work");
-
-        assertEquals("2026-12-25", holiday.getDate());
-        assertEquals("Christmas Day", holiday.getName());
-        assertEquals("work", holiday.getType());
+    public void testTypeWireNames() {
+        assertEquals(HolidayType.WORK, HolidayType.fromWireName("work"));
+        assertEquals(HolidayType.WORK, HolidayType.fromWireName("WORK"));
+        assertEquals(HolidayType.REGULAR, HolidayType.fromWireName("regular"));
+        assertEquals(HolidayType.REGULAR, HolidayType.fromWireName(null));
+        assertEquals("work", HolidayType.WORK.getWireName());
     }
 
     @Test
-    public void testHolidayDefaultConstructor() {
-        Holiday holiday = new Holiday();
-        assertNull(holiday.getDate());
-        assertNull(holiday.getName());
-        assertNull(holiday.getType());
+    public void testGsonWireFormatIsUnchanged() {
+        Gson gson = new Gson();
+        Holiday holiday = new Holiday(LocalDate.of(2026, 12, 25), "Christmas Day", HolidayType.WORK);
+
+        String json = gson.toJson(holiday);
+        assertEquals("{\"date\":\"2026-12-25\",\"name\":\"Christmas Day\",\"type\":\"work\"}", json);
+        assertEquals(holiday, gson.fromJson(json, Holiday.class));
+
+        // Raw Nager.Date entries carry extra fields and no type
+        List<Holiday> nager = gson.fromJson(
+                "[{\"date\":\"2026-07-04\",\"localName\":\"Independence Day\",\"name\":\"Independence Day\","
+                        + "\"countryCode\":\"US\",\"global\":true,\"counties\":null,\"types\":[\"Public\"]}]",
+                new TypeToken<List<Holiday>>(){}.getType());
+        assertEquals(List.of(new Holiday(LocalDate.of(2026, 7, 4), "Independence Day", HolidayType.REGULAR)), nager);
+
+        assertThrows(JsonParseException.class, () -> gson.fromJson("{\"name\":\"No Date\"}", Holiday.class));
+    }
+
+    @Test
+    public void testCompactModelHoldsEachNameOnce() {
+        // 100 countries x 40 years x 12 recurring names, as a multi-country store would hold
+        String[] names = {"New Year's Day", "Martin Luther King, Jr. Day", "Washington's Birthday", "Good Friday",
+                "Memorial Day", "Juneteenth", "Independence Day", "Labour Day", "Columbus Day", "Veterans Day",
+                "Thanksgiving Day", "Christmas Day"};
+        int countries = 100;
+        int years = 40;
+
+        HolidayIndex.Builder parsed = HolidayIndex.builder();
+        HolidayIndex.Builder shared = HolidayIndex.builder();
+        Set<String> instances = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (int c = 0; c < countries; c++) {
+            for (int y = 2000; y < 2000 + years; y++) {
+                for (int i = 0; i < names.length; i++) {
+                    HolidayType type = i >= 10 ? HolidayType.WORK : HolidayType.REGULAR;
+                    // Each parsed entry arrives with its own name string
+                    Holiday holiday = new Holiday(LocalDate.of(y, i + 1, 1), new String(names[i]), type);
+                    instances.add(holiday.getName());
+                    parsed.add(holiday);
+                    shared.add(new Holiday(LocalDate.of(y, i + 1, 1), names[i], type));
+                }
+            }
+        }
+
+        assertEquals(names.length, instances.size());
+        HolidayIndex index = parsed.build();
+        assertEquals(countries * years * names.length, index.getHolidayCount());
+        // Fresh strings per entry cost no more than names shared from the start
+        assertEquals(shared.build().estimatedBytes(), index.estimatedBytes());
     }
-}
\ No newline at end of file
+}
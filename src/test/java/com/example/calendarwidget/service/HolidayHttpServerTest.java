@@ -0,0 +1,112 @@
+package com.example.calendarwidget.service;
+
+import com.example.calendarwidget.model.Holiday;
+import com.example.calendarwidget.model.HolidayIndex;
+import com.example.calendarwidget.model.HolidayType;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HolidayHttpServerTest {
+
+    private final AtomicReference<HolidayIndex> holidays = new AtomicReference<>(HolidayIndex.builder()
+            .add(new Holiday(LocalDate.of(2025, 7, 4), "Independence Day", HolidayType.REGULAR))
+            .add(new Holiday(LocalDate.of(2025, 11, 27), "Thanksgiving Day", HolidayType.WORK))
+            .add(new Holiday(LocalDate.of(2025, 12, 24), "Christmas Eve", HolidayType.REGULAR))
+            .add(new Holiday(LocalDate.of(2025, 12, 25), "Christmas Day", HolidayType.WORK))
+            .add(new Holiday(LocalDate.of(2025, 12, 26), "Office Closure", HolidayType.WORK))
+            .build());
+    private final HttpClient client = HttpClient.newHttpClient();
+    private HolidayHttpServer server;
+
+    @BeforeEach
+    public void start() throws IOException {
+        server = new HolidayHttpServer(holidays::get, 0);
+        server.start();
+    }
+
+    @AfterEach
+    public void stop() {
+        server.stop();
+    }
+
+    private HttpResponse<String> get(String pathAndQuery, String ifNoneMatch) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + server.getPort() + pathAndQuery));
+        if (ifNoneMatch != null) {
+            request.header("If-None-Match", ifNoneMatch);
+        }
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    @Test
+    public void testQueries() throws Exception {
+        JsonArray day = JsonParser.parseString(get("/day?date=2025-12-25", null).body()).getAsJsonArray();
+        assertEquals(1, day.size());
+        assertEquals("Christmas Day", day.get(0).getAsJsonObject().get("name").getAsString());
+        assertEquals("work", day.get(0).getAsJsonObject().get("type").getAsString());
+
+        JsonArray range = JsonParser.parseString(get("/range?from=2025-12-01&to=2025-12-31", null).body()).getAsJsonArray();
+        assertEquals(3, range.size());
+        assertEquals("2025-12-24", range.get(0).getAsJsonObject().get("date").getAsString());
+
+        JsonObject week = JsonParser.parseString(get("/week?date=2025-12-28", null).body()).getAsJsonObject();
+        assertEquals("2025-12-22", week.get("weekStart").getAsString());
+        assertEquals(2, week.get("workHolidays").getAsInt());
+        assertEquals("multiple", week.get("level").getAsString());
+
+        JsonArray next = JsonParser.parseString(get("/next?from=2025-07-05&n=2", null).body()).getAsJsonArray();
+        assertEquals("Thanksgiving Day", next.get(0).getAsJsonObject().get("name").getAsString());
+        assertEquals("Christmas Eve", next.get(1).getAsJsonObject().get("name").getAsString());
+    }
+
+    @Test
+    public void testEtagFollowsSnapshotVersion() throws Exception {
+        HttpResponse<String> first = get("/day?date=2025-12-25", null);
+        String etag = first.headers().firstValue("ETag").orElseThrow();
+        assertEquals(200, first.statusCode());
+
+        HttpResponse<String> cached = get("/day?date=2025-12-25", etag);
+        assertEquals(304, cached.statusCode());
+        assertEquals("", cached.body());
+        // Every resource of one snapshot shares its version
+        assertEquals(304, get("/week?date=2025-01-01", etag).statusCode());
+
+        holidays.set(holidays.get().replaceYear(2025, HolidayIndex.builder()
+                .add(new Holiday(LocalDate.of(2025, 12, 25), "Christmas Day", HolidayType.REGULAR))
+                .build()));
+        HttpResponse<String> changed = get("/day?date=2025-12-25", etag);
+        assertEquals(200, changed.statusCode());
+        assertNotEquals(etag, changed.headers().firstValue("ETag").orElseThrow());
+        assertTrue(changed.body().contains("\"regular\""), changed.body());
+    }
+
+    @Test
+    public void testBadRequests() throws Exception {
+        assertEquals(400, get("/day?date=tomorrow", null).statusCode());
+        assertEquals(400, get("/day", null).statusCode());
+        assertEquals(400, get("/range?from=2025-12-31&to=2025-01-01", null).statusCode());
+        assertEquals(400, get("/range?from=2000-01-01&to=2025-01-01", null).statusCode());
+        assertEquals(400, get("/next?from=2025-01-01&n=0", null).statusCode());
+        HttpResponse<String> unknown = get("/holidays", null);
+        assertEquals(404, unknown.statusCode());
+        assertTrue(unknown.headers().firstValue("ETag").isEmpty());
+        assertTrue(JsonParser.parseString(unknown.body()).getAsJsonObject().has("error"));
+
+        HttpRequest post = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + server.getPort() + "/day"))
+                .POST(HttpRequest.BodyPublishers.noBody()).build();
+        assertEquals(405, client.send(post, HttpResponse.BodyHandlers.ofString()).statusCode());
+    }
+}
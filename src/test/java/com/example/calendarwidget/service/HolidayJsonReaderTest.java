@@ -0,0 +1,125 @@
+package com.example.calendarwidget.service;
+
+import com.example.calendarwidget.model.Holiday;
+import com.example.calendarwidget.model.HolidayIndex;
+import com.example.calendarwidget.model.HolidayType;
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HolidayJsonReaderTest {
+
+    private static byte[] payload(int years, int perYear) {
+        StringBuilder json = new StringBuilder("[");
+        for (int y = 0; y < years; y++) {
+            for (int i = 0; i < perYear; i++) {
+                if (json.length() > 1) {
+                    json.append(',');
+                }
+                LocalDate date = LocalDate.of(1990 + y, 1, 1).plusDays(i % 365);
+                json.append("{\"date\":\"").append(date).append("\",\"localName\":\"Local ").append(i)
+                        .append("\",\"name\":\"Holiday ").append(i % 40 == 0 ? "Christmas " : "").append(i)
+                        .append("\",\"countryCode\":\"US\",\"fixed\":false,\"global\":true,\"counties\":null,")
+                        .append("\"launchYear\":null,\"types\":[\"Public\"]}");
+            }
+        }
+        return json.append(']').toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testReadsHolidayFieldsAndSkipsOthers() throws IOException {
+        byte[] json = ("[{\"date\":\"2025-12-25\",\"localName\":\"Christmas\",\"name\":\"Christmas Day\",\"types\":[\"Public\"]},"
+                + "{\"date\":\"not-a-date\",\"name\":\"Broken\"},"
+                + "{\"name\":\"No Date\"},"
+                + "{\"date\":\"2025-07-04\",\"name\":\"Independence Day\",\"counties\":{\"a\":[1,2]}}]  ")
+                .getBytes(StandardCharsets.UTF_8);
+        List<String> seen = new ArrayList<>();
+        ByteArrayInputStream in = new ByteArrayInputStream(json);
+
+        int count = HolidayJsonReader.read(in, (epochDay, date, name) ->
+                seen.add(LocalDate.ofEpochDay(epochDay) + "|" + date + "|" + name));
+
+        assertEquals(2, count);
+        assertEquals(List.of("2025-12-25|2025-12-25|Christmas Day", "2025-07-04|2025-07-04|Independence Day"), seen);
+        assertEquals(0, in.available());
+    }
+
+    @Test
+    public void testRejectsNonArrayBody() {
+        ByteArrayInputStream in = new ByteArrayInputStream("{\"message\":\"nope\"}".getBytes(StandardCharsets.UTF_8));
+        assertThrows(IOException.class, () -> HolidayJsonReader.read(in, (epochDay, date, name) -> {}));
+    }
+
+    @Test
+    public void testParseEpochDay() {
+        assertEquals(LocalDate.of(2024, 2, 29).toEpochDay(), HolidayJsonReader.parseEpochDay("2024-02-29"));
+        assertEquals(LocalDate.of(1969, 12, 31).toEpochDay(), HolidayJsonReader.parseEpochDay("1969-12-31"));
+        assertThrows(Exception.class, () -> HolidayJsonReader.parseEpochDay("2023-02-29"));
+    }
+
+    /**
+     * Compares bytes allocated by the previous ingestion path (whole body as a String, reflective
+     * Gson binding into a List, then LocalDate.parse into a HashMap) with the streaming path.
+     */
+    @Test
+    public void testStreamingAllocatesLessThanBufferedBinding() throws IOException {
+        byte[] json = payload(50, 400);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().threadId();
+
+        // Warm up both paths so class loading and JIT do not skew the measurement
+        for (int i = 0; i < 3; i++) {
+            legacyIngest(json);
+            streamingIngest(json);
+        }
+
+        long before = threads.getThreadAllocatedBytes(threadId);
+        Map<LocalDate, List<LegacyHoliday>> legacy = legacyIngest(json);
+        long legacyBytes = threads.getThreadAllocatedBytes(threadId) - before;
+
+        before = threads.getThreadAllocatedBytes(threadId);
+        HolidayIndex streamed = streamingIngest(json);
+        long streamingBytes = threads.getThreadAllocatedBytes(threadId) - before;
+
+        assertEquals(legacy.size(), streamed.size());
+        assertTrue(streamingBytes < legacyBytes,
+                "Streaming allocated " + streamingBytes + " bytes vs " + legacyBytes + " for the buffered path");
+    }
+
+    private static Map<LocalDate, List<LegacyHoliday>> legacyIngest(byte[] json) {
+        String body = new String(json, StandardCharsets.UTF_8);
+        List<LegacyHoliday> list = new Gson().fromJson(body, new TypeToken<List<LegacyHoliday>>(){}.getType());
+        Map<LocalDate, List<LegacyHoliday>> holidays = new HashMap<>();
+        for (LegacyHoliday h : list) {
+            h.type = h.name.contains("Christmas") ? "work" : "regular";
+            holidays.computeIfAbsent(LocalDate.parse(h.date), k -> new ArrayList<>()).add(h);
+        }
+        return holidays;
+    }
+
+    /** The reflectively bound, string-typed holiday the buffered path used to produce. */
+    private static class LegacyHoliday {
+        String date;
+        String name;
+        String type;
+    }
+
+    private static HolidayIndex streamingIngest(byte[] json) throws IOException {
+        HolidayIndex.Builder builder = HolidayIndex.builder();
+        HolidayJsonReader.read(new ByteArrayInputStream(json), (epochDay, date, name) ->
+                builder.add(new Holiday(epochDay, name, name.contains("Christmas") ? HolidayType.WORK : HolidayType.REGULAR)));
+        return builder.build();
+    }
+}
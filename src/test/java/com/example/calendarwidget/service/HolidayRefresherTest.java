@@ -0,0 +1,140 @@
+package com.example.calendarwidget.service;
+
+import com.example.calendarwidget.model.Holiday;
+import com.example.calendarwidget.model.HolidayIndex;
+import com.example.calendarwidget.model.HolidayType;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HolidayRefresherTest {
+
+    private static HolidayIndex yearOf(int year, String... extra) {
+        HolidayIndex.Builder builder = HolidayIndex.builder()
+                .add(new Holiday(LocalDate.of(year, 1, 1), "New Year's Day", HolidayType.REGULAR))
+                .add(new Holiday(LocalDate.of(year, 12, 25), "Christmas Day", HolidayType.WORK));
+        for (String name : extra) {
+            builder.add(new Holiday(LocalDate.of(year, 6, 19), name, HolidayType.WORK));
+        }
+        return builder.build();
+    }
+
+    @Test
+    public void testRefreshSwapsOnlyChangedYearsAndReportsChangedMonths() {
+        HolidayIndex initial = HolidayIndex.builder().addAll(yearOf(2025)).addAll(yearOf(2026)).build();
+        List<Integer> loadedYears = new ArrayList<>();
+        HolidaySource source = new HolidaySource() {
+            @Override
+            public String getName() { return "test"; }
+
+            @Override
+            public HolidayIndex load(int fromYear, int toYear) {
+                loadedYears.add(fromYear);
+                return yearOf(fromYear, "Juneteenth");
+            }
+        };
+        List<Set<YearMonth>> published = new ArrayList<>();
+        HolidayRefresher refresher = new HolidayRefresher((from, to) -> Set.of(2026), source, initial,
+                (snapshot, months) -> published.add(months));
+
+        Set<YearMonth> changed = refresher.refresh(2025, 2026);
+
+        assertEquals(List.of(2026), loadedYears);
+        assertEquals(Set.of(YearMonth.of(2026, 6)), changed);
+        assertEquals(List.of(changed), published);
+        HolidayIndex snapshot = refresher.getSnapshot();
+        assertNotSame(initial, snapshot);
+        assertEquals("Juneteenth", snapshot.getHolidays(LocalDate.of(2026, 6, 19)).get(0).getName());
+        assertSame(initial.getHolidays(LocalDate.of(2025, 12, 25)).get(0),
+                snapshot.getHolidays(LocalDate.of(2025, 12, 25)).get(0));
+        // The previous snapshot is untouched for readers still holding it
+        assertTrue(initial.getHolidays(LocalDate.of(2026, 6, 19)).isEmpty());
+    }
+
+    @Test
+    public void testUnchangedContentPublishesNothing() {
+        HolidayIndex initial = yearOf(2025);
+        AtomicInteger loads = new AtomicInteger();
+        AtomicInteger publishes = new AtomicInteger();
+        HolidaySource identical = new HolidaySource() {
+            @Override
+            public String getName() { return "test"; }
+
+            @Override
+            public HolidayIndex load(int fromYear, int toYear) {
+                loads.incrementAndGet();
+                return yearOf(fromYear);
+            }
+        };
+
+        HolidayRefresher quiet = new HolidayRefresher((from, to) -> Set.of(), identical, initial,
+                (snapshot, months) -> publishes.incrementAndGet());
+        assertTrue(quiet.refresh(2025, 2025).isEmpty());
+        assertEquals(0, loads.get());
+
+        // A changed hash whose holidays turn out identical repaints nothing
+        HolidayRefresher sameData = new HolidayRefresher((from, to) -> Set.of(2025), identical, initial,
+                (snapshot, months) -> publishes.incrementAndGet());
+        assertTrue(sameData.refresh(2025, 2025).isEmpty());
+        assertEquals(1, loads.get());
+        assertEquals(0, publishes.get());
+    }
+
+    @Test
+    public void testFailedReloadKeepsSnapshot() {
+        HolidayIndex initial = yearOf(2025);
+        HolidaySource failing = new HolidaySource() {
+            @Override
+            public String getName() { return "failing"; }
+
+            @Override
+            public HolidayIndex load(int fromYear, int toYear) throws IOException {
+                throw new IOException("offline");
+            }
+        };
+        HolidayRefresher refresher = new HolidayRefresher((from, to) -> Set.of(2025), failing, initial,
+                (snapshot, months) -> fail("nothing should be published"));
+
+        assertTrue(refresher.refresh(2025, 2025).isEmpty());
+        assertSame(initial, refresher.getSnapshot());
+    }
+
+    @Test
+    public void testReloadAllReloadsEveryHeldYearWhetherChangedOrNot() {
+        HolidayIndex initial = HolidayIndex.builder().addAll(yearOf(2024)).addAll(yearOf(2026)).build();
+        List<Integer> loadedYears = new ArrayList<>();
+        HolidaySource source = new HolidaySource() {
+            @Override
+            public String getName() { return "test"; }
+
+            @Override
+            public HolidayIndex load(int fromYear, int toYear) {
+                loadedYears.add(fromYear);
+                // Reclassified: Christmas is no longer a work holiday
+                return HolidayIndex.builder()
+                        .add(new Holiday(LocalDate.of(fromYear, 12, 25), "Christmas Day", HolidayType.REGULAR))
+                        .build();
+            }
+        };
+        List<Set<YearMonth>> published = new ArrayList<>();
+        HolidayRefresher refresher = new HolidayRefresher((from, to) -> Set.of(), source, initial,
+                (snapshot, months) -> published.add(months));
+
+        assertTrue(refresher.refresh(2024, 2026).isEmpty());
+        Set<YearMonth> changed = refresher.reloadAll();
+
+        assertEquals(List.of(2024, 2025, 2026), loadedYears);
+        assertTrue(changed.containsAll(Set.of(YearMonth.of(2024, 1), YearMonth.of(2024, 12), YearMonth.of(2025, 12),
+                YearMonth.of(2026, 1), YearMonth.of(2026, 12))));
+        assertEquals(List.of(changed), published);
+        assertFalse(refresher.getSnapshot().getHolidays(LocalDate.of(2026, 12, 25)).get(0).isWork());
+    }
+}
@@ -0,0 +1,182 @@
+package com.example.calendarwidget.service;
+
+import com.example.calendarwidget.model.Holiday;
+import com.example.calendarwidget.model.HolidayIndex;
+import com.example.calendarwidget.model.HolidayType;
+import com.example.calendarwidget.view.MonthRenderModel;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.StringWriter;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HolidayReportTest {
+
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+
+    @AfterEach
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    private static HolidayIndex shardOf(String country, int year) {
+        return HolidayIndex.builder()
+                .add(new Holiday(LocalDate.of(year, 1, 1), "New Year's Day", HolidayType.WORK))
+                .add(new Holiday(LocalDate.of(year, 7, 4), "Independence Day", HolidayType.REGULAR))
+                .add(new Holiday(LocalDate.of(year, 11, 27), "Thanksgiving Day", HolidayType.WORK))
+                .add(new Holiday(LocalDate.of(year, 12, 24), "Christmas Eve", HolidayType.REGULAR))
+                .add(new Holiday(LocalDate.of(year, 12, 25), "Christmas Day", HolidayType.WORK))
+                .add(new Holiday(LocalDate.of(year, 12, 26), "Boxing Day", HolidayType.WORK))
+                .build();
+    }
+
+    private static HolidayStore store() {
+        return new HolidayStore(HolidayReportTest::shardOf, HolidayStore.DEFAULT_MAX_BYTES);
+    }
+
+    private List<String> report(HolidayReport.Format format, EnumSet<HolidayReport.Aggregate> aggregates,
+                                List<String> countries, int fromYear, int toYear) throws IOException {
+        StringWriter out = new StringWriter();
+        long rows = new HolidayReport(store(), format, aggregates, pool).write(countries, fromYear, toYear, out);
+        List<String> lines = new ArrayList<>(List.of(out.toString().split("\n")));
+        assertEquals(rows, format == HolidayReport.Format.CSV ? lines.size() - 1 : lines.size());
+        return lines;
+    }
+
+    @Test
+    public void testAggregatesMatchCalendarHighlighting() throws IOException {
+        List<String> lines = report(HolidayReport.Format.CSV, EnumSet.allOf(HolidayReport.Aggregate.class),
+                List.of("US"), 2025, 2025);
+
+        assertEquals(HolidayReport.CSV_HEADER, lines.get(0));
+        // ISO 2025 has 52 weeks, from 2024-12-30 to 2025-12-28
+        assertEquals(1 + 52 + 12, lines.size());
+        assertEquals("US,week,2025-W01,2024-12-30,2025-01-05,1,1,1,0,7", lines.get(1));
+        assertEquals("US,week,2025-W52,2025-12-22,2025-12-28,3,2,0,1,7", lines.get(52));
+
+        HolidayIndex holidays = HolidayIndex.builder()
+                .addAll(shardOf("US", 2024)).addAll(shardOf("US", 2025)).addAll(shardOf("US", 2026)).build();
+        for (int m = 1; m <= 12; m++) {
+            String[] row = lines.get(52 + m).split(",");
+            assertEquals("month", row[1]);
+            assertEquals(YearMonth.of(2025, m).toString(), row[2]);
+            assertEquals(MonthRenderModel.compute(YearMonth.of(2025, m), holidays).getHighlightedDays(),
+                    Integer.parseInt(row[9]), "highlighted days in " + row[2]);
+        }
+        // December: Christmas week holds two work holidays, New Year's week one
+        assertEquals("US,month,2025-12,2025-12-01,2025-12-31,3,2,1,1,10", lines.get(64));
+    }
+
+    @Test
+    public void testParallelOutputKeepsInputOrder() throws IOException {
+        List<String> countries = new ArrayList<>();
+        for (int c = 0; c < 100; c++) {
+            countries.add("C" + c);
+        }
+        List<String> lines = report(HolidayReport.Format.CSV, EnumSet.of(HolidayReport.Aggregate.MONTH),
+                countries, 2024, 2026);
+
+        assertEquals(1 + 100 * 3 * 12, lines.size());
+        for (int c = 0; c < 100; c++) {
+            for (int y = 0; y < 3; y++) {
+                for (int m = 1; m <= 12; m++) {
+                    String line = lines.get(1 + (c * 3 + y) * 12 + m - 1);
+                    assertTrue(line.startsWith("C" + c + ",month," + YearMonth.of(2024 + y, m) + ","), line);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testJsonLines() throws IOException {
+        List<String> lines = report(HolidayReport.Format.JSON, EnumSet.of(HolidayReport.Aggregate.WEEK),
+                List.of("DE"), 2026, 2026);
+
+        // ISO 2026 has 53 weeks
+        assertEquals(53, lines.size());
+        JsonObject first = JsonParser.parseString(lines.get(0)).getAsJsonObject();
+        assertEquals("DE", first.get("country").getAsString());
+        assertEquals("2026-W01", first.get("period").getAsString());
+        assertEquals("2025-12-29", first.get("start").getAsString());
+        assertEquals(1, first.get("workHolidays").getAsInt());
+        assertEquals(7, first.get("highlightedDays").getAsInt());
+    }
+
+    @Test
+    public void testFailedLoadFailsReport() {
+        HolidayStore failing = new HolidayStore((country, year) -> {
+            throw new IOException("offline");
+        }, HolidayStore.DEFAULT_MAX_BYTES);
+        HolidayReport report = new HolidayReport(failing, HolidayReport.Format.CSV,
+                EnumSet.allOf(HolidayReport.Aggregate.class), pool);
+
+        assertThrows(IOException.class, () -> report.write(List.of("US"), 2025, 2025, new StringWriter()));
+        assertThrows(IllegalArgumentException.class,
+                () -> report.write(List.of("U\"S"), 2025, 2025, new StringWriter()));
+    }
+
+    @Test
+    public void testFailedFetchFailsReportInsteadOfWritingEmptyRows() throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/api", exchange -> {
+            exchange.sendResponseHeaders(500, -1);
+            exchange.close();
+        });
+        server.start();
+        try {
+            HolidayStore store = HolidayStore.publicHolidays("http://127.0.0.1:" + server.getAddress().getPort() + "/api",
+                    null, HolidayStore.DEFAULT_MAX_BYTES, () -> HolidayRules.DEFAULT);
+            HolidayReport report = new HolidayReport(store, HolidayReport.Format.CSV,
+                    EnumSet.allOf(HolidayReport.Aggregate.class), pool);
+
+            StringWriter out = new StringWriter();
+            assertThrows(IOException.class, () -> report.write(List.of("US"), 2025, 2025, out));
+            assertFalse(out.toString().contains("US,"), out.toString());
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    public void testBlockedLoadsDoNotStarveTheWorkers() throws IOException {
+        // Each load waits for two others, which a single worker can only see if the pool
+        // compensates for the blocked one
+        CountDownLatch concurrent = new CountDownLatch(3);
+        HolidayStore store = new HolidayStore((country, year) -> {
+            concurrent.countDown();
+            try {
+                if (!concurrent.await(5, TimeUnit.SECONDS)) {
+                    throw new IOException("Loads did not overlap");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException();
+            }
+            return shardOf(country, year);
+        }, HolidayStore.DEFAULT_MAX_BYTES);
+        ForkJoinPool single = new ForkJoinPool(1);
+        try {
+            long rows = new HolidayReport(store, HolidayReport.Format.CSV, EnumSet.of(HolidayReport.Aggregate.MONTH), single)
+                    .write(List.of("A", "B", "C"), 2025, 2025, new StringWriter());
+            assertEquals(3 * 12, rows);
+        } finally {
+            single.shutdownNow();
+        }
+    }
+}
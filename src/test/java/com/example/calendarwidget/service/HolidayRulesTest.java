@@ -0,0 +1,187 @@
+package com.example.calendarwidget.service;
+
+import com.example.calendarwidget.model.Holiday;
+import com.example.calendarwidget.model.HolidayIndex;
+import com.example.calendarwidget.model.HolidayType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HolidayRulesTest {
+    private static final String RULES = """
+            # Exceptions first: the first matching rule wins
+            regular name="Christmas Eve" country=DE
+            work    name=christmas
+            work    name=Thanksgiving country=US,ca   # not elsewhere
+            work    name=Fronleichnam date=2026-01-01..2026-12-31
+            work    date=2025-05-02
+            work    date=12-30..01-02 country=US
+            regular name=Day
+            work    country=JP
+            """;
+
+    private static HolidayType classify(HolidayRules rules, String country, String date, String name) {
+        return rules.classify(country, (int) LocalDate.parse(date).toEpochDay(), name);
+    }
+
+    @Test
+    public void testFirstMatchingRuleWinsAcrossConditions() throws IOException {
+        HolidayRules rules = HolidayRules.parse(new StringReader(RULES), "test");
+        assertEquals(8, rules.size());
+
+        assertEquals(HolidayType.REGULAR, classify(rules, "DE", "2025-12-24", "Christmas Eve"));
+        assertEquals(HolidayType.WORK, classify(rules, "US", "2025-12-24", "Christmas Eve"));
+        assertEquals(HolidayType.WORK, classify(rules, "DE", "2025-12-25", "CHRISTMAS DAY"), "Names ignore case");
+        assertEquals(HolidayType.WORK, classify(rules, "CA", "2025-10-13", "Thanksgiving"));
+        assertEquals(HolidayType.REGULAR, classify(rules, "DE", "2025-10-13", "Thanksgiving"));
+        assertEquals(HolidayType.REGULAR, classify(rules, null, "2025-11-27", "Thanksgiving Day"));
+        assertEquals(HolidayType.REGULAR, classify(rules, "DE", "2025-06-19", "Fronleichnam"));
+        assertEquals(HolidayType.WORK, classify(rules, "DE", "2026-06-04", "Fronleichnam"));
+        assertEquals(HolidayType.WORK, classify(rules, "DE", "2025-05-02", "Bridge day"));
+        // An annual range wraps over New Year
+        assertEquals(HolidayType.WORK, classify(rules, "US", "2030-01-02", "Office Closure"));
+        assertEquals(HolidayType.WORK, classify(rules, "US", "2029-12-30", "Office Closure"));
+        assertEquals(HolidayType.REGULAR, classify(rules, "US", "2030-01-03", "Office Closure"));
+        assertEquals(HolidayType.WORK, classify(rules, "US", "2030-01-01", "New Year's Day"),
+                "The earlier date rule wins over the later name rule");
+        assertEquals(HolidayType.REGULAR, classify(rules, "DE", "2030-01-01", "New Year's Day"));
+        assertEquals(HolidayType.WORK, classify(rules, "JP", "2025-03-20", "Vernal Equinox"));
+        assertEquals(HolidayType.REGULAR, classify(rules, "US", "2025-07-04", "Independence Day"));
+
+        assertEquals(HolidayType.WORK, classify(HolidayRules.DEFAULT, "US", "2025-11-27", "Thanksgiving Day"));
+        assertEquals(HolidayType.REGULAR, classify(HolidayRules.DEFAULT, "US", "2025-07-04", "Independence Day"));
+    }
+
+    /** Overlapping patterns over a tiny alphabet exercise the automaton's failure links. */
+    @Test
+    public void testAutomatonAgreesWithSubstringScan() throws IOException {
+        Random random = new Random(42);
+        String alphabet = "abcAÄä ";
+        List<String> patterns = new ArrayList<>();
+        List<HolidayType> types = new ArrayList<>();
+        StringBuilder file = new StringBuilder();
+        for (int i = 0; i < 300; i++) {
+            String pattern = randomText(random, alphabet.substring(0, 6), 1 + random.nextInt(4));
+            HolidayType type = random.nextBoolean() ? HolidayType.WORK : HolidayType.REGULAR;
+            patterns.add(pattern.toLowerCase(Locale.ROOT));
+            types.add(type);
+            file.append(type.getWireName()).append(" name=\"").append(pattern).append("\"\n");
+        }
+        HolidayRules rules = HolidayRules.parse(new StringReader(file.toString()), "random");
+
+        for (int i = 0; i < 5_000; i++) {
+            String name = randomText(random, alphabet, random.nextInt(12));
+            String lower = name.toLowerCase(Locale.ROOT);
+            HolidayType expected = HolidayType.REGULAR;
+            for (int p = 0; p < patterns.size(); p++) {
+                if (lower.contains(patterns.get(p))) {
+                    expected = types.get(p);
+                    break;
+                }
+            }
+            assertEquals(expected, rules.classify("US", 0, name), name);
+        }
+    }
+
+    @Test
+    public void testInvalidRulesNameTheLine() {
+        String[] invalid = {
+                "holiday name=Easter",
+                "work name=\"Christmas Day",
+                "work date=2025-02-30",
+                "work date=2025-12-31..2025-01-01",
+                "work colour=red",
+                "work name=Easter name=Christmas",
+        };
+        for (int i = 0; i < invalid.length; i++) {
+            // Valid rules and blank lines before the broken one
+            String rules = "work name=Christmas\n\n".repeat(i) + invalid[i];
+            int line = 2 * i + 1;
+            IOException e = assertThrows(IOException.class, () -> HolidayRules.parse(new StringReader(rules), "rules.txt"));
+            assertTrue(e.getMessage().startsWith("Invalid rule at line " + line + " of rules.txt"), e.getMessage());
+        }
+    }
+
+    @Test
+    public void testIngestionAndHeldShardsFollowTheRules() throws IOException {
+        HolidayRules rules = HolidayRules.parse(new StringReader("work name=Independence country=US"), "test");
+        HolidayService service = new HolidayService(HolidayService.DEFAULT_BASE_URL, "US", Duration.ofSeconds(1), 1);
+        service.setRules(() -> rules);
+        byte[] body = "[{\"date\":\"2025-07-04\",\"name\":\"Independence Day\"},{\"date\":\"2025-12-25\",\"name\":\"Christmas Day\"}]"
+                .getBytes(StandardCharsets.UTF_8);
+        HolidayIndex parsed = service.parseHolidays(new ByteArrayInputStream(body), 2025);
+        assertTrue(parsed.getHolidays(LocalDate.of(2025, 7, 4)).get(0).isWork());
+        assertFalse(parsed.getHolidays(LocalDate.of(2025, 12, 25)).get(0).isWork());
+
+        HolidayStore store = new HolidayStore((country, year) -> HolidayIndex.builder()
+                .add(new Holiday(LocalDate.of(year, 12, 25), "Christmas Day", HolidayType.WORK))
+                .add(new Holiday(LocalDate.of(year, 7, 4), "Independence Day", HolidayType.REGULAR))
+                .build(), HolidayStore.DEFAULT_MAX_BYTES);
+        HolidayIndex us = store.getShard("US", 2025);
+        HolidayIndex de = store.getShard("DE", 2025);
+        store.reclassify(rules);
+        assertEquals(2, store.getShardCount());
+        assertNotSame(us, store.getShard("US", 2025));
+        assertTrue(store.getShard("US", 2025).getHolidays(LocalDate.of(2025, 7, 4)).get(0).isWork());
+        assertFalse(store.getShard("US", 2025).getHolidays(LocalDate.of(2025, 12, 25)).get(0).isWork());
+        assertFalse(store.getShard("DE", 2025).getHolidays(LocalDate.of(2025, 7, 4)).get(0).isWork());
+        assertEquals(0, store.getShard("DE", 2025).getWorkHolidayCountForWeek(LocalDate.of(2025, 12, 25)));
+        assertNotSame(de, store.getShard("DE", 2025));
+    }
+
+    @Test
+    public void testChangedFileIsRecompiledAndBrokenFileKeepsTheRules(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("rules.txt");
+        List<HolidayRules> published = new ArrayList<>();
+        HolidayRulesFile rulesFile = new HolidayRulesFile(file, published::add);
+        assertSame(HolidayRules.DEFAULT, rulesFile.getRules());
+        assertFalse(rulesFile.checkForChanges(), "A missing file keeps the default rules");
+
+        Files.writeString(file, "work name=Easter\n");
+        assertTrue(rulesFile.checkForChanges());
+        assertFalse(rulesFile.checkForChanges(), "An unchanged file is not compiled again");
+        HolidayRules easter = rulesFile.getRules();
+        assertEquals(List.of(easter), published);
+        assertEquals(HolidayType.WORK, classify(easter, "DE", "2025-04-20", "Easter Sunday"));
+        assertEquals(HolidayType.REGULAR, classify(easter, "DE", "2025-12-25", "Christmas Day"));
+
+        write(file, "work name=Easter\nwork name=\"Christmas\n", 1);
+        assertFalse(rulesFile.checkForChanges());
+        assertSame(easter, rulesFile.getRules());
+
+        write(file, "work name=Easter\nwork name=Christmas\n", 2);
+        assertTrue(rulesFile.checkForChanges());
+        assertEquals(2, published.size());
+        assertEquals(HolidayType.WORK, classify(rulesFile.getRules(), "DE", "2025-12-25", "Christmas Day"));
+    }
+
+    /** Writes {@code text} with a distinct modification time, however coarse the file system's clock. */
+    private static void write(Path file, String text, int version) throws IOException {
+        Files.writeString(file, text);
+        Files.setLastModifiedTime(file, FileTime.from(Instant.parse("2030-01-01T00:00:00Z").plusSeconds(version)));
+    }
+
+    private static String randomText(Random random, String alphabet, int length) {
+        StringBuilder text = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            text.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,287 @@
+package com.example.calendarwidget.service;
+
+import com.example.calendarwidget.metrics.MetricsRegistry;
+import com.example.calendarwidget.model.HolidayIndex;
+import com.example.calendarwidget.model.HolidayType;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HolidayServiceTest {
+
+    private static final long LATENCY_MS = 400;
+
+    private final AtomicInteger version = new AtomicInteger(1);
+    private final AtomicInteger fullResponses = new AtomicInteger();
+    private final AtomicInteger failedResponses = new AtomicInteger();
+    private HttpServer server;
+    private String baseUrl;
+
+    @BeforeEach
+    public void startStubServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/api", exchange -> {
+            // Path: /api/{year}/{country}
+            String[] parts = exchange.getRequestURI().getPath().split("/");
+            int year = Integer.parseInt(parts[2]);
+            try {
+                Thread.sleep(year == 2013 ? 5_000 : LATENCY_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (year == 2014) {
+                // Headers at once, then the body stalls part way
+                exchange.sendResponseHeaders(200, 1_000);
+                OutputStream out = exchange.getResponseBody();
+                out.write("[{\"date\":\"2014-12-25\",".getBytes(StandardCharsets.UTF_8));
+                out.flush();
+                try {
+                    Thread.sleep(10_000);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                exchange.close();
+                return;
+            }
+            if (year == 2012) {
+                failedResponses.incrementAndGet();
+                exchange.sendResponseHeaders(500, -1);
+                exchange.close();
+                return;
+            }
+            String etag = "\"" + year + "-v" + version.get() + "\"";
+            exchange.getResponseHeaders().add("ETag", etag);
+            if (etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                exchange.sendResponseHeaders(304, -1);
+                exchange.close();
+                return;
+            }
+            fullResponses.incrementAndGet();
+            String name = switch (version.get()) {
+                case 1 -> "Christmas Day";
+                case 2 -> "Christmas Day (observed)";
+                default -> "Christmas Day (observed v" + version.get() + ")";
+            };
+            byte[] body = ("[{\"date\":\"" + year + "-12-25\",\"name\":\"" + name + "\"},"
+                    + "{\"date\":\"" + year + "-07-04\",\"name\":\"Independence Day\"}]").getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort() + "/api";
+    }
+
+    @AfterEach
+    public void stopStubServer() {
+        server.stop(0);
+    }
+
+    @Test
+    public void testYearsAreFetchedConcurrently() {
+        HolidayService service = new HolidayService(baseUrl, "US", Duration.ofSeconds(5), 4);
+
+        long start = System.nanoTime();
+        HolidayIndex holidays = service.loadHolidays(2020, 2023);
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        assertEquals(8, holidays.size());
+        assertTrue(elapsedMs < 4 * LATENCY_MS, "Expected close to one round-trip, took " + elapsedMs + " ms");
+        assertEquals(HolidayType.WORK, holidays.getHolidays(LocalDate.of(2021, 12, 25)).get(0).getType());
+        assertEquals(HolidayType.REGULAR, holidays.getHolidays(LocalDate.of(2021, 7, 4)).get(0).getType());
+    }
+
+    @Test
+    public void testFetchMetricsDoNotGrowWithTheYearsFetched() {
+        HolidayService service = new HolidayService(baseUrl, "US", Duration.ofSeconds(5), 4);
+        service.loadHolidays(2030, 2033);
+
+        String metrics = MetricsRegistry.getDefault().snapshot();
+        List<String> names = metrics.lines().map(line -> line.split(" ")[0]).toList();
+        assertTrue(names.stream().noneMatch(name -> name.contains("2031")), metrics);
+        assertTrue(names.contains("holiday.fetch.last.year"), metrics);
+    }
+
+    @Test
+    public void testEachYearIsPublishedAsItArrives() {
+        HolidayService service = new HolidayService(baseUrl, "US", Duration.ofSeconds(5), 4);
+        Map<Integer, Long> arrivals = new ConcurrentHashMap<>();
+        long start = System.nanoTime();
+
+        HolidayIndex holidays = service.loadHolidays(2020, 2022, (year, yearHolidays) -> {
+            assertEquals(2, yearHolidays.size());
+            arrivals.put(year, (System.nanoTime() - start) / 1_000_000);
+        });
+
+        assertEquals(Set.of(2020, 2021, 2022), arrivals.keySet());
+        assertEquals(6, holidays.size());
+    }
+
+    @Test
+    public void testInFlightCapSerialisesRequests() {
+        HolidayService service = new HolidayService(baseUrl, "US", Duration.ofSeconds(5), 1);
+
+        long start = System.nanoTime();
+        HolidayIndex holidays = service.loadHolidays(2020, 2021);
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        assertEquals(4, holidays.size());
+        assertTrue(elapsedMs >= 2 * LATENCY_MS, "Expected requests to queue behind the cap, took " + elapsedMs + " ms");
+    }
+
+    @Test
+    public void testFailedAndTimedOutYearsAreSkipped() {
+        HolidayService service = new HolidayService(baseUrl, "US", Duration.ofMillis(1_000), 4);
+
+        HolidayIndex holidays = service.loadHolidays(2011, 2013);
+
+        assertEquals(2, holidays.size());
+        assertFalse(holidays.getHolidays(LocalDate.of(2011, 12, 25)).isEmpty());
+        assertTrue(holidays.getHolidays(LocalDate.of(2012, 12, 25)).isEmpty());
+        assertTrue(holidays.getHolidays(LocalDate.of(2013, 12, 25)).isEmpty());
+    }
+
+    @Test
+    public void testFailedYearIsNotHeldByTheStore() throws IOException {
+        HolidayStore store = HolidayStore.publicHolidays(baseUrl, null, HolidayStore.DEFAULT_MAX_BYTES,
+                () -> HolidayRules.DEFAULT);
+
+        assertThrows(IOException.class, () -> store.getShard("US", 2012));
+        assertEquals(0, store.getShardCount());
+        assertThrows(IOException.class, () -> store.getShard("US", 2012));
+        assertEquals(2, failedResponses.get(), "A failed year is fetched again on the next request");
+
+        assertEquals(2, store.getShard("US", 2011).size());
+        assertEquals(1, store.getShardCount());
+    }
+
+    @Test
+    public void testStalledBodyTimesOutAndFreesItsSlot() {
+        HolidayService service = new HolidayService(baseUrl, "US", Duration.ofMillis(1_000), 1);
+
+        long start = System.nanoTime();
+        HolidayIndex stalled = service.loadHolidays(2014, 2014);
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        assertTrue(stalled.isEmpty());
+        assertTrue(elapsedMs < 3_000, "Expected the body to be abandoned at the deadline, took " + elapsedMs + " ms");
+
+        // The only in-flight slot is free again
+        assertEquals(2, service.loadHolidays(2011, 2011).size());
+    }
+
+    @Test
+    public void testCachedYearsLoadOfflineAndRevalidateConditionally(@TempDir Path cacheDir) {
+        HolidayCache cache = new HolidayCache(cacheDir, Duration.ZERO);
+        HolidayService service = new HolidayService(baseUrl, "US", Duration.ofSeconds(5), 4, cache);
+        service.loadHolidays(2020, 2021);
+        assertEquals(2, fullResponses.get());
+
+        HolidayService offline = new HolidayService("http://127.0.0.1:1/unreachable", "US", Duration.ofSeconds(1), 4, cache);
+        HolidayIndex cached = offline.loadCachedHolidays(2020, 2021);
+        assertEquals(4, cached.size());
+        assertEquals(HolidayType.WORK, cached.getHolidays(LocalDate.of(2020, 12, 25)).get(0).getType());
+
+        // Unchanged on the server: conditional requests only, nothing downloaded
+        assertTrue(service.revalidate(2020, 2021).isEmpty());
+        assertEquals(2, fullResponses.get());
+
+        version.set(2);
+        Set<Integer> changed = service.revalidate(2020, 2021);
+        assertEquals(Set.of(2020, 2021), changed);
+        assertEquals("Christmas Day (observed)",
+                service.loadCachedHolidays(2020, 2020).getHolidays(LocalDate.of(2020, 12, 25)).get(0).getName());
+    }
+
+    @Test
+    public void testFreshCacheEntriesSkipTheNetwork(@TempDir Path cacheDir) {
+        HolidayCache cache = new HolidayCache(cacheDir, Duration.ofHours(1));
+        HolidayService service = new HolidayService(baseUrl, "US", Duration.ofSeconds(5), 4, cache);
+        service.loadHolidays(2020, 2020);
+        service.loadHolidays(2020, 2020);
+
+        assertEquals(1, fullResponses.get());
+        assertTrue(service.revalidate(2020, 2020).isEmpty());
+    }
+
+    /**
+     * Every entry's metadata must describe the body it refers to. A body left behind by an
+     * interrupted update is never picked up, and a replaced body is removed.
+     */
+    @Test
+    public void testCacheEntriesSwitchBodyAndMetadataTogether(@TempDir Path cacheDir) throws Exception {
+        HolidayCache cache = new HolidayCache(cacheDir, Duration.ZERO);
+        HolidayService service = new HolidayService(baseUrl, "US", Duration.ofSeconds(5), 4, cache);
+        service.loadHolidays(2020, 2020);
+        HolidayCache.Entry first = cache.get("US", 2020);
+        assertEquals(first.getSha256(), sha256(cache, first));
+
+        // An update interrupted after streaming its body but before switching the metadata
+        HolidayCache.PendingBody interrupted = cache.begin("US", 2020);
+        interrupted.tee(new ByteArrayInputStream("[]".getBytes(StandardCharsets.UTF_8))).readAllBytes();
+        assertEquals(first.getSha256(), sha256(cache, cache.get("US", 2020)));
+        interrupted.abort();
+
+        version.set(2);
+        assertEquals(Set.of(2020), service.revalidate(2020, 2020));
+        HolidayCache.Entry second = cache.get("US", 2020);
+        assertNotEquals(first.getSha256(), second.getSha256());
+        assertEquals(second.getSha256(), sha256(cache, second));
+        // A reader that looked up the entry before the switch can still read what it refers to
+        assertEquals(first.getSha256(), sha256(cache, first));
+        assertEquals(2, bodyFiles(cacheDir).size(), "No temporary body is left");
+
+        // Once its grace period has passed, the replaced body goes with the next commit
+        for (Path body : bodyFiles(cacheDir)) {
+            Files.setLastModifiedTime(body, FileTime.fromMillis(System.currentTimeMillis()
+                    - 2 * HolidayCache.RETIRED_BODY_GRACE.toMillis()));
+        }
+        version.set(3);
+        assertEquals(Set.of(2020), service.revalidate(2020, 2020));
+        HolidayCache.Entry third = cache.get("US", 2020);
+        assertEquals(2, bodyFiles(cacheDir).size());
+        assertEquals(third.getSha256(), sha256(cache, third));
+        assertEquals(second.getSha256(), sha256(cache, second));
+        assertThrows(IOException.class, () -> sha256(cache, first));
+    }
+
+    private static List<Path> bodyFiles(Path cacheDir) throws IOException {
+        try (Stream<Path> files = Files.list(cacheDir.resolve("v" + HolidayCache.FORMAT_VERSION))) {
+            return files.filter(file -> file.toString().endsWith(".body")).toList();
+        }
+    }
+
+    private static String sha256(HolidayCache cache, HolidayCache.Entry entry) throws Exception {
+        try (InputStream in = cache.openBody(entry)) {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(in.readAllBytes()));
+        }
+    }
+}
@@ -0,0 +1,292 @@
+package com.example.calendarwidget.service;
+
+import com.example.calendarwidget.model.Holiday;
+import com.example.calendarwidget.model.HolidayIndex;
+import com.example.calendarwidget.model.HolidayType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HolidaySourceTest {
+
+    private static final String ICS = String.join("\r\n",
+            "BEGIN:VCALENDAR",
+            "VERSION:2.0",
+            "BEGIN:VEVENT",
+            "UID:1",
+            "DTSTART;VALUE=DATE:20251224",
+            "DTEND;VALUE=DATE:20251227",
+            "SUMMARY:Office Closure\\, Winter",
+            "BEGIN:VALARM",
+            "SUMMARY:Reminder",
+            "END:VALARM",
+            "END:VEVENT",
+            "BEGIN:VEVENT",
+            "DTSTART;TZID=\"Europe/Berlin\":20250704T090000",
+            "DTEND;TZID=\"Europe/Berlin\":20250704T170000",
+            "SUMMARY:Team Offsite with a very long description that an exporter",
+            "  folded onto the next line",
+            "END:VEVENT",
+            "BEGIN:VEVENT",
+            "DTSTART:20250901",
+            "SUMMARY:Cancelled Event",
+            "STATUS:CANCELLED",
+            "END:VEVENT",
+            "BEGIN:VEVENT",
+            "SUMMARY:Missing Start",
+            "END:VEVENT",
+            "BEGIN:VEVENT",
+            "DTSTART;VALUE=DATE:20241231",
+            "DTEND;VALUE=DATE:20250102",
+            "SUMMARY:New Year Shutdown",
+            "END:VEVENT",
+            "END:VCALENDAR");
+
+    @Test
+    public void testIcsEventsBecomeHolidaysPerDay() throws IOException {
+        IcsHolidaySource source = new IcsHolidaySource(Path.of("company.ics"), HolidayType.WORK);
+        HolidayIndex holidays = source.read(new StringReader(ICS), 2025, 2025);
+
+        // 3 closure days, the offsite and the in-range half of the shutdown
+        assertEquals(5, holidays.getHolidayCount());
+        assertEquals("Office Closure, Winter", holidays.getHolidays(LocalDate.of(2025, 12, 24)).get(0).getName());
+        assertTrue(holidays.hasHolidays((int) LocalDate.of(2025, 12, 26).toEpochDay()));
+        assertFalse(holidays.hasHolidays((int) LocalDate.of(2025, 12, 27).toEpochDay()));
+        assertEquals("Team Offsite with a very long description that an exporter folded onto the next line",
+                holidays.getHolidays(LocalDate.of(2025, 7, 4)).get(0).getName());
+        assertTrue(holidays.getHolidays(LocalDate.of(2025, 9, 1)).isEmpty());
+        assertEquals("New Year Shutdown", holidays.getHolidays(LocalDate.of(2025, 1, 1)).get(0).getName());
+        assertTrue(holidays.getHolidays(LocalDate.of(2024, 12, 31)).isEmpty());
+        assertTrue(holidays.getAllHolidays().stream().allMatch(Holiday::isWork));
+    }
+
+    @Test
+    public void testIcsEventWithUnreadableEndCoversItsStartDay() throws IOException {
+        String ics = String.join("\r\n",
+                "BEGIN:VCALENDAR",
+                "BEGIN:VEVENT",
+                "DTSTART;VALUE=DATE:20250505",
+                "DTEND;VALUE=DATE:2025-05-07",
+                "SUMMARY:Bad End",
+                "END:VEVENT",
+                "BEGIN:VEVENT",
+                "DTSTART;VALUE=DATE:20250601",
+                "DURATION:three days",
+                "SUMMARY:Bad Duration",
+                "END:VEVENT",
+                "BEGIN:VEVENT",
+                "DTSTART:20250801T220000",
+                "DURATION:PT4H",
+                "SUMMARY:Night Shift",
+                "END:VEVENT",
+                "BEGIN:VEVENT",
+                "DTSTART;VALUE=DATE:20251001",
+                "DURATION:P1W",
+                "SUMMARY:Closure Week",
+                "END:VEVENT",
+                "END:VCALENDAR");
+
+        HolidayIndex holidays = new IcsHolidaySource(Path.of("company.ics"), HolidayType.WORK)
+                .read(new StringReader(ics), 2025, 2025);
+
+        assertEquals(List.of(new Holiday(LocalDate.of(2025, 5, 5), "Bad End", HolidayType.WORK)),
+                holidays.getHolidaysInRange(LocalDate.of(2025, 5, 1), LocalDate.of(2025, 5, 31)));
+        assertEquals(List.of(new Holiday(LocalDate.of(2025, 6, 1), "Bad Duration", HolidayType.WORK)),
+                holidays.getHolidaysInRange(LocalDate.of(2025, 6, 1), LocalDate.of(2025, 6, 30)));
+        // A timed event running past midnight covers both days
+        assertEquals(2, holidays.getHolidaysInRange(LocalDate.of(2025, 8, 1), LocalDate.of(2025, 8, 31)).size());
+        assertEquals(7, holidays.getHolidaysInRange(LocalDate.of(2025, 10, 1), LocalDate.of(2025, 10, 31)).size());
+    }
+
+    @Test
+    public void testIcsYearlyRecurrencesAreExpandedInRange() throws IOException {
+        String ics = String.join("\r\n",
+                "BEGIN:VCALENDAR",
+                "BEGIN:VEVENT",
+                "DTSTART;VALUE=DATE:20201224",
+                "DTEND;VALUE=DATE:20201226",
+                "RRULE:FREQ=YEARLY",
+                "SUMMARY:Winter Closure",
+                "END:VEVENT",
+                "BEGIN:VEVENT",
+                "DTSTART;VALUE=DATE:20230501",
+                "RRULE:FREQ=YEARLY;COUNT=3",
+                "SUMMARY:Counted",
+                "END:VEVENT",
+                "BEGIN:VEVENT",
+                "DTSTART;VALUE=DATE:20230601",
+                "RRULE:FREQ=YEARLY;UNTIL=20260601T000000Z",
+                "SUMMARY:Until",
+                "END:VEVENT",
+                "BEGIN:VEVENT",
+                "DTSTART;VALUE=DATE:20240229",
+                "RRULE:FREQ=YEARLY",
+                "SUMMARY:Leap Day",
+                "END:VEVENT",
+                "BEGIN:VEVENT",
+                "DTSTART;VALUE=DATE:20250106",
+                "RRULE:FREQ=WEEKLY;COUNT=4",
+                "SUMMARY:Weekly",
+                "END:VEVENT",
+                "END:VCALENDAR");
+
+        HolidayIndex holidays = new IcsHolidaySource(Path.of("company.ics"), HolidayType.WORK)
+                .read(new StringReader(ics), 2025, 2028);
+
+        for (int year = 2025; year <= 2028; year++) {
+            assertEquals("Winter Closure", holidays.getHolidays(LocalDate.of(year, 12, 25)).get(0).getName());
+            assertTrue(holidays.getHolidays(LocalDate.of(year, 12, 26)).isEmpty());
+        }
+        assertTrue(holidays.getHolidays(LocalDate.of(2024, 12, 24)).isEmpty());
+        // 2023, 2024 and 2025 only
+        assertEquals(1, holidays.getHolidays(LocalDate.of(2025, 5, 1)).size());
+        assertTrue(holidays.getHolidays(LocalDate.of(2026, 5, 1)).isEmpty());
+        assertEquals(1, holidays.getHolidays(LocalDate.of(2026, 6, 1)).size());
+        assertTrue(holidays.getHolidays(LocalDate.of(2027, 6, 1)).isEmpty());
+        assertEquals(1, holidays.getHolidays(LocalDate.of(2028, 2, 29)).size());
+        assertTrue(holidays.getHolidays(LocalDate.of(2025, 2, 28)).isEmpty());
+        // Unsupported rules keep their first occurrence
+        assertEquals(1, holidays.getHolidays(LocalDate.of(2025, 1, 6)).size());
+        assertTrue(holidays.getHolidays(LocalDate.of(2025, 1, 13)).isEmpty());
+    }
+
+    @Test
+    public void testIcsExcludedDatesAreSkipped() throws IOException {
+        String ics = String.join("\r\n",
+                "BEGIN:VCALENDAR",
+                "BEGIN:VEVENT",
+                "DTSTART;VALUE=DATE:20201224",
+                "DTEND;VALUE=DATE:20201226",
+                "RRULE:FREQ=YEARLY",
+                "EXDATE;VALUE=DATE:20251224,20271224",
+                "EXDATE;TZID=Europe/Berlin:20260101T090000,bad",
+                "SUMMARY:Winter Closure",
+                "END:VEVENT",
+                "BEGIN:VEVENT",
+                "DTSTART;VALUE=DATE:20250501",
+                "RRULE:FREQ=YEARLY;COUNT=3",
+                "EXDATE;VALUE=DATE:20260501",
+                "SUMMARY:Counted",
+                "END:VEVENT",
+                "BEGIN:VEVENT",
+                "DTSTART:20250704T090000",
+                "EXDATE:20250704T090000",
+                "SUMMARY:Cancelled Once",
+                "END:VEVENT",
+                "END:VCALENDAR");
+
+        HolidayIndex holidays = new IcsHolidaySource(Path.of("company.ics"), HolidayType.WORK)
+                .read(new StringReader(ics), 2025, 2028);
+
+        // The whole occurrence goes, not just its first day
+        assertTrue(holidays.getHolidaysInRange(LocalDate.of(2025, 12, 24), LocalDate.of(2025, 12, 25)).isEmpty());
+        assertEquals(2, holidays.getHolidaysInRange(LocalDate.of(2026, 12, 24), LocalDate.of(2026, 12, 25)).size());
+        assertTrue(holidays.getHolidaysInRange(LocalDate.of(2027, 12, 24), LocalDate.of(2027, 12, 25)).isEmpty());
+        assertEquals(2, holidays.getHolidaysInRange(LocalDate.of(2028, 12, 24), LocalDate.of(2028, 12, 25)).size());
+        // Excluded occurrences still count: 2025 and 2027 remain of three
+        assertEquals(1, holidays.getHolidays(LocalDate.of(2025, 5, 1)).size());
+        assertTrue(holidays.getHolidays(LocalDate.of(2026, 5, 1)).isEmpty());
+        assertEquals(1, holidays.getHolidays(LocalDate.of(2027, 5, 1)).size());
+        assertTrue(holidays.getHolidays(LocalDate.of(2028, 5, 1)).isEmpty());
+        assertTrue(holidays.getHolidays(LocalDate.of(2025, 7, 4)).isEmpty());
+    }
+
+    @Test
+    public void testIcsFileIsStreamedFromDisk(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("company.ics");
+        Files.writeString(file, ICS);
+
+        HolidayIndex holidays = new IcsHolidaySource(file, HolidayType.REGULAR).load(2024, 2025);
+
+        assertEquals(6, holidays.getHolidayCount());
+        assertEquals("ics:company.ics", new IcsHolidaySource(file, HolidayType.REGULAR).getName());
+    }
+
+    @Test
+    public void testJsonFileSourceReadsWireFormat(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("holidays.json");
+        Files.writeString(file, "[{\"date\":\"2025-12-31\",\"name\":\"Office Party\",\"type\":\"work\"},"
+                + "{\"date\":\"2025-07-04\",\"localName\":\"Independence Day\",\"name\":\"Independence Day\",\"countryCode\":\"US\"},"
+                + "{\"date\":\"2030-01-01\",\"name\":\"Out Of Range\"}]");
+
+        HolidayIndex holidays = new JsonFileHolidaySource(file).load(2025, 2025);
+
+        assertEquals(2, holidays.getHolidayCount());
+        assertEquals(HolidayType.WORK, holidays.getHolidays(LocalDate.of(2025, 12, 31)).get(0).getType());
+        assertEquals(HolidayType.REGULAR, holidays.getHolidays(LocalDate.of(2025, 7, 4)).get(0).getType());
+
+        Files.writeString(file, "{\"not\":\"an array\"}");
+        assertThrows(IOException.class, () -> new JsonFileHolidaySource(file).load(2025, 2025));
+    }
+
+    @Test
+    public void testCompositeMergesConcurrentlyByPriority() throws IOException {
+        HolidaySource local = new FixedSource("local", 300, HolidayIndex.builder()
+                .add(new Holiday(LocalDate.of(2025, 12, 25), "Christmas Day", HolidayType.REGULAR))
+                .build());
+        HolidaySource company = new FixedSource("company", 300, HolidayIndex.builder()
+                .add(new Holiday(LocalDate.of(2025, 12, 25), " christmas day", HolidayType.WORK))
+                .add(new Holiday(LocalDate.of(2025, 12, 25), "Office Closure", HolidayType.WORK))
+                .add(new Holiday(LocalDate.of(2025, 12, 25), "Office Closure", HolidayType.WORK))
+                .build());
+        HolidaySource broken = new HolidaySource() {
+            @Override
+            public String getName() {
+                return "broken";
+            }
+
+            @Override
+            public HolidayIndex load(int fromYear, int toYear) throws IOException {
+                throw new IOException("unreachable");
+            }
+        };
+
+        long start = System.nanoTime();
+        HolidayIndex merged = new CompositeHolidaySource(List.of(local, broken, company)).load(2025, 2025);
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        List<Holiday> christmas = merged.getHolidays(LocalDate.of(2025, 12, 25));
+        assertEquals(2, christmas.size());
+        // The earlier source's type wins; work holidays still sort first within the day
+        assertEquals("Office Closure", christmas.get(0).getName());
+        assertEquals(new Holiday(LocalDate.of(2025, 12, 25), "Christmas Day", HolidayType.REGULAR), christmas.get(1));
+        assertTrue(elapsedMs < 550, "Sources should load concurrently, took " + elapsedMs + " ms");
+        // With no source left to merge, the load fails rather than coming back empty
+        assertThrows(IOException.class, () -> new CompositeHolidaySource(List.of(broken)).load(2025, 2025));
+    }
+
+    private static final class FixedSource implements HolidaySource {
+        private final String name;
+        private final long delayMillis;
+        private final HolidayIndex holidays;
+
+        FixedSource(String name, long delayMillis, HolidayIndex holidays) {
+            this.name = name;
+            this.delayMillis = delayMillis;
+            this.holidays = holidays;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public HolidayIndex load(int fromYear, int toYear) {
+            try {
+                Thread.sleep(delayMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return holidays;
+        }
+    }
+}
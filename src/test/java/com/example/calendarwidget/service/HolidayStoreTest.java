@@ -0,0 +1,129 @@
+package com.example.calendarwidget.service;
+
+import com.example.calendarwidget.model.Holiday;
+import com.example.calendarwidget.model.HolidayIndex;
+import com.example.calendarwidget.model.HolidayType;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HolidayStoreTest {
+
+    /** About a dozen holidays per shard, like a typical country's public holidays. */
+    private static HolidayIndex shardOf(String country, int year) {
+        HolidayIndex.Builder builder = HolidayIndex.builder();
+        for (int month = 1; month <= 12; month++) {
+            int day = 1 + Math.floorMod(country.hashCode() + month, 28);
+            builder.add(new Holiday(LocalDate.of(year, month, day), country + " holiday " + month,
+                    month % 4 == 0 ? HolidayType.WORK : HolidayType.REGULAR));
+        }
+        return builder.build();
+    }
+
+    @Test
+    public void testShardsLoadLazilyAndAreShared() throws IOException {
+        AtomicInteger loads = new AtomicInteger();
+        HolidayStore store = new HolidayStore((country, year) -> {
+            loads.incrementAndGet();
+            return shardOf(country, year);
+        }, HolidayStore.DEFAULT_MAX_BYTES);
+        assertEquals(0, loads.get());
+
+        HolidayIndex de = store.getShard("DE", 2025);
+        HolidayIndex overlay = store.overlay(List.of("DE", "FR"), 2025, 2025);
+
+        assertEquals(2, loads.get());
+        assertSame(de, store.getShard("DE", 2025));
+        assertEquals(24, overlay.getHolidayCount());
+        assertSame(de.getAllHolidays().get(0), overlay.getHolidays(de.getAllHolidays().get(0).getEpochDay()).get(0));
+        assertEquals(2, store.getHits());
+        assertEquals(2, store.getMisses());
+        assertEquals(0, store.getEvictions());
+    }
+
+    @Test
+    public void testHundredCountrySweepStaysWithinBudget() throws IOException {
+        long shardBytes = shardOf("XX", 2025).estimatedBytes();
+        long budget = 40 * shardBytes;
+        HolidayStore store = new HolidayStore(HolidayStoreTest::shardOf, budget);
+
+        int requests = 0;
+        for (int c = 0; c < 100; c++) {
+            String country = "C" + c;
+            for (int year = 2024; year <= 2026; year++) {
+                store.getShard(country, year);
+                requests++;
+                assertTrue(store.getEstimatedBytes() <= budget,
+                        "store holds " + store.getEstimatedBytes() + " bytes, budget " + budget);
+            }
+            // The country just viewed is the most recently used and must still be resident
+            store.getShard(country, 2025);
+            requests++;
+        }
+
+        assertEquals(100, store.getHits());
+        assertEquals(300, store.getMisses());
+        assertEquals(requests, store.getHits() + store.getMisses());
+        assertTrue(store.getShardCount() <= 40, "shards: " + store.getShardCount());
+        assertEquals(300 - store.getShardCount(), store.getEvictions());
+
+        // The oldest country was evicted and loads again on demand
+        long missesBefore = store.getMisses();
+        store.getShard("C0", 2024);
+        assertEquals(missesBefore + 1, store.getMisses());
+    }
+
+    @Test
+    public void testConcurrentRequestsShareOneLoad() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        HolidayStore store = new HolidayStore((country, year) -> {
+            loads.incrementAndGet();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return shardOf(country, year);
+        }, HolidayStore.DEFAULT_MAX_BYTES);
+
+        List<Future<HolidayIndex>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> store.getShard("JP", 2025)));
+            }
+            Thread.sleep(100);
+            release.countDown();
+        }
+
+        assertEquals(1, loads.get());
+        for (Future<HolidayIndex> result : results) {
+            assertSame(results.get(0).get(), result.get());
+        }
+    }
+
+    @Test
+    public void testFailedLoadIsRetried() throws IOException {
+        AtomicInteger attempts = new AtomicInteger();
+        HolidayStore store = new HolidayStore((country, year) -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw new IOException("offline");
+            }
+            return shardOf(country, year);
+        }, HolidayStore.DEFAULT_MAX_BYTES);
+
+        assertThrows(IOException.class, () -> store.getShard("BR", 2025));
+        assertTrue(store.overlay(List.of("BR"), 2025, 2025).getHolidayCount() > 0);
+        assertEquals(1, store.getShardCount());
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.calendarwidget.service;
+
+import com.example.calendarwidget.model.Holiday;
+import com.example.calendarwidget.model.HolidayIndex;
+import com.example.calendarwidget.model.HolidayType;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HolidayYearLoaderTest {
+
+    private static HolidayIndex yearOf(int year) {
+        return HolidayIndex.builder()
+                .add(new Holiday(LocalDate.of(year, 12, 25), "Christmas Day", HolidayType.WORK))
+                .build();
+    }
+
+    /** A source that counts loads per year and fails the first load of any year in {@code failing}. */
+    private static class CountingSource implements HolidaySource {
+        final Map<Integer, AtomicInteger> loads = new ConcurrentHashMap<>();
+        final List<Integer> failing = new CopyOnWriteArrayList<>();
+        final CountDownLatch release;
+
+        CountingSource(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public String getName() { return "counting"; }
+
+        @Override
+        public HolidayIndex load(int fromYear, int toYear) throws IOException {
+            loads.computeIfAbsent(fromYear, y -> new AtomicInteger()).incrementAndGet();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (failing.remove((Integer) fromYear)) {
+                throw new IOException("Service unavailable");
+            }
+            return yearOf(fromYear);
+        }
+    }
+
+    @Test
+    public void testConcurrentRequestsForOneYearShareOneLoad() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountingSource source = new CountingSource(release);
+        List<Integer> published = new CopyOnWriteArrayList<>();
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        HolidayYearLoader loader = new HolidayYearLoader(source, executor, (year, holidays) -> {
+            assertEquals(1, holidays.size());
+            published.add(year);
+        });
+
+        CompletableFuture<Void> first = loader.load(2030);
+        CompletableFuture<Void> second = loader.load(2030);
+        loader.ensureLoaded(2029, 2031);
+        assertSame(first, second);
+        assertEquals(3, loader.getInFlightCount());
+        assertFalse(loader.isLoaded(2030));
+
+        release.countDown();
+        CompletableFuture.allOf(first, loader.load(2029), loader.load(2031)).get(5, TimeUnit.SECONDS);
+        assertTrue(loader.isLoaded(2030));
+        assertEquals(0, loader.getInFlightCount());
+        assertTrue(loader.load(2030).isDone());
+        assertEquals(1, source.loads.get(2030).get());
+        assertEquals(List.of(2029, 2030, 2031), published.stream().sorted().toList());
+        executor.close();
+    }
+
+    @Test
+    public void testFailedLoadIsRetriedAndMarkedYearsAreSkipped() throws Exception {
+        CountingSource source = new CountingSource(new CountDownLatch(0));
+        source.failing.add(2040);
+        List<Integer> published = new CopyOnWriteArrayList<>();
+        HolidayYearLoader loader = new HolidayYearLoader(source, Runnable::run, (year, holidays) -> published.add(year));
+        loader.markLoaded(2024, 2026);
+
+        loader.ensureLoaded(2024, 2026);
+        assertTrue(source.loads.isEmpty(), "Years loaded at startup are not requested again");
+
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> loader.load(2040).get());
+        assertInstanceOf(IOException.class, failure.getCause());
+        assertFalse(loader.isLoaded(2040));
+        assertTrue(published.isEmpty());
+
+        loader.load(2040).get();
+        assertTrue(loader.isLoaded(2040));
+        assertEquals(2, source.loads.get(2040).get());
+        assertEquals(List.of(2040), published);
+    }
+
+    @Test
+    public void testFailedFetchFromServiceIsRetried() throws Exception {
+        AtomicInteger requests = new AtomicInteger();
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/api", exchange -> {
+            if (requests.incrementAndGet() == 1) {
+                exchange.sendResponseHeaders(503, -1);
+                exchange.close();
+                return;
+            }
+            byte[] body = "[{\"date\":\"2040-12-25\",\"name\":\"Christmas Day\"}]".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        try {
+            HolidayService service = new HolidayService("http://127.0.0.1:" + server.getAddress().getPort() + "/api",
+                    "US", Duration.ofSeconds(5), 1);
+            List<Integer> published = new CopyOnWriteArrayList<>();
+            HolidayYearLoader loader = new HolidayYearLoader(service, Runnable::run, (year, holidays) -> {
+                assertEquals(1, holidays.size());
+                published.add(year);
+            });
+
+            ExecutionException failure = assertThrows(ExecutionException.class, () -> loader.load(2040).get());
+            assertInstanceOf(IOException.class, failure.getCause());
+            assertFalse(loader.isLoaded(2040));
+            assertTrue(published.isEmpty());
+
+            loader.load(2040).get(5, TimeUnit.SECONDS);
+            assertTrue(loader.isLoaded(2040));
+            assertEquals(List.of(2040), published);
+            assertEquals(2, requests.get());
+        } finally {
+            server.stop(0);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.calendarwidget.service;
+
+import com.example.calendarwidget.model.Holiday;
+import com.example.calendarwidget.model.HolidayIndex;
+import com.example.calendarwidget.model.HolidayType;
+import com.example.calendarwidget.model.VacationWindow;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class VacationPlannerTest {
+
+    // Thanksgiving and Christmas 2025 both fall on a Thursday
+    private static final HolidayIndex HOLIDAYS = HolidayIndex.builder()
+            .add(new Holiday(LocalDate.of(2025, 11, 27), "Thanksgiving Day", HolidayType.WORK))
+            .add(new Holiday(LocalDate.of(2025, 12, 25), "Christmas Day", HolidayType.WORK))
+            .add(new Holiday(LocalDate.of(2025, 11, 11), "Veterans Day", HolidayType.REGULAR))
+            .build();
+
+    private static final LocalDate FROM = LocalDate.of(2025, 11, 1);
+    private static final LocalDate TO = LocalDate.of(2025, 12, 31);
+
+    @Test
+    public void testBridgeDaysRankFirst() {
+        List<VacationWindow> plan = new VacationPlanner().plan(HOLIDAYS, FROM, TO, 1, 2);
+
+        assertEquals(List.of(
+                window(LocalDate.of(2025, 11, 27), LocalDate.of(2025, 11, 30), 1),
+                window(LocalDate.of(2025, 12, 25), LocalDate.of(2025, 12, 28), 1)), plan);
+        assertEquals(4.0, plan.get(0).getDaysOffPerLeaveDay());
+    }
+
+    @Test
+    public void testWindowsRespectBudgetAndDoNotOverlap() {
+        List<VacationWindow> plan = new VacationPlanner().plan(HOLIDAYS, FROM, TO, 4, 6);
+
+        assertEquals(6, plan.size());
+        for (int i = 0; i < plan.size(); i++) {
+            VacationWindow w = plan.get(i);
+            assertTrue(w.getLeaveDays() <= 4, w.toString());
+            if (i > 0) {
+                assertTrue(plan.get(i - 1).getDaysOffPerLeaveDay() >= w.getDaysOffPerLeaveDay(), plan.toString());
+            }
+            for (int j = 0; j < i; j++) {
+                VacationWindow other = plan.get(j);
+                assertTrue(w.getEndEpochDay() + 1 < other.getStartEpochDay()
+                        || other.getEndEpochDay() + 1 < w.getStartEpochDay(), w + " touches " + other);
+            }
+        }
+    }
+
+    @Test
+    public void testCustomWeekendAndEmptyInputs() {
+        VacationPlanner planner = new VacationPlanner(EnumSet.of(DayOfWeek.FRIDAY, DayOfWeek.SATURDAY));
+
+        // With a Friday/Saturday weekend the bridge day before a Thursday holiday is Wednesday
+        assertEquals(window(LocalDate.of(2025, 11, 26), LocalDate.of(2025, 11, 29), 1),
+                planner.plan(HOLIDAYS, FROM, TO, 1, 1).get(0));
+        assertTrue(planner.plan(HOLIDAYS, FROM, TO, 0, 5).isEmpty());
+        assertTrue(planner.plan(HOLIDAYS, TO, FROM, 5, 5).isEmpty());
+    }
+
+    @Test
+    public void testMultiYearMultiCountryHorizon() {
+        HolidayIndex.Builder builder = HolidayIndex.builder();
+        for (int year = 2000; year < 2050; year++) {
+            builder.add(new Holiday(LocalDate.of(year, 12, 25), "Christmas Day", HolidayType.WORK));
+            builder.add(new Holiday(LocalDate.of(year, 1, 1), "New Year's Day", HolidayType.WORK));
+        }
+        Map<String, HolidayIndex> byCountry = new LinkedHashMap<>();
+        byCountry.put("US", builder.build());
+        byCountry.put("XX", HolidayIndex.EMPTY);
+
+        Map<String, List<VacationWindow>> plans = new VacationPlanner().planAll(byCountry,
+                LocalDate.of(2000, 1, 1), LocalDate.of(2049, 12, 31), 10, 5);
+
+        assertEquals(List.of("US", "XX"), List.copyOf(plans.keySet()));
+        assertEquals(5, plans.get("US").size());
+        // Without holidays the best ratio is one leave day next to a weekend
+        assertEquals(3.0, plans.get("XX").get(0).getDaysOffPerLeaveDay(), 1e-9);
+        assertEquals(4.0, plans.get("US").get(0).getDaysOffPerLeaveDay(), 1e-9);
+    }
+
+    private static VacationWindow window(LocalDate start, LocalDate end, int leaveDays) {
+        return new VacationWindow((int) start.toEpochDay(), (int) end.toEpochDay(), leaveDays);
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.calendarwidget.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Formatter;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AsyncFileHandlerTest {
+
+    /** Formats one record per line, holding up the writer thread on the record "stall" until released. */
+    private static class GatedFormatter extends Formatter {
+        final CountDownLatch stalled = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        @Override
+        public String format(LogRecord record) {
+            if (record.getMessage().equals("stall")) {
+                stalled.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return record.getMessage() + System.lineSeparator();
+        }
+    }
+
+    private static LogRecord record(String message) {
+        return new LogRecord(Level.INFO, message);
+    }
+
+    @Test
+    public void testWritesInOrderAndRollsOverBySize(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("logs").resolve("widget.log");
+        AsyncFileHandler handler = new AsyncFileHandler(file, 300, 2, 64, AsyncFileHandler.OverflowPolicy.BLOCK, 8);
+        handler.setFormatter(new GatedFormatter());
+        for (int i = 0; i < 100; i++) {
+            handler.publish(record(String.format("record %03d", i)));
+        }
+        handler.flush();
+        handler.close();
+
+        assertTrue(Files.exists(dir.resolve("logs").resolve("widget.log.1")));
+        assertTrue(Files.exists(dir.resolve("logs").resolve("widget.log.2")));
+        assertFalse(Files.exists(dir.resolve("logs").resolve("widget.log.3")), "Only two generations are kept");
+        List<String> newest = Files.exists(file) ? Files.readAllLines(file, StandardCharsets.UTF_8) : List.of();
+        List<String> previous = Files.readAllLines(dir.resolve("logs").resolve("widget.log.1"), StandardCharsets.UTF_8);
+        String last = newest.isEmpty() ? previous.get(previous.size() - 1) : newest.get(newest.size() - 1);
+        assertEquals("record 099", last);
+        for (int i = 1; i < previous.size(); i++) {
+            assertTrue(previous.get(i - 1).compareTo(previous.get(i)) < 0, "Records stay in order");
+        }
+        assertEquals(0, handler.getDroppedCount());
+    }
+
+    @Test
+    public void testDropPolicyDiscardsAndCountsWhenFull(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("widget.log");
+        AsyncFileHandler handler = new AsyncFileHandler(file, 1 << 20, 1, 4, AsyncFileHandler.OverflowPolicy.DROP, 16);
+        GatedFormatter formatter = new GatedFormatter();
+        handler.setFormatter(formatter);
+
+        handler.publish(record("stall"));
+        assertTrue(formatter.stalled.await(5, TimeUnit.SECONDS));
+        long start = System.nanoTime();
+        for (int i = 0; i < 10; i++) {
+            handler.publish(record("queued " + i));
+        }
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1), "Publishing never waits");
+        assertEquals(6, handler.getDroppedCount());
+
+        formatter.release.countDown();
+        handler.close();
+        assertEquals(List.of("stall", "queued 0", "queued 1", "queued 2", "queued 3"),
+                Files.readAllLines(file, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testBlockPolicyWaitsForSpace(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("widget.log");
+        AsyncFileHandler handler = new AsyncFileHandler(file, 1 << 20, 1, 2, AsyncFileHandler.OverflowPolicy.BLOCK, 16);
+        GatedFormatter formatter = new GatedFormatter();
+        handler.setFormatter(formatter);
+
+        handler.publish(record("stall"));
+        assertTrue(formatter.stalled.await(5, TimeUnit.SECONDS));
+        Thread publisher = new Thread(() -> {
+            for (int i = 0; i < 5; i++) {
+                handler.publish(record("queued " + i));
+            }
+        });
+        publisher.start();
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (publisher.getState() != Thread.State.WAITING && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(Thread.State.WAITING, publisher.getState(), "Publisher waits while the buffer is full");
+
+        formatter.release.countDown();
+        publisher.join(5_000);
+        handler.flush();
+        assertEquals(6, Files.readAllLines(file, StandardCharsets.UTF_8).size());
+        assertEquals(0, handler.getDroppedCount());
+        handler.close();
+    }
+}
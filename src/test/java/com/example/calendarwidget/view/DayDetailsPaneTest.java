@@ -0,0 +1,31 @@
+package com.example.calendarwidget.view;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DayDetailsPaneTest {
+
+    @BeforeAll
+    public static void headless() {
+        System.setProperty("java.awt.headless", "true");
+    }
+
+    @Test
+    public void testShowDetailsUpdatesTextWithoutChangingVisibility() {
+        DayDetailsPane pane = new DayDetailsPane();
+        assertEquals(DayDetailsPane.NO_SELECTION, pane.getText());
+
+        pane.setVisible(false);
+        pane.showDetails(LocalDate.of(2025, 12, 25), "Work Holiday: Christmas Day");
+        assertEquals(LocalDate.of(2025, 12, 25), pane.getDate());
+        assertEquals("Work Holiday: Christmas Day", pane.getText());
+        assertFalse(pane.isVisible());
+
+        pane.showDetails(LocalDate.of(2025, 12, 27), "");
+        assertEquals(DayDetailsPane.NO_EVENTS, pane.getText());
+    }
+}
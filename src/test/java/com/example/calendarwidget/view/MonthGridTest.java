@@ -0,0 +1,177 @@
+package com.example.calendarwidget.view;
+
+import com.example.calendarwidget.model.Holiday;
+import com.example.calendarwidget.model.HolidayIndex;
+import com.example.calendarwidget.model.HolidayType;
+import com.example.calendarwidget.model.VacationWindow;
+import com.toedter.calendar.JCalendar;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.MouseEvent;
+import java.awt.image.BufferedImage;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MonthGridTest {
+    private static final HolidayIndex HOLIDAYS = HolidayIndex.builder()
+            .add(new Holiday(LocalDate.of(2025, 12, 24), "Office Closure", HolidayType.WORK))
+            .add(new Holiday(LocalDate.of(2025, 12, 25), "Christmas Day", HolidayType.WORK))
+            .add(new Holiday(LocalDate.of(2025, 12, 25), "Christmas", HolidayType.REGULAR))
+            .add(new Holiday(LocalDate.of(2025, 11, 27), "Thanksgiving Day", HolidayType.WORK))
+            .build();
+    private static final YearMonth DECEMBER = YearMonth.of(2025, 12);
+
+    @BeforeAll
+    public static void headless() {
+        System.setProperty("java.awt.headless", "true");
+    }
+
+    @Test
+    public void testHitTestingFindsDaysAndTooltips() {
+        MonthGrid grid = grid(3, DECEMBER.minusMonths(1));
+
+        Rectangle christmas = grid.getDayBounds(LocalDate.of(2025, 12, 25));
+        assertEquals(LocalDate.of(2025, 12, 25), grid.dateAt((int) christmas.getCenterX(), (int) christmas.getCenterY()));
+        Rectangle december = grid.getMonthBounds(1);
+        assertTrue(december.contains(christmas));
+        assertNull(grid.dateAt(december.x + 1, december.y + 1), "Title is not a day");
+        // 30 November 2025 is a Sunday in the fifth row, so the sixth row stays empty
+        Rectangle last = grid.getDayBounds(LocalDate.of(2025, 11, 30));
+        assertNull(grid.dateAt(last.x + 1, last.y + last.height + 1), "Cells after the last day are empty");
+        assertNull(grid.dateAt(grid.getWidth() - 1, grid.getHeight() - 1));
+
+        assertEquals("<html>Work Holiday: Christmas Day<br>Holiday: Christmas</html>",
+                grid.getToolTipText(mouse(grid, MouseEvent.MOUSE_MOVED, christmas)));
+        assertEquals("Work Holiday: Office Closure",
+                grid.getToolTipText(mouse(grid, MouseEvent.MOUSE_MOVED, grid.getDayBounds(LocalDate.of(2025, 12, 24)))));
+        assertNull(grid.getToolTipText(mouse(grid, MouseEvent.MOUSE_MOVED, grid.getDayBounds(LocalDate.of(2026, 1, 14)))));
+    }
+
+    @Test
+    public void testClickSelectsDateButProgrammaticSelectionDoesNotFire() {
+        MonthGrid grid = grid(3, DECEMBER.minusMonths(1));
+        List<LocalDate> fired = new ArrayList<>();
+        grid.addPropertyChangeListener(MonthGrid.SELECTED_DATE_PROPERTY, evt -> fired.add((LocalDate) evt.getNewValue()));
+
+        grid.setSelectedDate(LocalDate.of(2025, 12, 1));
+        assertTrue(fired.isEmpty());
+
+        grid.dispatchEvent(mouse(grid, MouseEvent.MOUSE_CLICKED, grid.getDayBounds(LocalDate.of(2026, 1, 6))));
+        assertEquals(List.of(LocalDate.of(2026, 1, 6)), fired);
+        assertEquals(LocalDate.of(2026, 1, 6), grid.getSelectedDate());
+
+        // Clicking a title selects nothing
+        Rectangle title = grid.getMonthBounds(0);
+        grid.dispatchEvent(new MouseEvent(grid, MouseEvent.MOUSE_CLICKED, 0, MouseEvent.BUTTON1_DOWN_MASK,
+                title.x + 2, title.y + 2, 1, false, MouseEvent.BUTTON1));
+        assertEquals(1, fired.size());
+    }
+
+    @Test
+    public void testMonthCountIsBoundedAndLaidOutInRows() {
+        assertThrows(IllegalArgumentException.class, () -> new MonthGrid(0));
+        assertThrows(IllegalArgumentException.class, () -> new MonthGrid(MonthGrid.MAX_MONTHS + 1));
+
+        MonthGrid year = grid(12, YearMonth.of(2025, 1));
+        Rectangle january = year.getMonthBounds(0);
+        Rectangle may = year.getMonthBounds(4);
+        Rectangle december = year.getMonthBounds(11);
+        assertEquals(january.x, may.x, "Four months per row");
+        assertTrue(may.y > january.y + january.height);
+        assertTrue(december.x > january.x && december.y > may.y);
+        assertEquals(LocalDate.of(2025, 5, 5), year.dateAt(
+                (int) year.getDayBounds(LocalDate.of(2025, 5, 5)).getCenterX(),
+                (int) year.getDayBounds(LocalDate.of(2025, 5, 5)).getCenterY()));
+
+        MonthGrid single = new MonthGrid(1);
+        MonthGrid three = new MonthGrid(3);
+        assertTrue(three.getPreferredSize().width > 2 * single.getPreferredSize().width);
+        assertEquals(three.getPreferredSize().height, single.getPreferredSize().height);
+    }
+
+    @Test
+    public void testPaintsVacationAndSelectionBackgrounds() {
+        MonthGrid grid = grid(1, DECEMBER);
+        VacationWindow christmas = new VacationWindow((int) LocalDate.of(2025, 12, 20).toEpochDay(),
+                (int) LocalDate.of(2025, 12, 28).toEpochDay(), 3);
+        grid.setModel(0, MonthRenderModel.compute(DECEMBER, HOLIDAYS, List.of(christmas)));
+        grid.setSelectedDate(LocalDate.of(2025, 12, 10));
+
+        BufferedImage image = new BufferedImage(grid.getWidth(), grid.getHeight(), BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        grid.paint(g);
+        g.dispose();
+
+        Rectangle vacation = grid.getDayBounds(LocalDate.of(2025, 12, 22));
+        assertEquals(MonthRenderModel.VACATION_BACKGROUND.getRGB(), image.getRGB(vacation.x + 2, vacation.y + 2));
+        Rectangle plain = grid.getDayBounds(LocalDate.of(2025, 12, 3));
+        assertEquals(Color.WHITE.getRGB(), image.getRGB(plain.x + 2, plain.y + 2));
+        Rectangle selected = grid.getDayBounds(LocalDate.of(2025, 12, 10));
+        assertNotEquals(Color.WHITE.getRGB(), image.getRGB(selected.x + 2, selected.y + 2));
+    }
+
+    /**
+     * The grid draws every month itself from the shared render models, where the layout it
+     * replaced built one JCalendar per month with a button per day. Heap and paint time of the
+     * two are compared by {@code MonthGridBenchmark}.
+     */
+    @Test
+    public void testGridShowsAYearAsOneComponentOverSharedModels() throws Exception {
+        List<MonthRenderModel> models = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            models.add(MonthRenderModel.compute(YearMonth.of(2025, 1).plusMonths(i), HOLIDAYS));
+        }
+        int[] counts = new int[2];
+        SwingUtilities.invokeAndWait(() -> {
+            MonthGrid grid = new MonthGrid(12);
+            for (int i = 0; i < 12; i++) {
+                grid.setModel(i, models.get(i));
+            }
+            for (int i = 0; i < 12; i++) {
+                assertSame(models.get(i), grid.getModel(i));
+            }
+            counts[0] = componentCount(grid);
+
+            JPanel calendars = new JPanel(new GridLayout(3, 4));
+            for (int i = 0; i < 12; i++) {
+                calendars.add(new JCalendar());
+            }
+            counts[1] = componentCount(calendars) - 1;
+        });
+        assertEquals(1, counts[0]);
+        // Each JCalendar has at least a button per weekday header and per cell of its six weeks
+        assertTrue(counts[1] > 12 * 7 * 7, "JCalendars built " + counts[1] + " components");
+    }
+
+    private static MonthGrid grid(int months, YearMonth first) {
+        MonthGrid grid = new MonthGrid(months);
+        for (int i = 0; i < months; i++) {
+            grid.setModel(i, MonthRenderModel.compute(first.plusMonths(i), HOLIDAYS));
+        }
+        grid.setSize(grid.getPreferredSize());
+        return grid;
+    }
+
+    private static MouseEvent mouse(Component source, int id, Rectangle cell) {
+        return new MouseEvent(source, id, 0, id == MouseEvent.MOUSE_CLICKED ? MouseEvent.BUTTON1_DOWN_MASK : 0,
+                (int) cell.getCenterX(), (int) cell.getCenterY(), 1, false,
+                id == MouseEvent.MOUSE_CLICKED ? MouseEvent.BUTTON1 : MouseEvent.NOBUTTON);
+    }
+
+    private static int componentCount(Component component) {
+        int count = 1;
+        if (component instanceof Container container) {
+            for (Component child : container.getComponents()) {
+                count += componentCount(child);
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.calendarwidget.view;
+
+import com.example.calendarwidget.model.Holiday;
+import com.example.calendarwidget.model.HolidayIndex;
+import com.example.calendarwidget.model.HolidayType;
+import com.example.calendarwidget.model.VacationWindow;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import javax.swing.*;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MonthRenderModelTest {
+
+    private static final HolidayIndex HOLIDAYS = HolidayIndex.builder()
+            .add(new Holiday(LocalDate.of(2025, 12, 24), "Office Closure", HolidayType.WORK))
+            .add(new Holiday(LocalDate.of(2025, 12, 25), "Christmas Day", HolidayType.WORK))
+            .add(new Holiday(LocalDate.of(2025, 11, 27), "Thanksgiving Day", HolidayType.WORK))
+            .add(new Holiday(LocalDate.of(2025, 11, 11), "Veterans Day", HolidayType.REGULAR))
+            .build();
+
+    @BeforeAll
+    public static void headless() {
+        System.setProperty("java.awt.headless", "true");
+    }
+
+    @Test
+    public void testModelColoursWeeksAndDescribesDays() {
+        MonthRenderModel december = MonthRenderModel.compute(YearMonth.of(2025, 12), HOLIDAYS);
+
+        assertEquals(31, december.getLengthOfMonth());
+        assertEquals(MonthRenderModel.MULTIPLE_WORK_HOLIDAY_WEEK, december.getForeground(22));
+        assertEquals(MonthRenderModel.MULTIPLE_WORK_HOLIDAY_WEEK, december.getForeground(28));
+        assertEquals(MonthRenderModel.DEFAULT_FOREGROUND, december.getForeground(29));
+        assertEquals(7, december.getHighlightedDays());
+        assertTrue(december.isBold(25));
+        assertFalse(december.isBold(26));
+        assertEquals("Work Holiday: Christmas Day", december.getTooltip(25));
+        assertNull(december.getTooltip(26));
+
+        MonthRenderModel november = MonthRenderModel.compute(YearMonth.of(2025, 11), HOLIDAYS);
+        assertEquals(MonthRenderModel.SINGLE_WORK_HOLIDAY_WEEK, november.getForeground(24));
+        assertEquals(MonthRenderModel.DEFAULT_FOREGROUND, november.getForeground(11));
+        assertEquals("Holiday: Veterans Day", november.getTooltip(11));
+    }
+
+    @Test
+    public void testVacationPlanIsOverlaid() {
+        VacationWindow christmas = new VacationWindow((int) LocalDate.of(2025, 12, 24).toEpochDay(),
+                (int) LocalDate.of(2025, 12, 28).toEpochDay(), 1);
+        MonthRenderModel december = MonthRenderModel.compute(YearMonth.of(2025, 12), HOLIDAYS, List.of(christmas));
+
+        assertFalse(december.isVacation(23));
+        assertTrue(december.isVacation(24));
+        assertTrue(december.isVacation(28));
+        assertFalse(december.isVacation(29));
+        assertTrue(december.getTooltip(25).startsWith("Work Holiday: Christmas Day\nSuggested break: 5 days off"));
+        assertFalse(MonthRenderModel.compute(YearMonth.of(2025, 12), HOLIDAYS).isVacation(24));
+
+        MonthRenderCache cache = new MonthRenderCache(HOLIDAYS, 4);
+        MonthRenderModel plain = cache.get(YearMonth.of(2025, 12));
+        cache.setVacationPlan(List.of(christmas));
+        assertNotSame(plain, cache.get(YearMonth.of(2025, 12)));
+        assertTrue(cache.get(YearMonth.of(2025, 12)).isVacation(24));
+    }
+
+    @Test
+    public void testCacheReusesModelsUntilHolidaysChange() {
+        MonthRenderCache cache = new MonthRenderCache(HOLIDAYS, 2);
+        MonthRenderModel first = cache.get(YearMonth.of(2025, 12));
+
+        assertSame(first, cache.get(YearMonth.of(2025, 12)));
+        assertEquals(1, cache.getHits());
+
+        cache.get(YearMonth.of(2025, 11));
+        cache.get(YearMonth.of(2025, 10));
+        assertNotSame(first, cache.get(YearMonth.of(2025, 12)), "Least recently used month should be evicted");
+
+        MonthRenderModel cached = cache.get(YearMonth.of(2025, 12));
+        cache.setHolidays(HolidayIndex.EMPTY);
+        assertNotSame(cached, cache.get(YearMonth.of(2025, 12)));
+        assertNull(cache.get(YearMonth.of(2025, 12)).getTooltip(25));
+    }
+
+    @Test
+    public void testViewShowsModelsAroundCurrentMonth() throws Exception {
+        MonthRenderCache cache = new MonthRenderCache(HOLIDAYS, MonthRenderCache.DEFAULT_CAPACITY);
+        CalendarView[] view = new CalendarView[1];
+        SwingUtilities.invokeAndWait(() -> {
+            view[0] = new CalendarView(cache, CalendarView.DEFAULT_MONTH_COUNT);
+            view[0].updateCalendars(LocalDate.of(2025, 12, 1));
+        });
+
+        MonthGrid grid = view[0].getMonthGrid();
+        assertEquals(YearMonth.of(2025, 11), grid.getModel(0).getMonth());
+        MonthRenderModel december = grid.getModel(1);
+        assertEquals(YearMonth.of(2025, 12), december.getMonth());
+        assertEquals("Work Holiday: Christmas Day", december.getTooltip(25));
+        assertTrue(december.isBold(25));
+        assertEquals(MonthRenderModel.MULTIPLE_WORK_HOLIDAY_WEEK, december.getForeground(25));
+        assertEquals(MonthRenderModel.SINGLE_WORK_HOLIDAY_WEEK, grid.getModel(0).getForeground(27));
+        MonthRenderModel january = grid.getModel(2);
+        assertNull(january.getTooltip(14));
+        assertFalse(january.isBold(14));
+
+        // A twelve-month view keeps the current month in the middle
+        SwingUtilities.invokeAndWait(() -> view[0].setMonthCount(12));
+        assertEquals(YearMonth.of(2025, 7), grid.getModel(0).getMonth());
+        assertEquals(YearMonth.of(2026, 6), grid.getModel(11).getMonth());
+
+        // Navigating back and forth is served from the render cache, computing only July 2026
+        int hits = cache.getHits();
+        int misses = cache.getMisses();
+        SwingUtilities.invokeAndWait(() -> {
+            for (int i = 0; i < 12; i++) {
+                view[0].updateCalendars(LocalDate.of(2025, 12, 1).plusMonths(i % 2));
+            }
+        });
+        assertEquals(misses + 1, cache.getMisses());
+        assertEquals(hits + 12 * 12 - 1, cache.getHits());
+    }
+}